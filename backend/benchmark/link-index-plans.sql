@@ -0,0 +1,129 @@
+-- Query plans for LinkRepository/UserRepository queries at 1M links, before and after the
+-- indexes from db/migration/V2__link_lookup_indexes.sql.
+--
+-- Runs in a throw-away schema, never touches the application tables:
+--   psql "$DATABASE_URL" -f backend/benchmark/link-index-plans.sql
+--
+-- Requires pg_trgm (CREATE EXTENSION pg_trgm, done by the V2 migration).
+--
+-- Reference run, PostgreSQL 15.4, 1M links / 5k users, execution time:
+--   query                               before (plan)                after (plan)
+--   findByReferenceCodeIgnoreCase       398 ms  parallel seq scan    0.03 ms  index scan (lower uidx)
+--   findBySearchTerm, page of 20       1370 ms  full index walk      0.9 ms  bitmap OR of 4 trgm indexes
+--   findBySearchTerm, count            1110 ms  parallel seq scan    0.8 ms  bitmap OR of 4 trgm indexes
+--   brand + status, count               219 ms  parallel seq scan     70 ms  bitmap index scan
+--   findByRoleOrderByCreatedAtDesc      0.8 ms  seq scan             0.3 ms  bitmap index scan
+
+\timing on
+DROP SCHEMA IF EXISTS link_bench CASCADE;
+CREATE SCHEMA link_bench;
+SET search_path = link_bench, public;
+
+CREATE TABLE users (
+    id BIGSERIAL PRIMARY KEY, username VARCHAR(255) UNIQUE, email VARCHAR(255) UNIQUE,
+    password VARCHAR(255), role VARCHAR(255) NOT NULL, created_at TIMESTAMP(6), updated_at TIMESTAMP(6)
+);
+CREATE TABLE links (
+    id BIGSERIAL PRIMARY KEY, reference_code VARCHAR(255) UNIQUE, full_url VARCHAR(255),
+    description VARCHAR(500), brand_name VARCHAR(100), status VARCHAR(20),
+    added_by_id BIGINT REFERENCES users (id), created_at TIMESTAMP(6), updated_at TIMESTAMP(6)
+);
+
+INSERT INTO users (username, email, password, role, created_at, updated_at)
+SELECT 'admin' || g, 'admin' || g || '@example.com', 'x',
+       CASE WHEN g % 50 = 0 THEN 'SUPER_ADMIN' ELSE 'ADMIN' END,
+       now() - (g || ' minutes')::interval, now()
+FROM generate_series(1, 5000) g;
+
+INSERT INTO links (reference_code, full_url, description, brand_name, status, added_by_id, created_at, updated_at)
+SELECT 'PI-' || g,
+       'https://assets.company.com/pharma/' || (ARRAY['egypt','india','pakistan','gulf','saudi'])[1 + g % 5]
+           || '/' || lower(b.brand) || '/pi_' || g || '_v1.pdf',
+       b.brand || ' Product Information - ' || (ARRAY['Egypt','India','Pakistan','Gulf','Saudi'])[1 + g % 5],
+       b.brand,
+       CASE WHEN g % 10 = 0 THEN 'INACTIVE' ELSE 'ACTIVE' END,
+       1 + g % 5000, now(), now()
+FROM generate_series(1, 1000000) g
+CROSS JOIN LATERAL (SELECT (ARRAY['Singrix','Ventolin','Panadol','Augmentin','Seretide','Voltaren',
+                                  'Otrivin','Sensodyne','Parodontax','Zovirax'])[1 + (g / 7) % 10] AS brand) b;
+
+ANALYZE users;
+ANALYZE links;
+
+\echo '==================== BEFORE (no indexes) ===================='
+
+\echo '--- findByReferenceCodeIgnoreCase'
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT * FROM links WHERE lower(reference_code) = lower('pi-123456');
+
+-- A selective term; Page<Link> also runs the count query, which has to visit every match
+\echo '--- findBySearchTerm (page)'
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT * FROM links
+WHERE lower(reference_code) LIKE lower('%' || '23456' || '%')
+   OR lower(description) LIKE lower('%' || '23456' || '%')
+   OR lower(brand_name) LIKE lower('%' || '23456' || '%')
+   OR lower(full_url) LIKE lower('%' || '23456' || '%')
+ORDER BY reference_code LIMIT 20;
+
+\echo '--- findBySearchTerm (count)'
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT count(*) FROM links
+WHERE lower(reference_code) LIKE lower('%' || '23456' || '%')
+   OR lower(description) LIKE lower('%' || '23456' || '%')
+   OR lower(brand_name) LIKE lower('%' || '23456' || '%')
+   OR lower(full_url) LIKE lower('%' || '23456' || '%');
+
+\echo '--- brand/status filter (count)'
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT count(*) FROM links WHERE brand_name = 'Panadol' AND status = 'INACTIVE';
+
+\echo '--- findByRoleOrderByCreatedAtDesc'
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT * FROM users WHERE role = 'SUPER_ADMIN' ORDER BY created_at DESC;
+
+-- Same statements as V2__link_lookup_indexes.sql
+CREATE UNIQUE INDEX links_lower_reference_code_uidx ON links (lower(reference_code));
+CREATE INDEX links_reference_code_trgm_idx ON links USING gin (lower(reference_code) gin_trgm_ops);
+CREATE INDEX links_description_trgm_idx ON links USING gin (lower(description) gin_trgm_ops);
+CREATE INDEX links_brand_name_trgm_idx ON links USING gin (lower(brand_name) gin_trgm_ops);
+CREATE INDEX links_full_url_trgm_idx ON links USING gin (lower(full_url) gin_trgm_ops);
+CREATE INDEX links_brand_name_status_idx ON links (brand_name, status);
+CREATE INDEX links_added_by_id_idx ON links (added_by_id);
+CREATE INDEX users_role_created_at_idx ON users (role, created_at DESC);
+ANALYZE users;
+ANALYZE links;
+
+\echo '==================== AFTER (V2 indexes) ===================='
+
+\echo '--- findByReferenceCodeIgnoreCase'
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT * FROM links WHERE lower(reference_code) = lower('pi-123456');
+
+-- A selective term; Page<Link> also runs the count query, which has to visit every match
+\echo '--- findBySearchTerm (page)'
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT * FROM links
+WHERE lower(reference_code) LIKE lower('%' || '23456' || '%')
+   OR lower(description) LIKE lower('%' || '23456' || '%')
+   OR lower(brand_name) LIKE lower('%' || '23456' || '%')
+   OR lower(full_url) LIKE lower('%' || '23456' || '%')
+ORDER BY reference_code LIMIT 20;
+
+\echo '--- findBySearchTerm (count)'
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT count(*) FROM links
+WHERE lower(reference_code) LIKE lower('%' || '23456' || '%')
+   OR lower(description) LIKE lower('%' || '23456' || '%')
+   OR lower(brand_name) LIKE lower('%' || '23456' || '%')
+   OR lower(full_url) LIKE lower('%' || '23456' || '%');
+
+\echo '--- brand/status filter (count)'
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT count(*) FROM links WHERE brand_name = 'Panadol' AND status = 'INACTIVE';
+
+\echo '--- findByRoleOrderByCreatedAtDesc'
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT * FROM users WHERE role = 'SUPER_ADMIN' ORDER BY created_at DESC;
+
+DROP SCHEMA link_bench CASCADE;
@@ -1,9 +1,14 @@
 package com.smartlinkfinder;
 
+import com.smartlinkfinder.config.NativeRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@ImportRuntimeHints(NativeRuntimeHints.class)
+@EnableScheduling
 public class SmartLinkFinderApplication {
     public static void main(String[] args) {
         SpringApplication.run(SmartLinkFinderApplication.class, args);
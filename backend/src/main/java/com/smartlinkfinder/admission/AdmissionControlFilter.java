@@ -0,0 +1,171 @@
+package com.smartlinkfinder.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admission control in front of the application: every RequestClass gets its own concurrency
+ * budget and a short bounded wait queue. When a class is saturated its requests are rejected
+ * immediately with 503 + Retry-After instead of occupying a Tomcat thread and a DB connection,
+ * so a burst of Excel uploads or full-catalog listings cannot delay public lookups.
+ *
+ * Budgets are configured per class with admission.{public|search|admin|import}.max-concurrent,
+ * .max-queue and .max-wait-ms.
+ */
+@Component
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionControlFilter.class);
+
+    private final boolean enabled;
+    private final int retryAfterSeconds;
+    private final Map<RequestClass, Bulkhead> bulkheads = new EnumMap<>(RequestClass.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public AdmissionControlFilter(Environment environment,
+                                  @Value("${admission.enabled:true}") boolean enabled,
+                                  @Value("${admission.retry-after-seconds:1}") int retryAfterSeconds) {
+        this.enabled = enabled;
+        this.retryAfterSeconds = retryAfterSeconds;
+        for (RequestClass requestClass : RequestClass.values()) {
+            String prefix = "admission." + requestClass.getKey() + ".";
+            bulkheads.put(requestClass, new Bulkhead(
+                environment.getProperty(prefix + "max-concurrent", Integer.class, requestClass.getDefaultMaxConcurrent()),
+                environment.getProperty(prefix + "max-queue", Integer.class, requestClass.getDefaultMaxQueue()),
+                environment.getProperty(prefix + "max-wait-ms", Long.class, requestClass.getDefaultMaxWaitMillis())));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        RequestClass requestClass = enabled ? RequestClass.of(request) : null;
+        if (requestClass == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Bulkhead bulkhead = bulkheads.get(requestClass);
+        boolean admitted;
+        try {
+            admitted = bulkhead.tryEnter();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+        if (!admitted) {
+            reject(requestClass, request, response);
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            bulkhead.exit();
+        }
+    }
+
+    /**
+     * Current usage per class, for the detailed health endpoint
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new HashMap<>();
+        bulkheads.forEach((requestClass, bulkhead) -> {
+            Map<String, Object> classStatistics = new HashMap<>();
+            classStatistics.put("active", bulkhead.maxConcurrent - bulkhead.permits.availablePermits());
+            classStatistics.put("queued", bulkhead.queued.get());
+            classStatistics.put("maxConcurrent", bulkhead.maxConcurrent);
+            classStatistics.put("maxQueue", bulkhead.maxQueue);
+            classStatistics.put("rejected", bulkhead.rejected.get());
+            statistics.put(requestClass.getKey(), classStatistics);
+        });
+        return statistics;
+    }
+
+    private void reject(RequestClass requestClass, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        logger.debug("Shedding {} request {} {}", requestClass, request.getMethod(), request.getRequestURI());
+
+        Map<String, Object> error = new HashMap<>();
+        error.put("timestamp", LocalDateTime.now().toString());
+        error.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        error.put("error", "Service Unavailable");
+        error.put("message", "The server is busy, please retry shortly.");
+
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+
+    /**
+     * Concurrency limit plus a bounded number of waiters with a maximum wait.
+     */
+    private static final class Bulkhead {
+        private final int maxConcurrent;
+        private final int maxQueue;
+        private final long maxWaitMillis;
+        private final Semaphore permits;
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicLong rejected = new AtomicLong();
+
+        Bulkhead(int maxConcurrent, int maxQueue, long maxWaitMillis) {
+            if (maxConcurrent <= 0 || maxQueue < 0 || maxWaitMillis < 0) {
+                throw new IllegalArgumentException("Invalid admission budget");
+            }
+            this.maxConcurrent = maxConcurrent;
+            this.maxQueue = maxQueue;
+            this.maxWaitMillis = maxWaitMillis;
+            this.permits = new Semaphore(maxConcurrent);
+        }
+
+        boolean tryEnter() throws InterruptedException {
+            if (permits.tryAcquire()) {
+                return true;
+            }
+            if (maxQueue == 0 || maxWaitMillis == 0) {
+                rejected.incrementAndGet();
+                return false;
+            }
+            if (queued.incrementAndGet() > maxQueue) {
+                queued.decrementAndGet();
+                rejected.incrementAndGet();
+                return false;
+            }
+            try {
+                if (permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+                rejected.incrementAndGet();
+                return false;
+            } finally {
+                queued.decrementAndGet();
+            }
+        }
+
+        void exit() {
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.smartlinkfinder.admission;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Unauthenticated endpoints that are rate limited per client address. Each class has its own
+ * token bucket per client, so a scraper hammering search does not use up the same client's
+ * public lookups or logins.
+ */
+public enum RateLimitClass {
+
+    PUBLIC_RESOLVE("public", 60, 1200),
+    SEARCH("search", 30, 300),
+    LOGIN("login", 5, 10);
+
+    private final String key;
+    private final int defaultCapacity;
+    private final int defaultRefillPerMinute;
+
+    RateLimitClass(String key, int defaultCapacity, int defaultRefillPerMinute) {
+        this.key = key;
+        this.defaultCapacity = defaultCapacity;
+        this.defaultRefillPerMinute = defaultRefillPerMinute;
+    }
+
+    public String getKey() { return key; }
+    public int getDefaultCapacity() { return defaultCapacity; }
+    public int getDefaultRefillPerMinute() { return defaultRefillPerMinute; }
+
+    /**
+     * @return the class of the request, or null for requests that are not rate limited
+     *         (authenticated admin traffic, health checks, CORS preflights)
+     */
+    public static RateLimitClass of(HttpServletRequest request) {
+        String path = request.getServletPath();
+        String method = request.getMethod();
+        if ("OPTIONS".equals(method)) {
+            return null;
+        }
+        if (path.startsWith("/public/") || path.startsWith("/links/reference/")) {
+            return PUBLIC_RESOLVE;
+        }
+        if (path.equals("/links/search") || path.startsWith("/links/search/")) {
+            return SEARCH;
+        }
+        if (path.equals("/auth/login")) {
+            return LOGIN;
+        }
+        return null;
+    }
+}
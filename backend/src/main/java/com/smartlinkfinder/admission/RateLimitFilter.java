@@ -0,0 +1,287 @@
+package com.smartlinkfinder.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-client rate limiting of the unauthenticated endpoints (public lookups, search, login).
+ * Every client address gets a token bucket per RateLimitClass; a client that has used up its
+ * bucket is rejected with 429 + Retry-After before admission control, JWT parsing or any
+ * database work.
+ *
+ * Buckets are lock-free (one CAS on a single long per request) and live in striped maps keyed
+ * by client address. Buckets that have refilled completely carry no state worth keeping, so a
+ * periodic sweep drops them; the map only holds clients that were active within the last refill
+ * period. Limits are configured per class with rate-limit.{public|search|login}.capacity and
+ * .refill-per-minute.
+ *
+ * The client address is the connection's remote address. Behind proxies it is either resolved by
+ * Tomcat (server.forward-headers-strategy=native) or, with rate-limit.trusted-proxies = n, taken
+ * from the n-th entry from the right of rate-limit.client-ip-header: each trusted proxy appends
+ * the address it received the connection from, so that entry is the first one a client cannot
+ * forge. Everything further left is client-supplied and never used.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private static final int STRIPES = 16;
+
+    private final boolean enabled;
+    private final String clientIpHeader;
+    private final int trustedProxies;
+    private final int maxClientsPerStripe;
+    private final Map<RateLimitClass, Limiter> limiters = new EnumMap<>(RateLimitClass.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public RateLimitFilter(Environment environment,
+                           @Value("${rate-limit.enabled:true}") boolean enabled,
+                           @Value("${rate-limit.client-ip-header:X-Forwarded-For}") String clientIpHeader,
+                           @Value("${rate-limit.trusted-proxies:0}") int trustedProxies,
+                           @Value("${rate-limit.max-clients:100000}") int maxClients) {
+        this.enabled = enabled;
+        this.clientIpHeader = clientIpHeader == null || clientIpHeader.isBlank() ? null : clientIpHeader.trim();
+        this.trustedProxies = Math.max(0, trustedProxies);
+        this.maxClientsPerStripe = Math.max(1, maxClients / STRIPES);
+        for (RateLimitClass rateLimitClass : RateLimitClass.values()) {
+            String prefix = "rate-limit." + rateLimitClass.getKey() + ".";
+            limiters.put(rateLimitClass, new Limiter(
+                environment.getProperty(prefix + "capacity", Integer.class, rateLimitClass.getDefaultCapacity()),
+                environment.getProperty(prefix + "refill-per-minute", Integer.class, rateLimitClass.getDefaultRefillPerMinute())));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        RateLimitClass rateLimitClass = enabled ? RateLimitClass.of(request) : null;
+        if (rateLimitClass == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String client = clientAddress(request);
+        long waitNanos = limiters.get(rateLimitClass).tryAcquire(client);
+        if (waitNanos > 0) {
+            reject(rateLimitClass, client, waitNanos, request, response);
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Drops buckets of clients that have been idle long enough to refill completely. A stripe that
+     * is still over its share of rate-limit.max-clients afterwards loses the buckets closest to
+     * full, which only hands those clients their last few tokens back; the clients that are
+     * actually being limited keep their state.
+     */
+    @Scheduled(fixedDelayString = "${rate-limit.evict-interval-ms:60000}",
+               initialDelayString = "${rate-limit.evict-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        int evicted = 0;
+        for (Limiter limiter : limiters.values()) {
+            evicted += limiter.evict(now, maxClientsPerStripe);
+        }
+        if (evicted > 0) {
+            logger.debug("Evicted {} rate limit buckets", evicted);
+        }
+    }
+
+    /**
+     * Limits, tracked clients and rejections per class, for the detailed health endpoint
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new HashMap<>();
+        limiters.forEach((rateLimitClass, limiter) -> {
+            Map<String, Object> classStatistics = new HashMap<>();
+            classStatistics.put("capacity", limiter.capacity);
+            classStatistics.put("refillPerMinute", limiter.refillPerMinute);
+            classStatistics.put("clients", limiter.clients());
+            classStatistics.put("rejected", limiter.rejected.sum());
+            statistics.put(rateLimitClass.getKey(), classStatistics);
+        });
+        return statistics;
+    }
+
+    /**
+     * The remote address, or with trusted proxies the entry the outermost of them appended
+     */
+    String clientAddress(HttpServletRequest request) {
+        if (trustedProxies == 0 || clientIpHeader == null) {
+            return request.getRemoteAddr();
+        }
+        String forwarded = request.getHeader(clientIpHeader);
+        if (forwarded == null) {
+            return request.getRemoteAddr();
+        }
+        // Walk back over trustedProxies - 1 entries; a shorter header means fewer hops than
+        // configured, and its first entry was still appended by a trusted proxy
+        int end = forwarded.length();
+        int start = forwarded.lastIndexOf(',', end - 1) + 1;
+        for (int hop = 1; hop < trustedProxies && start > 0; hop++) {
+            end = start - 1;
+            start = forwarded.lastIndexOf(',', end - 1) + 1;
+        }
+        String client = forwarded.substring(start, end).trim();
+        return client.isEmpty() ? request.getRemoteAddr() : client;
+    }
+
+    private void reject(RateLimitClass rateLimitClass, String client, long waitNanos,
+                        HttpServletRequest request, HttpServletResponse response) throws IOException {
+        logger.debug("Rate limiting {} request {} {} from {}", rateLimitClass, request.getMethod(), request.getRequestURI(), client);
+
+        long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+
+        Map<String, Object> error = new HashMap<>();
+        error.put("timestamp", LocalDateTime.now().toString());
+        error.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+        error.put("error", "Too Many Requests");
+        error.put("message", "Too many requests, please retry in " + retryAfterSeconds + " seconds.");
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+
+    /**
+     * Buckets of one class, striped by client address.
+     */
+    static final class Limiter {
+        private final int capacity;
+        private final int refillPerMinute;
+        private final long nanosPerToken;
+        private final long burstNanos;
+        @SuppressWarnings("unchecked")
+        private final ConcurrentHashMap<String, TokenBucket>[] stripes = new ConcurrentHashMap[STRIPES];
+        private final LongAdder rejected = new LongAdder();
+
+        Limiter(int capacity, int refillPerMinute) {
+            if (capacity <= 0 || refillPerMinute <= 0) {
+                throw new IllegalArgumentException("Invalid rate limit");
+            }
+            this.capacity = capacity;
+            this.refillPerMinute = refillPerMinute;
+            this.nanosPerToken = TimeUnit.MINUTES.toNanos(1) / refillPerMinute;
+            this.burstNanos = nanosPerToken * capacity;
+            for (int i = 0; i < STRIPES; i++) {
+                stripes[i] = new ConcurrentHashMap<>();
+            }
+        }
+
+        /**
+         * @return 0 if a token was taken, otherwise the nanoseconds until the next one is available
+         */
+        long tryAcquire(String client) {
+            return tryAcquire(client, System.nanoTime());
+        }
+
+        long tryAcquire(String client, long now) {
+            int hash = client.hashCode();
+            ConcurrentHashMap<String, TokenBucket> stripe = stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+            TokenBucket bucket = stripe.get(client);
+            if (bucket == null) {
+                bucket = stripe.computeIfAbsent(client, key -> new TokenBucket(now));
+            }
+            long waitNanos = bucket.tryTake(now, nanosPerToken, burstNanos);
+            if (waitNanos > 0) {
+                rejected.increment();
+            }
+            return waitNanos;
+        }
+
+        /**
+         * Removes full buckets, then the buckets closest to full from stripes still holding more
+         * than maxPerStripe clients.
+         *
+         * @return the number of buckets removed
+         */
+        int evict(long now, int maxPerStripe) {
+            int evicted = 0;
+            for (ConcurrentHashMap<String, TokenBucket> stripe : stripes) {
+                int before = stripe.size();
+                stripe.values().removeIf(bucket -> bucket.isFull(now));
+                int excess = stripe.size() - maxPerStripe;
+                if (excess > 0) {
+                    List<Map.Entry<String, TokenBucket>> entries = new ArrayList<>(stripe.entrySet());
+                    entries.sort(Comparator.comparingLong(entry -> entry.getValue().fullAt.get() - now));
+                    for (int i = 0; i < excess && i < entries.size(); i++) {
+                        stripe.remove(entries.get(i).getKey(), entries.get(i).getValue());
+                    }
+                }
+                evicted += Math.max(0, before - stripe.size());
+            }
+            return evicted;
+        }
+
+        int clients() {
+            int clients = 0;
+            for (ConcurrentHashMap<String, TokenBucket> stripe : stripes) {
+                clients += stripe.size();
+            }
+            return clients;
+        }
+    }
+
+    /**
+     * Token bucket kept as the single instant at which it will be full again (the GCRA form):
+     * the bucket holds capacity - (fullAt - now) / nanosPerToken tokens, and taking one moves
+     * fullAt one token interval further out. No separate token count or refill timestamp has to
+     * be kept consistent, so a single compare-and-set suffices.
+     */
+    static final class TokenBucket {
+        private final AtomicLong fullAt;
+
+        TokenBucket(long now) {
+            this.fullAt = new AtomicLong(now);
+        }
+
+        long tryTake(long now, long nanosPerToken, long burstNanos) {
+            while (true) {
+                long current = fullAt.get();
+                long base = current - now > 0 ? current : now;
+                long next = base + nanosPerToken;
+                long overdraft = next - now - burstNanos;
+                if (overdraft > 0) {
+                    return overdraft;
+                }
+                if (fullAt.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+
+        boolean isFull(long now) {
+            return fullAt.get() - now <= 0;
+        }
+    }
+}
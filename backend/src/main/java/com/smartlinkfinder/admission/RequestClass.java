@@ -0,0 +1,58 @@
+package com.smartlinkfinder.admission;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Traffic classes with their own admission budget. Defaults are sized so that the sum of the
+ * concurrency limits stays within the 25 connections of both the Hikari pool and fly.toml's
+ * hard_limit, with most of it reserved for the public resolve path.
+ */
+public enum RequestClass {
+
+    PUBLIC_RESOLVE("public", 12, 50, 100),
+    SEARCH("search", 6, 20, 200),
+    ADMIN("admin", 4, 10, 1000),
+    BULK_IMPORT("import", 1, 0, 0);
+
+    private final String key;
+    private final int defaultMaxConcurrent;
+    private final int defaultMaxQueue;
+    private final long defaultMaxWaitMillis;
+
+    RequestClass(String key, int defaultMaxConcurrent, int defaultMaxQueue, long defaultMaxWaitMillis) {
+        this.key = key;
+        this.defaultMaxConcurrent = defaultMaxConcurrent;
+        this.defaultMaxQueue = defaultMaxQueue;
+        this.defaultMaxWaitMillis = defaultMaxWaitMillis;
+    }
+
+    public String getKey() { return key; }
+    public int getDefaultMaxConcurrent() { return defaultMaxConcurrent; }
+    public int getDefaultMaxQueue() { return defaultMaxQueue; }
+    public long getDefaultMaxWaitMillis() { return defaultMaxWaitMillis; }
+
+    /**
+     * @return the class of the request, or null for requests that are never shed
+     *         (health checks, CORS preflights, static resources)
+     */
+    public static RequestClass of(HttpServletRequest request) {
+        String path = request.getServletPath();
+        String method = request.getMethod();
+        if ("OPTIONS".equals(method) || path.equals("/health") || path.startsWith("/health/")) {
+            return null;
+        }
+        if (path.startsWith("/public/") || path.startsWith("/links/reference/")) {
+            return PUBLIC_RESOLVE;
+        }
+        if (path.equals("/links/search") || path.startsWith("/links/search/")) {
+            return SEARCH;
+        }
+        if (path.startsWith("/excel/")) {
+            return BULK_IMPORT;
+        }
+        if (path.startsWith("/links") || path.startsWith("/auth/") || path.startsWith("/audit")) {
+            return ADMIN;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,210 @@
+package com.smartlinkfinder.audit;
+
+import com.smartlinkfinder.event.AuditEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes committed AuditEvents to the audit_log table (V7__audit_log.sql) off the request path.
+ *
+ * Events go into a bounded in-memory queue that a single writer thread drains in batches of up to
+ * audit.batch-size rows per JDBC batch. When the queue stays full for audit.offer-timeout-ms the
+ * publishing thread writes its event itself, in its own transaction and with a single attempt,
+ * which slows producers down instead of dropping audit records. Only the writer thread retries
+ * failed batches (with backoff); records that still cannot be written are logged in full.
+ */
+@Component
+public class AuditLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditLog.class);
+
+    private static final String INSERT_STATEMENT =
+        "INSERT INTO audit_log (occurred_at, actor, action, target_type, target_id, target_key, details) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int[] INSERT_TYPES = {
+        Types.TIMESTAMP, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.BIGINT, Types.VARCHAR, Types.VARCHAR };
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${audit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${audit.batch-size:200}")
+    private int batchSize;
+
+    @Value("${audit.flush-interval-ms:500}")
+    private long flushIntervalMs;
+
+    @Value("${audit.offer-timeout-ms:20}")
+    private long offerTimeoutMs;
+
+    private final BlockingQueue<AuditEvent> queue;
+    private final int capacity;
+    private volatile boolean running;
+    private Thread writer;
+    private TransactionTemplate writeTransaction;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong callerRuns = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong highWater = new AtomicLong();
+    private volatile long lastWriteMillis;
+
+    public AuditLog(@Value("${audit.queue-capacity:10000}") int capacity) {
+        this.capacity = capacity;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    @PostConstruct
+    public void start() {
+        writeTransaction = new TransactionTemplate(transactionManager);
+        // Caller-run writes happen in after-commit listeners, where the finished transaction is still bound
+        writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::drain, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        writer.join(flushIntervalMs * 4 + 5000);
+        // Whatever the writer did not get to before shutdown
+        List<AuditEvent> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            write(remaining, MAX_ATTEMPTS);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAuditEvent(AuditEvent event) {
+        if (!enabled) {
+            return;
+        }
+        published.incrementAndGet();
+        try {
+            if (queue.offer(event) || queue.offer(event, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                highWater.accumulateAndGet(queue.size(), Math::max);
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Backpressure: the producer pays for the write rather than losing the record, but does not
+        // sit through retry backoff on a request thread
+        callerRuns.incrementAndGet();
+        write(List.of(event), 1);
+    }
+
+    private void drain() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                AuditEvent first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch, MAX_ATTEMPTS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Audit writer failed", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<AuditEvent> events, int maxAttempts) {
+        List<Object[]> rows = new ArrayList<>(events.size());
+        for (AuditEvent event : events) {
+            rows.add(new Object[] {
+                Timestamp.valueOf(event.getOccurredAt()), truncate(event.getActor(), 100), event.getAction().name(),
+                event.getTargetType(), event.getTargetId(), truncate(event.getTargetKey(), 255),
+                truncate(event.getDetails(), 2000) });
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                long start = System.currentTimeMillis();
+                writeTransaction.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_STATEMENT, rows, INSERT_TYPES));
+                lastWriteMillis = System.currentTimeMillis() - start;
+                written.addAndGet(events.size());
+                batches.incrementAndGet();
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= maxAttempts) {
+                    failed.addAndGet(events.size());
+                    logger.error("Failed to write {} audit events after {} attempts: {}", events.size(), attempt, e.getMessage());
+                    events.forEach(event -> logger.error("Unwritten audit event: {} details={}", event, event.getDetails()));
+                    return;
+                }
+                try {
+                    Thread.sleep(200L << attempt);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value == null || value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("capacity", capacity);
+        stats.put("queued", queue.size());
+        stats.put("highWater", highWater.get());
+        stats.put("published", published.get());
+        stats.put("written", written.get());
+        stats.put("batches", batches.get());
+        stats.put("callerRuns", callerRuns.get());
+        stats.put("failed", failed.get());
+        stats.put("lastWriteMillis", lastWriteMillis);
+        return stats;
+    }
+}
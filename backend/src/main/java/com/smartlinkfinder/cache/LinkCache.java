@@ -0,0 +1,130 @@
+package com.smartlinkfinder.cache;
+
+import com.smartlinkfinder.entity.Link;
+import com.smartlinkfinder.event.LinkChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-instance (L1) cache for link reads served by LinkService.
+ * Entries are dropped after commit of local writes and on change notifications from other
+ * instances, see PostgresLinkChangeBus. Absent reference codes are cached as well so that
+ * repeated lookups of unknown codes do not reach the database.
+ */
+@Component
+public class LinkCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(LinkCache.class);
+
+    private final boolean enabled;
+    private final TtlCache<String, Optional<Link>> byReferenceCode;
+    private final TtlCache<Long, Link> byId;
+
+    // Bumped on every invalidation; a value loaded before a concurrent invalidation is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    // A replica in rotation can lag up to max-lag-seconds, plus whatever it fell behind since its last
+    // health check. For that long after an invalidation, loads that fill a cache read from the primary:
+    // a replica could still return the row from before the change, which would then be cached under
+    // the new generation for the whole TTL.
+    private final long primaryReadNanos;
+    private volatile long invalidatedAt;
+
+    public LinkCache(@Value("${link.cache.enabled:true}") boolean enabled,
+                     @Value("${link.cache.max-size:10000}") int maxSize,
+                     @Value("${link.cache.ttl-seconds:300}") long ttlSeconds,
+                     @Value("${datasource.replica.max-lag-seconds:5}") double replicaMaxLagSeconds,
+                     @Value("${datasource.replica.check-interval-ms:5000}") long replicaCheckIntervalMillis) {
+        this.enabled = enabled;
+        this.byReferenceCode = new TtlCache<>(maxSize, ttlSeconds * 1000);
+        this.byId = new TtlCache<>(maxSize, ttlSeconds * 1000);
+        this.primaryReadNanos = (long) (replicaMaxLagSeconds * 1_000_000_000L) + replicaCheckIntervalMillis * 1_000_000L;
+        this.invalidatedAt = System.nanoTime() - primaryReadNanos;
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Whether a load that fills this cache or the search cache must not be served by a replica,
+     * because a link changed too recently for every replica to have applied it
+     */
+    public boolean requiresPrimaryReads() {
+        return System.nanoTime() - invalidatedAt < primaryReadNanos;
+    }
+
+    /**
+     * @return null on a cache miss, otherwise the cached (possibly empty) lookup result
+     */
+    public Optional<Link> getByReferenceCode(String referenceCode) {
+        return enabled ? byReferenceCode.get(key(referenceCode)) : null;
+    }
+
+    // An invalidation bumps the generation before it evicts. So after a put either the generation
+    // still matches, and a concurrent invalidation will evict the entry, or it has moved on and
+    // the put is taken back here; a stale entry never outlives the invalidation that raced with it.
+    public void putByReferenceCode(String referenceCode, Optional<Link> link, long loadedAtGeneration) {
+        if (enabled && generation.get() == loadedAtGeneration) {
+            String key = key(referenceCode);
+            byReferenceCode.put(key, link);
+            link.ifPresent(l -> byId.put(l.getId(), l));
+            if (generation.get() != loadedAtGeneration) {
+                byReferenceCode.evict(key, link);
+                link.ifPresent(l -> byId.evict(l.getId(), l));
+            }
+        }
+    }
+
+    public Link getById(Long id) {
+        return enabled ? byId.get(id) : null;
+    }
+
+    public void putById(Link link, long loadedAtGeneration) {
+        if (enabled && generation.get() == loadedAtGeneration) {
+            byId.put(link.getId(), link);
+            if (generation.get() != loadedAtGeneration) {
+                byId.evict(link.getId(), link);
+            }
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onLinkChanged(LinkChangedEvent event) {
+        invalidatedAt = System.nanoTime();
+        generation.incrementAndGet();
+        if (event.getType() == LinkChangedEvent.Type.RELOAD) {
+            byReferenceCode.clear();
+            byId.clear();
+        } else if (event.getType() == LinkChangedEvent.Type.BATCH) {
+            // Without the codes, any cached lookup (a cached miss included) may be one of the changed links
+            byReferenceCode.clear();
+            event.getLinkIds().forEach(byId::evict);
+        } else {
+            byReferenceCode.evict(key(event.getReferenceCode()));
+            byReferenceCode.evict(key(event.getPreviousReferenceCode()));
+            byId.evict(event.getLinkId());
+        }
+        logger.debug("Link cache invalidated by {}", event);
+    }
+
+    public long getHits() {
+        return byReferenceCode.getHits() + byId.getHits();
+    }
+
+    public long getMisses() {
+        return byReferenceCode.getMisses() + byId.getMisses();
+    }
+
+    private static String key(String referenceCode) {
+        return referenceCode == null ? null : referenceCode.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,224 @@
+package com.smartlinkfinder.cache;
+
+import com.smartlinkfinder.event.LinkChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Cross-instance link change propagation over Postgres LISTEN/NOTIFY.
+ *
+ * Local changes are sent with pg_notify inside the writing transaction, so Postgres only
+ * delivers them if the write commits. A daemon thread keeps a dedicated (unpooled) connection
+ * LISTENing and republishes notifications from other instances as remote LinkChangedEvents.
+ * Disabled automatically when the configured database is not PostgreSQL.
+ *
+ * Delivery is best effort. A lost notification is repaired by the periodic catch-up from the
+ * link_changes log in CompactLinkCatalog and LinkFacetIndex (link.catalog.catch-up-interval-ms),
+ * and by TTL expiry in LinkCache and SearchResultCache.
+ */
+@Component
+public class PostgresLinkChangeBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostgresLinkChangeBus.class);
+    private static final String SEPARATOR = "|";
+    // NOTIFY payloads must be shorter than 8000 bytes
+    private static final int MAX_PAYLOAD_LENGTH = 7999;
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${link.cache.notify.enabled:true}")
+    private boolean enabled;
+
+    @Value("${link.cache.notify.channel:link_changes}")
+    private String channel;
+
+    @Value("${link.cache.notify.poll-timeout-ms:10000}")
+    private int pollTimeoutMillis;
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            logger.info("Link change notifications disabled");
+            return;
+        }
+        if (!channel.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalArgumentException("Invalid notification channel name: " + channel);
+        }
+        String url = dataSourceProperties.determineUrl();
+        if (url == null || !url.startsWith("jdbc:postgresql:")) {
+            logger.info("Link change notifications need PostgreSQL, running with local invalidation only");
+            enabled = false;
+            return;
+        }
+        running = true;
+        listenerThread = new Thread(this::listenLoop, "link-change-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    /**
+     * Runs inside the writing transaction; NOTIFY is transactional in Postgres.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void publishLocalChange(LinkChangedEvent event) {
+        if (!enabled || event.isRemote()) {
+            return;
+        }
+        try {
+            jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, channel, encode(event));
+        } catch (Exception e) {
+            // Never fail the write because of this. Other instances pick the change up on their next
+            // catch-up from link_changes (CompactLinkCatalog, LinkFacetIndex); their link caches and
+            // search result caches only by TTL expiry
+            logger.warn("Failed to publish link change notification: {}", e.getMessage());
+        }
+    }
+
+    private void listenLoop() {
+        boolean reconnect = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                logger.info("Listening for link changes on channel '{}'", channel);
+                if (reconnect) {
+                    // Notifications sent while disconnected are lost
+                    eventPublisher.publishEvent(new LinkChangedEvent(LinkChangedEvent.Type.RELOAD, null, null, null, true));
+                }
+                reconnect = true;
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMillis);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        LinkChangedEvent event = decode(notification.getParameter());
+                        if (event == null) {
+                            continue;
+                        }
+                        try {
+                            eventPublisher.publishEvent(event);
+                        } catch (Exception e) {
+                            logger.error("Error handling link change notification {}", event, e);
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    break;
+                }
+                logger.warn("Link change listener connection lost, retrying: {}", e.getMessage());
+                try {
+                    Thread.sleep(5000);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * instance|type|ids|code|previous code, where ids is the link id or a BATCH's comma-separated ids.
+     * A BATCH too long for one payload is sent as a RELOAD.
+     */
+    String encode(LinkChangedEvent event) {
+        String ids = event.getType() == LinkChangedEvent.Type.BATCH
+            ? event.getLinkIds().stream().map(String::valueOf).collect(Collectors.joining(","))
+            : event.getLinkId() == null ? "" : event.getLinkId().toString();
+        String payload = String.join(SEPARATOR,
+            instanceId,
+            event.getType().name(),
+            ids,
+            nullToEmpty(event.getReferenceCode()),
+            nullToEmpty(event.getPreviousReferenceCode()));
+        if (payload.length() > MAX_PAYLOAD_LENGTH) {
+            return String.join(SEPARATOR, instanceId, LinkChangedEvent.Type.RELOAD.name(), "", "", "");
+        }
+        return payload;
+    }
+
+    LinkChangedEvent decode(String payload) {
+        String[] parts = payload.split("\\|", -1);
+        if (instanceId.equals(parts[0])) {
+            return null;
+        }
+        if (parts.length != 5) {
+            // e.g. a reference code containing the separator; dropping everything is always safe
+            return new LinkChangedEvent(LinkChangedEvent.Type.RELOAD, null, null, null, true);
+        }
+        try {
+            LinkChangedEvent.Type type = LinkChangedEvent.Type.valueOf(parts[1]);
+            if (type == LinkChangedEvent.Type.BATCH) {
+                List<Long> ids = new ArrayList<>();
+                for (String id : parts[2].split(",")) {
+                    ids.add(Long.valueOf(id));
+                }
+                return LinkChangedEvent.batch(ids, true);
+            }
+            return new LinkChangedEvent(
+                type,
+                parts[2].isEmpty() ? null : Long.valueOf(parts[2]),
+                emptyToNull(parts[3]),
+                emptyToNull(parts[4]),
+                true);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Ignoring malformed link change notification: {}", payload);
+            return null;
+        }
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+}
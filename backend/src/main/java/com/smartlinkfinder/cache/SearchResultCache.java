@@ -0,0 +1,174 @@
+package com.smartlinkfinder.cache;
+
+import com.smartlinkfinder.entity.Link;
+import com.smartlinkfinder.event.LinkChangedEvent;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shared cache of search result pages, stored as id lists keyed on the normalized query.
+ *
+ * Every entry is tagged with the catalog version it was computed at. The version is bumped
+ * after every committed link change (local or remote), which makes all cached pages stale at
+ * once; a search that raced with a write is never cached under the new version.
+ *
+ * Besides result pages it keeps the full match sets of recent queries, so repeated search facet
+ * requests do not rescan the catalog.
+ */
+@Component
+public class SearchResultCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchResultCache.class);
+
+    private final boolean enabled;
+    private final TtlCache<String, CachedPage> pages;
+    private final TtlCache<String, CachedMatches> matches;
+    private final AtomicLong catalogVersion = new AtomicLong();
+
+    // Same replica lag window as LinkCache, tracked here because this cache is invalidated by its own listener
+    private final long primaryReadNanos;
+    private volatile long invalidatedAt;
+
+    public SearchResultCache(@Value("${link.search-cache.enabled:true}") boolean enabled,
+                             @Value("${link.search-cache.max-size:5000}") int maxSize,
+                             @Value("${link.search-cache.ttl-seconds:60}") long ttlSeconds,
+                             @Value("${link.search-cache.facet-max-size:500}") int facetMaxSize,
+                             @Value("${datasource.replica.max-lag-seconds:5}") double replicaMaxLagSeconds,
+                             @Value("${datasource.replica.check-interval-ms:5000}") long replicaCheckIntervalMillis) {
+        this.enabled = enabled;
+        this.pages = new TtlCache<>(maxSize, ttlSeconds * 1000);
+        this.matches = new TtlCache<>(facetMaxSize, ttlSeconds * 1000);
+        this.primaryReadNanos = (long) (replicaMaxLagSeconds * 1_000_000_000L) + replicaCheckIntervalMillis * 1_000_000L;
+        this.invalidatedAt = System.nanoTime() - primaryReadNanos;
+    }
+
+    /**
+     * Case and whitespace folded form of a search term, used both as cache key and as the
+     * term actually searched so that equivalent queries share one entry.
+     */
+    public static String normalize(String searchTerm) {
+        return searchTerm == null ? "" : searchTerm.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    public long catalogVersion() {
+        return catalogVersion.get();
+    }
+
+    /**
+     * Whether a search computed now for this cache must read from the primary (see LinkCache)
+     */
+    public boolean requiresPrimaryReads() {
+        return System.nanoTime() - invalidatedAt < primaryReadNanos;
+    }
+
+    /**
+     * @return null on a miss or when the cached page predates the current catalog version
+     */
+    public CachedPage get(String normalizedQuery, String market, String brand, String status, Pageable pageable) {
+        if (!enabled) {
+            return null;
+        }
+        CachedPage page = pages.get(key(normalizedQuery, market, brand, status, pageable));
+        return page != null && page.version == catalogVersion.get() ? page : null;
+    }
+
+    public void put(String normalizedQuery, String market, String brand, String status, Pageable pageable,
+                    Page<Link> result, long loadedAtVersion) {
+        if (!enabled || catalogVersion.get() != loadedAtVersion) {
+            return;
+        }
+        List<Link> content = result.getContent();
+        long[] ids = new long[content.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = content.get(i).getId();
+        }
+        pages.put(key(normalizedQuery, market, brand, status, pageable), new CachedPage(ids, result.getTotalElements(), loadedAtVersion));
+    }
+
+    /**
+     * All ids matching a query, as used for search facet counts. The bitmap is shared between
+     * callers and must not be modified.
+     *
+     * @return null on a miss or when the cached matches predate the current catalog version
+     */
+    public RoaringBitmap getMatches(String normalizedQuery, String market) {
+        if (!enabled) {
+            return null;
+        }
+        CachedMatches cached = matches.get(matchesKey(normalizedQuery, market));
+        return cached != null && cached.version == catalogVersion.get() ? cached.ids : null;
+    }
+
+    public void putMatches(String normalizedQuery, String market, RoaringBitmap ids, long loadedAtVersion) {
+        if (!enabled || catalogVersion.get() != loadedAtVersion) {
+            return;
+        }
+        matches.put(matchesKey(normalizedQuery, market), new CachedMatches(ids, loadedAtVersion));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onLinkChanged(LinkChangedEvent event) {
+        invalidatedAt = System.nanoTime();
+        long version = catalogVersion.incrementAndGet();
+        pages.clear();
+        matches.clear();
+        logger.debug("Search result cache invalidated by {}, catalog version {}", event, version);
+    }
+
+    public int getSize() { return pages.size(); }
+    public long getHits() { return pages.getHits(); }
+    public long getMisses() { return pages.getMisses(); }
+
+    public static String key(String normalizedQuery, String market, String brand, String status, Pageable pageable) {
+        return String.join("\u0000", normalizedQuery,
+            market == null ? "" : market,
+            brand == null ? "" : brand,
+            status == null ? "" : status,
+            String.valueOf(pageable.getPageNumber()),
+            String.valueOf(pageable.getPageSize()),
+            pageable.getSort().toString());
+    }
+
+    private static String matchesKey(String normalizedQuery, String market) {
+        return normalizedQuery + "\u0000" + (market == null ? "" : market);
+    }
+
+    private static final class CachedMatches {
+        private final RoaringBitmap ids;
+        private final long version;
+
+        CachedMatches(RoaringBitmap ids, long version) {
+            this.ids = ids;
+            this.version = version;
+        }
+    }
+
+    /**
+     * Ids of one result page in result order, plus the total match count
+     */
+    public static final class CachedPage {
+        private final long[] ids;
+        private final long total;
+        private final long version;
+
+        CachedPage(long[] ids, long total, long version) {
+            this.ids = ids;
+            this.total = total;
+            this.version = version;
+        }
+
+        public long[] getIds() { return ids; }
+        public long getTotal() { return total; }
+    }
+}
@@ -0,0 +1,136 @@
+package com.smartlinkfinder.cache;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+
+/**
+ * Small size- and TTL-bounded cache.
+ * Reads are lock-free; once the size bound is exceeded the oldest inserted keys are evicted (FIFO),
+ * which together with the TTL is good enough for the hot-key workload of link lookups.
+ * Optionally also bounded by a total weight (e.g. bytes) per the given weigher.
+ */
+public class TtlCache<K, V> {
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final Queue<K> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final int maxSize;
+    private final long ttlNanos;
+    private final long maxWeight;
+    private final ToLongFunction<V> weigher;
+    private final AtomicLong weight = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public TtlCache(int maxSize, long ttlMillis) {
+        this(maxSize, ttlMillis, Long.MAX_VALUE, value -> 0);
+    }
+
+    public TtlCache(int maxSize, long ttlMillis, long maxWeight, ToLongFunction<V> weigher) {
+        if (maxSize <= 0 || ttlMillis <= 0 || maxWeight <= 0) {
+            throw new IllegalArgumentException("Cache size, TTL and weight must be positive");
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    /**
+     * @return the cached value, or null if absent or expired
+     */
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if (System.nanoTime() - entry.createdAt > ttlNanos) {
+            if (entries.remove(key, entry)) {
+                weight.addAndGet(-entry.weight);
+            }
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.value;
+    }
+
+    public void put(K key, V value) {
+        long valueWeight = weigher.applyAsLong(value);
+        if (valueWeight > maxWeight) {
+            return;
+        }
+        weight.addAndGet(valueWeight);
+        Entry<V> previous = entries.put(key, new Entry<>(value, System.nanoTime(), valueWeight));
+        if (previous == null) {
+            insertionOrder.add(key);
+            queued.incrementAndGet();
+        } else {
+            weight.addAndGet(-previous.weight);
+        }
+        // Keys evicted or expired and then re-added leave stale queue slots behind, so the queue is bounded too
+        while (entries.size() > maxSize || queued.get() > maxSize * 2 || weight.get() > maxWeight) {
+            K eldest = insertionOrder.poll();
+            if (eldest == null) {
+                break;
+            }
+            queued.decrementAndGet();
+            remove(eldest);
+        }
+    }
+
+    public void evict(K key) {
+        if (key != null) {
+            remove(key);
+        }
+    }
+
+    /**
+     * Removes the entry only if it still holds this value (compared by identity), so that a newer
+     * value put by someone else survives
+     */
+    public void evict(K key, V value) {
+        Entry<V> entry = key == null ? null : entries.get(key);
+        if (entry != null && entry.value == value && entries.remove(key, entry)) {
+            weight.addAndGet(-entry.weight);
+        }
+    }
+
+    public void clear() {
+        entries.clear();
+        insertionOrder.clear();
+        queued.set(0);
+        weight.set(0);
+    }
+
+    private void remove(K key) {
+        Entry<V> removed = entries.remove(key);
+        if (removed != null) {
+            weight.addAndGet(-removed.weight);
+        }
+    }
+
+    public int size() { return entries.size(); }
+    public long weight() { return weight.get(); }
+    public long getHits() { return hits.get(); }
+    public long getMisses() { return misses.get(); }
+
+    private static final class Entry<V> {
+        final V value;
+        final long createdAt;
+        final long weight;
+
+        Entry(V value, long createdAt, long weight) {
+            this.value = value;
+            this.createdAt = createdAt;
+            this.weight = weight;
+        }
+    }
+}
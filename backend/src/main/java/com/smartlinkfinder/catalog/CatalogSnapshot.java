@@ -0,0 +1,181 @@
+package com.smartlinkfinder.catalog;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Binary snapshot of the in-memory link catalog, used to warm-start without scanning the links table.
+ *
+ * Layout (big endian): magic, format version, creation time, database id, change log position,
+ * the id bitmap, brand, status and market dictionaries (value + bitmap), CRC32 of everything before it.
+ * The position is the oldest running transaction id at the time the data was read; replaying the
+ * link_changes entries from that position onwards brings a loaded snapshot up to date.
+ */
+public class CatalogSnapshot {
+
+    private static final long MAGIC = 0x4C4D54534E415031L; // "LMTSNAP1"
+    static final int FORMAT_VERSION = 2;
+
+    private final String databaseId;
+    private final long position;
+    private final long createdAtMillis;
+    private final RoaringBitmap all;
+    private final Map<String, RoaringBitmap> brands;
+    private final Map<String, RoaringBitmap> statuses;
+    private final Map<String, RoaringBitmap> markets;
+
+    public CatalogSnapshot(String databaseId, long position, long createdAtMillis, RoaringBitmap all,
+                           Map<String, RoaringBitmap> brands, Map<String, RoaringBitmap> statuses,
+                           Map<String, RoaringBitmap> markets) {
+        this.databaseId = databaseId;
+        this.position = position;
+        this.createdAtMillis = createdAtMillis;
+        this.all = all;
+        this.brands = brands;
+        this.statuses = statuses;
+        this.markets = markets;
+    }
+
+    public String getDatabaseId() { return databaseId; }
+    public long getPosition() { return position; }
+    public long getCreatedAtMillis() { return createdAtMillis; }
+    public RoaringBitmap getAll() { return all; }
+    public Map<String, RoaringBitmap> getBrands() { return brands; }
+    public Map<String, RoaringBitmap> getStatuses() { return statuses; }
+    public Map<String, RoaringBitmap> getMarkets() { return markets; }
+
+    /**
+     * Writes to a temporary file next to the target and renames it, so readers never see a partial file.
+     */
+    public void writeTo(Path path) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(createdAtMillis);
+            writeString(out, databaseId);
+            out.writeLong(position);
+            writeBitmap(out, all);
+            writeDictionary(out, brands);
+            writeDictionary(out, statuses);
+            writeDictionary(out, markets);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.wrap(bytes.toByteArray()));
+                channel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, crc.getValue()));
+                channel.force(true);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Maps the file read-only and decodes it in place.
+     *
+     * @throws IOException if the file is unreadable, truncated, corrupt or of another format version
+     */
+    public static CatalogSnapshot read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < Long.BYTES * 2 || size > Integer.MAX_VALUE) {
+                throw new IOException("Unexpected snapshot size " + size);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            int contentLength = (int) size - Long.BYTES;
+            CRC32 crc = new CRC32();
+            crc.update(buffer.duplicate().limit(contentLength));
+            if (crc.getValue() != buffer.getLong(contentLength)) {
+                throw new IOException("Snapshot checksum mismatch");
+            }
+
+            ByteBuffer content = buffer.duplicate().limit(contentLength);
+            if (content.getLong() != MAGIC) {
+                throw new IOException("Not a catalog snapshot");
+            }
+            int version = content.getInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported snapshot format version " + version);
+            }
+            long createdAtMillis = content.getLong();
+            String databaseId = readString(content);
+            long position = content.getLong();
+            RoaringBitmap all = readBitmap(content);
+            Map<String, RoaringBitmap> brands = readDictionary(content);
+            Map<String, RoaringBitmap> statuses = readDictionary(content);
+            Map<String, RoaringBitmap> markets = readDictionary(content);
+            return new CatalogSnapshot(databaseId, position, createdAtMillis, all, brands, statuses, markets);
+        } catch (RuntimeException e) {
+            // BufferUnderflowException and friends from a malformed file
+            throw new IOException("Malformed snapshot: " + e.getMessage(), e);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeBitmap(DataOutputStream out, RoaringBitmap bitmap) throws IOException {
+        bitmap.runOptimize();
+        out.writeInt(bitmap.serializedSizeInBytes());
+        bitmap.serialize(out);
+    }
+
+    private static RoaringBitmap readBitmap(ByteBuffer buffer) throws IOException {
+        int length = buffer.getInt();
+        ByteBuffer slice = buffer.slice().limit(length);
+        RoaringBitmap bitmap = new RoaringBitmap();
+        bitmap.deserialize(slice);
+        buffer.position(buffer.position() + length);
+        return bitmap;
+    }
+
+    private static void writeDictionary(DataOutputStream out, Map<String, RoaringBitmap> dictionary) throws IOException {
+        out.writeInt(dictionary.size());
+        for (Map.Entry<String, RoaringBitmap> entry : dictionary.entrySet()) {
+            writeString(out, entry.getKey());
+            writeBitmap(out, entry.getValue());
+        }
+    }
+
+    private static Map<String, RoaringBitmap> readDictionary(ByteBuffer buffer) throws IOException {
+        int size = buffer.getInt();
+        Map<String, RoaringBitmap> dictionary = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            String value = readString(buffer);
+            dictionary.put(value, readBitmap(buffer));
+        }
+        return dictionary;
+    }
+}
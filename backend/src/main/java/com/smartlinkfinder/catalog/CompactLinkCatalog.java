@@ -0,0 +1,562 @@
+package com.smartlinkfinder.catalog;
+
+import com.smartlinkfinder.entity.Link;
+import com.smartlinkfinder.event.LinkChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Read-side copy of the whole link catalog, serving reference-code resolution, lookups by id and
+ * searches without touching the database.
+ *
+ * The catalog is sharded by market: one CompactLinkStore per market, each behind its own lock.
+ * Lookups and searches scoped to a market only touch that shard, and applying a burst of changes
+ * to one market (a large import) never blocks readers of the others. Unscoped calls visit every
+ * shard; there are only a handful of markets.
+ *
+ * Loaded in the background after startup; until then (and whenever it is disabled) isReady() is
+ * false and callers use the caches and the database. Changed links are applied from
+ * LinkChangedEvents by re-reading their rows. A RELOAD queues one catch-up from the link_changes log
+ * on the loader thread instead of a full reload. Archived links are left out; a link that re-reads
+ * as archived is dropped like a deleted one.
+ *
+ * Events from other instances arrive over LISTEN/NOTIFY, which can lose a notification (a failed
+ * pg_notify, a listener connection dropping between polls). The catalog has no TTL, so it also
+ * catches up from the link_changes log periodically: links changed since the position it last
+ * caught up to are re-read, whether or not their events arrived.
+ */
+@Component
+public class CompactLinkCatalog {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompactLinkCatalog.class);
+
+    private static final String POSITION_QUERY = "SELECT pg_snapshot_xmin(pg_current_snapshot())::text";
+
+    private static final String CHANGED_IDS_QUERY = "SELECT DISTINCT link_id FROM link_changes WHERE tx >= ?::xid8";
+
+    private static final String ROWS_QUERY =
+        "SELECT l.id, l.reference_code, l.full_url, l.description, l.brand_name, l.status, l.created_at, l.updated_at, " +
+        "l.added_by_id, u.username, l.valid_from, l.valid_until, " +
+        "l.current_version, l.market FROM links l LEFT JOIN users u ON u.id = l.added_by_id WHERE l.status <> 'ARCHIVED'";
+
+    // Records of replaced and deleted links are reclaimed once they outweigh the live ones
+    private static final long MIN_GARBAGE_TO_COMPACT = 16L * 1024 * 1024;
+
+    // Same order as CompactLinkStore.search within a shard: case-folded reference code
+    private static final Comparator<Link> REFERENCE_CODE_ORDER =
+        Comparator.comparing(link -> link.getReferenceCode().toLowerCase(Locale.ROOT));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${link.catalog.enabled:true}")
+    private boolean enabled;
+
+    private final ExecutorService loader = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "link-catalog-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Replaced as a whole (copy on write) when a load finishes or a new market appears
+    private volatile Map<String, Shard> shards = Map.of();
+    private volatile boolean ready;
+
+    // Ids changed while a load is running; re-read once the loaded store is installed
+    private final Set<Long> changedDuringLoad = new HashSet<>();
+    private boolean loading;
+    // A RELOAD arrived while loading; the running scan may predate it, so catch up afterwards
+    private boolean catchUpPending;
+    // A catch-up for a RELOAD is waiting on the loader thread; later RELOADs share it
+    private boolean catchUpQueued;
+    // Change log position the catalog has caught up to; -1 when unknown (guarded by changedDuringLoad)
+    private long position = -1;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled) {
+            loadInBackground();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        loader.shutdownNow();
+    }
+
+    /**
+     * @param market null to look in every market
+     */
+    public Optional<Link> findByReferenceCode(String referenceCode, String market) {
+        if (market != null) {
+            Shard shard = shards.get(market);
+            return shard == null ? Optional.empty() : shard.findByReferenceCode(referenceCode);
+        }
+        for (Shard shard : shards.values()) {
+            Optional<Link> link = shard.findByReferenceCode(referenceCode);
+            if (link.isPresent()) {
+                return link;
+            }
+        }
+        return Optional.empty();
+    }
+
+    public Optional<Link> findById(long id) {
+        for (Shard shard : shards.values()) {
+            Optional<Link> link = shard.findById(id);
+            if (link.isPresent()) {
+                return link;
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Same matching as LinkRepository.findBySearchTermAndFacets, ordered by reference code
+     * (case-insensitive byte order rather than the database collation). A null market searches
+     * every shard and merges their first offset + limit matches.
+     */
+    public SearchPage search(String normalizedQuery, String market, String brand, String status, int offset, int limit) {
+        if (market != null) {
+            Shard shard = shards.get(market);
+            return shard == null ? new SearchPage(List.of(), 0) : shard.search(normalizedQuery, brand, status, offset, limit);
+        }
+        List<Link> merged = new ArrayList<>();
+        long total = 0;
+        for (Shard shard : shards.values()) {
+            SearchPage page = shard.search(normalizedQuery, brand, status, 0, offset + limit);
+            merged.addAll(page.getContent());
+            total += page.getTotal();
+        }
+        merged.sort(REFERENCE_CODE_ORDER);
+        List<Link> content = offset >= merged.size() ? List.of()
+            : new ArrayList<>(merged.subList(offset, Math.min(offset + limit, merged.size())));
+        return new SearchPage(content, total);
+    }
+
+    /**
+     * Ids of all links matching the query, for facet counts of a search. A null market matches
+     * in every shard.
+     */
+    public RoaringBitmap matchingIds(String normalizedQuery, String market) {
+        RoaringBitmap matches = new RoaringBitmap();
+        for (Shard shard : shards.values()) {
+            if (market != null && !shard.store.market().equals(market)) {
+                continue;
+            }
+            shard.lock.readLock().lock();
+            try {
+                shard.store.addMatches(normalizedQuery, matches);
+            } finally {
+                shard.lock.readLock().unlock();
+            }
+        }
+        return matches;
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        Map<String, Integer> markets = new TreeMap<>();
+        long links = 0;
+        long offHeapBytes = 0;
+        long searchTextBytes = 0;
+        long liveBytes = 0;
+        long garbageBytes = 0;
+        for (Shard shard : shards.values()) {
+            shard.lock.readLock().lock();
+            try {
+                CompactLinkStore store = shard.store;
+                markets.put(store.market(), store.size());
+                links += store.size();
+                offHeapBytes += store.arenaBytes();
+                searchTextBytes += store.searchTextBytes();
+                liveBytes += store.liveBytes();
+                garbageBytes += store.garbageBytes();
+            } finally {
+                shard.lock.readLock().unlock();
+            }
+        }
+        stats.put("enabled", enabled);
+        stats.put("ready", ready);
+        stats.put("links", links);
+        stats.put("markets", markets);
+        stats.put("offHeapBytes", offHeapBytes);
+        stats.put("searchTextBytes", searchTextBytes);
+        stats.put("liveBytes", liveBytes);
+        stats.put("garbageBytes", garbageBytes);
+        return stats;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onLinkChanged(LinkChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (event.getType() == LinkChangedEvent.Type.RELOAD) {
+            catchUpInBackground();
+            return;
+        }
+        if (event.getLinkIds().isEmpty()) {
+            return;
+        }
+        synchronized (changedDuringLoad) {
+            if (loading) {
+                changedDuringLoad.addAll(event.getLinkIds());
+                return;
+            }
+        }
+        apply(event.getLinkIds());
+    }
+
+    private void catchUpInBackground() {
+        synchronized (changedDuringLoad) {
+            if (loading) {
+                catchUpPending = true;
+                return;
+            }
+            if (position >= 0) {
+                // The bulk change may not be applied yet, so callers fall back until the catch-up ran
+                ready = false;
+                if (!catchUpQueued) {
+                    catchUpQueued = true;
+                    loader.execute(() -> {
+                        synchronized (changedDuringLoad) {
+                            catchUpQueued = false;
+                        }
+                        if (!caughtUp()) {
+                            loadInBackground();
+                            return;
+                        }
+                        synchronized (changedDuringLoad) {
+                            ready = !loading && !catchUpQueued;
+                        }
+                    });
+                }
+                return;
+            }
+        }
+        // No position to catch up from: the startup load failed
+        loadInBackground();
+    }
+
+    private void loadInBackground() {
+        synchronized (changedDuringLoad) {
+            if (loading) {
+                return;
+            }
+            loading = true;
+            changedDuringLoad.clear();
+            // Until the store is in place callers fall back
+            ready = false;
+        }
+        loader.execute(this::load);
+    }
+
+    private void load() {
+        long start = System.currentTimeMillis();
+        Map<String, Shard> loaded = new HashMap<>();
+        long scanPosition;
+        try {
+            // One snapshot for position and scan, so catching up from the position is complete
+            scanPosition = snapshotTransaction().execute(status -> {
+                long current = currentPosition();
+                jdbcTemplate.query(ROWS_QUERY, resultSet -> {
+                    String market = resultSet.getString(14);
+                    put(loaded.computeIfAbsent(market, Shard::new).store, resultSet);
+                });
+                return current;
+            });
+        } catch (Exception e) {
+            logger.error("Failed to load the compact link catalog, falling back to caches and database", e);
+            synchronized (changedDuringLoad) {
+                loading = false;
+                catchUpPending = false;
+            }
+            return;
+        }
+
+        synchronized (this) {
+            shards = Map.copyOf(loaded);
+        }
+        List<Long> changed;
+        boolean again;
+        synchronized (changedDuringLoad) {
+            changed = new ArrayList<>(changedDuringLoad);
+            changedDuringLoad.clear();
+            loading = false;
+            position = scanPosition;
+            again = catchUpPending;
+            catchUpPending = false;
+        }
+        long links = loaded.values().stream().mapToLong(shard -> shard.store.size()).sum();
+        long liveKilobytes = loaded.values().stream().mapToLong(shard -> shard.store.liveBytes()).sum() / 1024;
+        logger.info("Compact link catalog loaded: {} links in {} markets, {} KB of records in {} ms",
+            links, loaded.size(), liveKilobytes, System.currentTimeMillis() - start);
+        if (!changed.isEmpty()) {
+            apply(changed);
+        }
+        if (again && !caughtUp()) {
+            loadInBackground();
+            return;
+        }
+        synchronized (changedDuringLoad) {
+            ready = !loading && !catchUpQueued;
+        }
+    }
+
+    /**
+     * Re-reads the links changed since the last load or catch-up and moves the position forward.
+     * Entries whose events were already applied are re-read too, which is harmless.
+     */
+    @Scheduled(fixedDelayString = "${link.catalog.catch-up-interval-ms:30000}",
+               initialDelayString = "${link.catalog.catch-up-interval-ms:30000}")
+    public void catchUp() {
+        caughtUp();
+    }
+
+    /**
+     * @return false if the change log could not be read
+     */
+    private boolean caughtUp() {
+        long from;
+        synchronized (changedDuringLoad) {
+            if (!enabled || loading || position < 0) {
+                return true;
+            }
+            from = position;
+        }
+        List<Long> ids = new ArrayList<>();
+        long to;
+        try {
+            to = snapshotTransaction().execute(status -> {
+                long current = currentPosition();
+                ids.addAll(jdbcTemplate.queryForList(CHANGED_IDS_QUERY, Long.class, Long.toString(from)));
+                return current;
+            });
+        } catch (Exception e) {
+            logger.warn("Link catalog catch-up failed: {}", e.getMessage());
+            return false;
+        }
+        if (!ids.isEmpty()) {
+            apply(ids);
+        }
+        synchronized (changedDuringLoad) {
+            // A load that finished meanwhile set its own position
+            if (position == from) {
+                position = to;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Re-reads the given links and replaces (or drops) their entries. A link that moved to another
+     * market is dropped from its old shard before it is added to the new one.
+     */
+    private void apply(List<Long> ids) {
+        Map<Long, Object[]> rows = new HashMap<>();
+        jdbcTemplate.query(ROWS_QUERY + " AND l.id = ANY (?)",
+            resultSet -> {
+                rows.put(resultSet.getLong(1), new Object[] {
+                    resultSet.getString(2), resultSet.getString(3), resultSet.getString(4),
+                    resultSet.getString(5), resultSet.getString(6),
+                    toLocalDateTime(resultSet.getTimestamp(7)), toLocalDateTime(resultSet.getTimestamp(8)),
+                    resultSet.getLong(9), resultSet.getString(10),
+                    toLocalDateTime(resultSet.getTimestamp(11)), toLocalDateTime(resultSet.getTimestamp(12)),
+                    resultSet.getInt(13), resultSet.getString(14) });
+            },
+            (Object) ids.toArray(new Long[0]));
+
+        Map<String, List<Long>> byMarket = new HashMap<>();
+        for (Long id : ids) {
+            Object[] row = rows.get(id);
+            String market = row == null ? null : (String) row[12];
+            for (Shard shard : shards.values()) {
+                if (!shard.store.market().equals(market)) {
+                    shard.remove(id);
+                }
+            }
+            if (market != null) {
+                byMarket.computeIfAbsent(market, key -> new ArrayList<>()).add(id);
+            }
+        }
+        byMarket.forEach((market, marketIds) -> {
+            Shard shard = shardFor(market);
+            shard.lock.writeLock().lock();
+            try {
+                for (Long id : marketIds) {
+                    Object[] row = rows.get(id);
+                    shard.store.put(id, (String) row[0], (String) row[1], (String) row[2], (String) row[3], (String) row[4],
+                        (LocalDateTime) row[5], (LocalDateTime) row[6], (Long) row[7], (String) row[8],
+                        (LocalDateTime) row[9], (LocalDateTime) row[10], (Integer) row[11]);
+                }
+                shard.compactIfWasteful();
+            } finally {
+                shard.lock.writeLock().unlock();
+            }
+        });
+    }
+
+    private TransactionTemplate snapshotTransaction() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        template.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template;
+    }
+
+    private long currentPosition() {
+        return Long.parseLong(jdbcTemplate.queryForObject(POSITION_QUERY, String.class));
+    }
+
+    private synchronized Shard shardFor(String market) {
+        Shard shard = shards.get(market);
+        if (shard == null) {
+            shard = new Shard(market);
+            Map<String, Shard> grown = new HashMap<>(shards);
+            grown.put(market, shard);
+            shards = Map.copyOf(grown);
+        }
+        return shard;
+    }
+
+    private static void put(CompactLinkStore target, ResultSet resultSet) throws SQLException {
+        target.put(resultSet.getLong(1), resultSet.getString(2), resultSet.getString(3), resultSet.getString(4),
+            resultSet.getString(5), resultSet.getString(6),
+            toLocalDateTime(resultSet.getTimestamp(7)), toLocalDateTime(resultSet.getTimestamp(8)),
+            resultSet.getLong(9), resultSet.getString(10),
+            toLocalDateTime(resultSet.getTimestamp(11)), toLocalDateTime(resultSet.getTimestamp(12)),
+            resultSet.getInt(13));
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+
+    /**
+     * The links of one market and the lock guarding them
+     */
+    private static final class Shard {
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final CompactLinkStore store;
+
+        Shard(String market) {
+            this.store = new CompactLinkStore(market);
+        }
+
+        Optional<Link> findByReferenceCode(String referenceCode) {
+            lock.readLock().lock();
+            try {
+                int slot = store.slotOfReferenceCode(referenceCode);
+                return slot < 0 ? Optional.empty() : Optional.of(store.toLink(slot));
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        Optional<Link> findById(long id) {
+            lock.readLock().lock();
+            try {
+                int slot = store.slotOfId(id);
+                return slot < 0 ? Optional.empty() : Optional.of(store.toLink(slot));
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        SearchPage search(String normalizedQuery, String brand, String status, int offset, int limit) {
+            long[] total = new long[1];
+            lock.readLock().lock();
+            try {
+                int[] slots = store.search(normalizedQuery, brand, status, offset, limit, total);
+                List<Link> links = new ArrayList<>(slots.length);
+                for (int slot : slots) {
+                    links.add(store.toLink(slot));
+                }
+                return new SearchPage(links, total[0]);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void remove(long id) {
+            lock.readLock().lock();
+            try {
+                if (store.slotOfId(id) < 0) {
+                    return;
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            lock.writeLock().lock();
+            try {
+                store.remove(id);
+                compactIfWasteful();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        // Caller holds the write lock
+        void compactIfWasteful() {
+            if (store.garbageBytes() > MIN_GARBAGE_TO_COMPACT && store.garbageBytes() > store.liveBytes()) {
+                store.compact();
+            }
+        }
+    }
+
+    /**
+     * One page of catalog search results plus the total match count
+     */
+    public static class SearchPage {
+        private final List<Link> content;
+        private final long total;
+
+        public SearchPage(List<Link> content, long total) {
+            this.content = content;
+            this.total = total;
+        }
+
+        public List<Link> getContent() { return content; }
+        public long getTotal() { return total; }
+    }
+}
@@ -0,0 +1,642 @@
+package com.smartlinkfinder.catalog;
+
+import com.smartlinkfinder.entity.Link;
+import com.smartlinkfinder.entity.User;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact storage for the links of one market (one CompactLinkCatalog shard).
+ *
+ * Reference code, URL and description are kept as UTF-8 in off-heap segments (direct buffers),
+ * one length-prefixed record per link. Everything else lives in parallel primitive arrays indexed
+ * by slot: id, record address, brand, status and creator username as ids into an interned
+ * dictionary, the creator's user id, and the timestamps (including the validity window) as epoch
+ * microseconds, plus the current URL version. Lookups by id and by case-insensitive reference code
+ * go through open-addressing tables (ASCII case folding), so the code table doubles as the pointer
+ * from a reference code to its current version.
+ *
+ * For searching, each link additionally has its reference code, description, URL and brand
+ * lower-cased and concatenated into on-heap byte chunks (see FoldedMatcher). A search is a linear
+ * scan over that text that allocates nothing per link.
+ *
+ * Not thread-safe: CompactLinkCatalog serializes writers and guards readers.
+ */
+class CompactLinkStore {
+
+    private static final int SEGMENT_BITS = 22;
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_BITS;
+    private static final int NULL_FIELD = 0xFFFF;
+    private static final int MAX_FIELD_BYTES = NULL_FIELD - 1;
+    private static final int FIELD_CODE = 0;
+    private static final int FIELD_URL = 1;
+    private static final int FIELD_DESCRIPTION = 2;
+    private static final int EMPTY = 0;
+    private static final int DELETED = -1;
+    private static final long NO_TIME = Long.MIN_VALUE;
+
+    // Off-heap record arena
+    private final List<ByteBuffer> segments = new ArrayList<>();
+    private int writeOffset = SEGMENT_SIZE;
+    private long liveBytes;
+    private long garbageBytes;
+
+    // Pre-folded search text, same addressing as the record arena
+    private final List<byte[]> searchChunks = new ArrayList<>();
+    private int searchWriteOffset = SEGMENT_SIZE;
+    private final long[] byteFrequencies = new long[256];
+
+    // Per-slot columns
+    private int slotLimit;
+    private int liveCount;
+    private long[] ids = new long[1024];
+    private long[] records = new long[1024];
+    private long[] searchText = new long[1024];
+    private int[] searchLength = new int[1024];
+    private int[] brands = new int[1024];
+    private int[] statuses = new int[1024];
+    private long[] addedByIds = new long[1024];
+    private int[] addedByNames = new int[1024];
+    private long[] createdAt = new long[1024];
+    private long[] updatedAt = new long[1024];
+    private long[] validFrom = new long[1024];
+    private long[] validUntil = new long[1024];
+    private int[] versions = new int[1024];
+    private int[] freeSlots = new int[64];
+    private int freeCount;
+
+    // Interned brand/status/username values; id 0 is null
+    private final List<String> dictionary = new ArrayList<>();
+    private final Map<String, Integer> dictionaryIds = new HashMap<>();
+
+    // slot + 1 per bucket, EMPTY or DELETED
+    private int[] codeTable = new int[2048];
+    private int codeTableUsed;
+    private long[] idKeys = new long[2048];
+    private int[] idSlots = new int[2048];
+    private int idTableUsed;
+
+    private final String market;
+
+    CompactLinkStore(String market) {
+        this.market = market;
+        dictionary.add(null);
+    }
+
+    String market() { return market; }
+
+    int size() { return liveCount; }
+    long arenaBytes() { return (long) segments.size() * SEGMENT_SIZE; }
+    long searchTextBytes() { return (long) searchChunks.size() * SEGMENT_SIZE; }
+    long liveBytes() { return liveBytes; }
+    long garbageBytes() { return garbageBytes; }
+
+    void put(long id, String referenceCode, String fullUrl, String description, String brandName, String status,
+             LocalDateTime created, LocalDateTime updated, long addedById, String addedByUsername,
+             LocalDateTime from, LocalDateTime until, int currentVersion) {
+        remove(id);
+        int slot = freeCount > 0 ? freeSlots[--freeCount] : nextSlot();
+        ids[slot] = id;
+        records[slot] = writeRecord(referenceCode, fullUrl, description);
+        writeSearchText(slot, referenceCode, description, fullUrl, brandName);
+        brands[slot] = intern(brandName);
+        statuses[slot] = intern(status);
+        addedByIds[slot] = addedById;
+        addedByNames[slot] = intern(addedByUsername);
+        createdAt[slot] = toMicros(created);
+        updatedAt[slot] = toMicros(updated);
+        validFrom[slot] = toMicros(from);
+        validUntil[slot] = toMicros(until);
+        versions[slot] = currentVersion;
+        liveCount++;
+        insertId(id, slot);
+        insertCode(slot);
+    }
+
+    boolean remove(long id) {
+        int slot = slotOfId(id);
+        if (slot < 0) {
+            return false;
+        }
+        removeCode(slot);
+        removeId(id);
+        long address = records[slot];
+        int length = recordLength(address) + searchLength[slot];
+        liveBytes -= length;
+        garbageBytes += length;
+        ids[slot] = 0;
+        records[slot] = -1;
+        liveCount--;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+        return true;
+    }
+
+    int slotOfId(long id) {
+        int mask = idKeys.length - 1;
+        for (int bucket = mix(Long.hashCode(id)) & mask; ; bucket = (bucket + 1) & mask) {
+            long key = idKeys[bucket];
+            if (key == EMPTY) {
+                return -1;
+            }
+            if (key == id) {
+                return idSlots[bucket];
+            }
+        }
+    }
+
+    int slotOfReferenceCode(String referenceCode) {
+        byte[] key = referenceCode.getBytes(StandardCharsets.UTF_8);
+        int mask = codeTable.length - 1;
+        for (int bucket = hashFolded(key) & mask; ; bucket = (bucket + 1) & mask) {
+            int entry = codeTable[bucket];
+            if (entry == EMPTY) {
+                return -1;
+            }
+            if (entry != DELETED && codeEqualsFolded(entry - 1, key)) {
+                return entry - 1;
+            }
+        }
+    }
+
+    long idAt(int slot) { return ids[slot]; }
+
+    Link toLink(int slot) {
+        long address = records[slot];
+        ByteBuffer segment = segments.get((int) (address >>> SEGMENT_BITS));
+        int offset = (int) (address & (SEGMENT_SIZE - 1));
+
+        Link link = new Link();
+        link.setId(ids[slot]);
+        int[] cursor = { offset };
+        link.setReferenceCode(readField(segment, cursor));
+        link.setFullUrl(readField(segment, cursor));
+        link.setDescription(readField(segment, cursor));
+        link.setBrandName(dictionary.get(brands[slot]));
+        link.setStatus(dictionary.get(statuses[slot]));
+        link.setMarket(market);
+        link.setCreatedAt(fromMicros(createdAt[slot]));
+        link.setUpdatedAt(fromMicros(updatedAt[slot]));
+        link.setValidFrom(fromMicros(validFrom[slot]));
+        link.setValidUntil(fromMicros(validUntil[slot]));
+        link.setCurrentVersion(versions[slot]);
+        if (addedByIds[slot] != 0) {
+            // Detached reference carrying just what responses show; catalog links are never saved
+            User addedBy = new User();
+            addedBy.setId(addedByIds[slot]);
+            addedBy.setUsername(dictionary.get(addedByNames[slot]));
+            link.setAddedBy(addedBy);
+        }
+        return link;
+    }
+
+    /**
+     * Case-insensitive substring search over reference code, description, brand and URL, filtered
+     * by exact brand/status (null = any), ordered by reference code.
+     *
+     * @return the slots of the requested page; total receives the number of matches
+     */
+    int[] search(String term, String brand, String status, int offset, int limit, long[] total) {
+        FoldedMatcher matcher = new FoldedMatcher(term, byteFrequencies);
+        int brandFilter = brand == null ? -1 : dictionaryIds.getOrDefault(brand, -2);
+        int statusFilter = status == null ? -1 : dictionaryIds.getOrDefault(status, -2);
+        if (brandFilter == -2 || statusFilter == -2) {
+            total[0] = 0;
+            return new int[0];
+        }
+
+        // Bounded max-heap on reference code keeps the first offset + limit matches
+        int keep = offset + limit;
+        int[] heap = new int[Math.max(keep, 1)];
+        int heapSize = 0;
+        long matches = 0;
+        for (int slot = 0; slot < slotLimit; slot++) {
+            if (records[slot] < 0
+                    || (brandFilter >= 0 && brands[slot] != brandFilter)
+                    || (statusFilter >= 0 && statuses[slot] != statusFilter)
+                    || !matches(slot, matcher)) {
+                continue;
+            }
+            matches++;
+            if (keep == 0) {
+                continue;
+            }
+            if (heapSize < keep) {
+                heap[heapSize] = slot;
+                siftUp(heap, heapSize++);
+            } else if (compareCodes(slot, heap[0]) < 0) {
+                heap[0] = slot;
+                siftDown(heap, 0, heapSize);
+            }
+        }
+        total[0] = matches;
+
+        // Heap sort in place gives ascending order
+        for (int end = heapSize - 1; end > 0; end--) {
+            int top = heap[0];
+            heap[0] = heap[end];
+            heap[end] = top;
+            siftDown(heap, 0, end);
+        }
+        return offset >= heapSize ? new int[0] : Arrays.copyOfRange(heap, offset, heapSize);
+    }
+
+    /**
+     * Adds the ids of every link matching the term (same matching as search) to the bitmap.
+     */
+    void addMatches(String term, RoaringBitmap into) {
+        FoldedMatcher matcher = new FoldedMatcher(term, byteFrequencies);
+        for (int slot = 0; slot < slotLimit; slot++) {
+            if (records[slot] >= 0 && matches(slot, matcher)) {
+                into.add(Math.toIntExact(ids[slot]));
+            }
+        }
+    }
+
+    /**
+     * Rewrites the live records into fresh segments, dropping the space of replaced and removed ones.
+     */
+    void compact() {
+        List<ByteBuffer> old = new ArrayList<>(segments);
+        List<byte[]> oldSearchChunks = new ArrayList<>(searchChunks);
+        segments.clear();
+        searchChunks.clear();
+        writeOffset = SEGMENT_SIZE;
+        searchWriteOffset = SEGMENT_SIZE;
+        liveBytes = 0;
+        garbageBytes = 0;
+        for (int slot = 0; slot < slotLimit; slot++) {
+            long address = records[slot];
+            if (address < 0) {
+                continue;
+            }
+            long text = searchText[slot];
+            long textTarget = reserveSearchText(searchLength[slot]);
+            System.arraycopy(oldSearchChunks.get((int) (text >>> SEGMENT_BITS)), (int) (text & (SEGMENT_SIZE - 1)),
+                searchChunks.get((int) (textTarget >>> SEGMENT_BITS)), (int) (textTarget & (SEGMENT_SIZE - 1)),
+                searchLength[slot]);
+            searchText[slot] = textTarget;
+
+            ByteBuffer source = old.get((int) (address >>> SEGMENT_BITS));
+            int offset = (int) (address & (SEGMENT_SIZE - 1));
+            int length = recordLength(source, offset);
+            long target = reserve(length);
+            ByteBuffer segment = segments.get((int) (target >>> SEGMENT_BITS));
+            segment.put((int) (target & (SEGMENT_SIZE - 1)), source, offset, length);
+            records[slot] = target;
+        }
+    }
+
+    private boolean matches(int slot, FoldedMatcher matcher) {
+        long text = searchText[slot];
+        int offset = (int) (text & (SEGMENT_SIZE - 1));
+        return matcher.matches(searchChunks.get((int) (text >>> SEGMENT_BITS)), offset, offset + searchLength[slot]);
+    }
+
+    /**
+     * Orders by folded reference code, the first field of the search text. The separator sorts
+     * below every other byte, so a code sorts before its own extensions.
+     */
+    private int compareCodes(int slotA, int slotB) {
+        long a = searchText[slotA];
+        long b = searchText[slotB];
+        byte[] chunkA = searchChunks.get((int) (a >>> SEGMENT_BITS));
+        byte[] chunkB = searchChunks.get((int) (b >>> SEGMENT_BITS));
+        int offsetA = (int) (a & (SEGMENT_SIZE - 1));
+        int offsetB = (int) (b & (SEGMENT_SIZE - 1));
+        for (int i = 0; ; i++) {
+            int byteA = chunkA[offsetA + i] & 0xFF;
+            int byteB = chunkB[offsetB + i] & 0xFF;
+            if (byteA != byteB) {
+                return byteA - byteB;
+            }
+            if (byteA == FoldedMatcher.FIELD_SEPARATOR) {
+                return 0;
+            }
+        }
+    }
+
+    private void siftUp(int[] heap, int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (compareCodes(heap[index], heap[parent]) <= 0) {
+                return;
+            }
+            int swap = heap[index];
+            heap[index] = heap[parent];
+            heap[parent] = swap;
+            index = parent;
+        }
+    }
+
+    private void siftDown(int[] heap, int index, int size) {
+        while (true) {
+            int largest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && compareCodes(heap[left], heap[largest]) > 0) {
+                largest = left;
+            }
+            if (right < size && compareCodes(heap[right], heap[largest]) > 0) {
+                largest = right;
+            }
+            if (largest == index) {
+                return;
+            }
+            int swap = heap[index];
+            heap[index] = heap[largest];
+            heap[largest] = swap;
+            index = largest;
+        }
+    }
+
+    private int nextSlot() {
+        if (slotLimit == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            records = Arrays.copyOf(records, capacity);
+            searchText = Arrays.copyOf(searchText, capacity);
+            searchLength = Arrays.copyOf(searchLength, capacity);
+            brands = Arrays.copyOf(brands, capacity);
+            statuses = Arrays.copyOf(statuses, capacity);
+            addedByIds = Arrays.copyOf(addedByIds, capacity);
+            addedByNames = Arrays.copyOf(addedByNames, capacity);
+            createdAt = Arrays.copyOf(createdAt, capacity);
+            updatedAt = Arrays.copyOf(updatedAt, capacity);
+            validFrom = Arrays.copyOf(validFrom, capacity);
+            validUntil = Arrays.copyOf(validUntil, capacity);
+            versions = Arrays.copyOf(versions, capacity);
+        }
+        return slotLimit++;
+    }
+
+    private long writeRecord(String referenceCode, String fullUrl, String description) {
+        byte[] code = encode(referenceCode);
+        byte[] url = encode(fullUrl);
+        byte[] text = encode(description);
+        int length = 6 + size(code) + size(url) + size(text);
+        long address = reserve(length);
+        ByteBuffer segment = segments.get((int) (address >>> SEGMENT_BITS));
+        int offset = (int) (address & (SEGMENT_SIZE - 1));
+        offset = writeField(segment, offset, code);
+        offset = writeField(segment, offset, url);
+        writeField(segment, offset, text);
+        return address;
+    }
+
+    /**
+     * Stores code, description, URL and brand folded and separated; null fields are left empty.
+     */
+    private void writeSearchText(int slot, String referenceCode, String description, String fullUrl, String brandName) {
+        String[] fields = { referenceCode, description, fullUrl, brandName };
+        byte[][] folded = new byte[fields.length][];
+        int length = fields.length - 1;
+        for (int i = 0; i < fields.length; i++) {
+            folded[i] = fields[i] == null ? new byte[0] : FoldedMatcher.fold(fields[i]);
+            length += folded[i].length;
+            for (byte b : folded[i]) {
+                byteFrequencies[b & 0xFF]++;
+            }
+        }
+        long address = reserveSearchText(length);
+        byte[] chunk = searchChunks.get((int) (address >>> SEGMENT_BITS));
+        int offset = (int) (address & (SEGMENT_SIZE - 1));
+        for (int i = 0; i < folded.length; i++) {
+            if (i > 0) {
+                chunk[offset++] = FoldedMatcher.FIELD_SEPARATOR;
+            }
+            System.arraycopy(folded[i], 0, chunk, offset, folded[i].length);
+            offset += folded[i].length;
+        }
+        searchText[slot] = address;
+        searchLength[slot] = length;
+    }
+
+    private long reserveSearchText(int length) {
+        if (searchWriteOffset + length > SEGMENT_SIZE) {
+            searchChunks.add(new byte[SEGMENT_SIZE]);
+            searchWriteOffset = 0;
+        }
+        long address = ((long) (searchChunks.size() - 1) << SEGMENT_BITS) | searchWriteOffset;
+        searchWriteOffset += length;
+        liveBytes += length;
+        return address;
+    }
+
+    private long reserve(int length) {
+        if (writeOffset + length > SEGMENT_SIZE) {
+            segments.add(ByteBuffer.allocateDirect(SEGMENT_SIZE));
+            writeOffset = 0;
+        }
+        long address = ((long) (segments.size() - 1) << SEGMENT_BITS) | writeOffset;
+        writeOffset += length;
+        liveBytes += length;
+        return address;
+    }
+
+    private int recordLength(long address) {
+        return recordLength(segments.get((int) (address >>> SEGMENT_BITS)), (int) (address & (SEGMENT_SIZE - 1)));
+    }
+
+    private static int recordLength(ByteBuffer segment, int offset) {
+        int position = offset;
+        for (int field = FIELD_CODE; field <= FIELD_DESCRIPTION; field++) {
+            int length = segment.getShort(position) & 0xFFFF;
+            position += 2 + (length == NULL_FIELD ? 0 : length);
+        }
+        return position - offset;
+    }
+
+    private static byte[] encode(String value) {
+        if (value == null) {
+            return null;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_FIELD_BYTES) {
+            throw new IllegalArgumentException("Field too long for the compact catalog: " + bytes.length + " bytes");
+        }
+        return bytes;
+    }
+
+    private static int size(byte[] field) {
+        return field == null ? 0 : field.length;
+    }
+
+    private static int writeField(ByteBuffer segment, int offset, byte[] field) {
+        segment.putShort(offset, (short) (field == null ? NULL_FIELD : field.length));
+        if (field != null) {
+            segment.put(offset + 2, field);
+        }
+        return offset + 2 + size(field);
+    }
+
+    private static String readField(ByteBuffer segment, int[] cursor) {
+        int length = segment.getShort(cursor[0]) & 0xFFFF;
+        cursor[0] += 2;
+        if (length == NULL_FIELD) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        segment.get(cursor[0], bytes);
+        cursor[0] += length;
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int intern(String value) {
+        if (value == null) {
+            return 0;
+        }
+        Integer id = dictionaryIds.get(value);
+        if (id == null) {
+            id = dictionary.size();
+            dictionary.add(value);
+            dictionaryIds.put(value, id);
+        }
+        return id;
+    }
+
+    private void insertId(long id, int slot) {
+        if ((idTableUsed + 1) * 2 > idKeys.length) {
+            rehashIds(idKeys.length * 2);
+        }
+        int mask = idKeys.length - 1;
+        int bucket = mix(Long.hashCode(id)) & mask;
+        while (idKeys[bucket] != EMPTY && idKeys[bucket] != DELETED) {
+            bucket = (bucket + 1) & mask;
+        }
+        if (idKeys[bucket] == EMPTY) {
+            idTableUsed++;
+        }
+        idKeys[bucket] = id;
+        idSlots[bucket] = slot;
+    }
+
+    private void removeId(long id) {
+        int mask = idKeys.length - 1;
+        for (int bucket = mix(Long.hashCode(id)) & mask; idKeys[bucket] != EMPTY; bucket = (bucket + 1) & mask) {
+            if (idKeys[bucket] == id) {
+                idKeys[bucket] = DELETED;
+                return;
+            }
+        }
+    }
+
+    private void rehashIds(int capacity) {
+        long[] oldKeys = idKeys;
+        int[] oldSlots = idSlots;
+        idKeys = new long[capacity];
+        idSlots = new int[capacity];
+        idTableUsed = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY && oldKeys[i] != DELETED) {
+                insertId(oldKeys[i], oldSlots[i]);
+            }
+        }
+    }
+
+    private void insertCode(int slot) {
+        if ((codeTableUsed + 1) * 2 > codeTable.length) {
+            rehashCodes(codeTable.length * 2);
+        }
+        int mask = codeTable.length - 1;
+        int bucket = hashCodeAt(slot) & mask;
+        while (codeTable[bucket] != EMPTY && codeTable[bucket] != DELETED) {
+            bucket = (bucket + 1) & mask;
+        }
+        if (codeTable[bucket] == EMPTY) {
+            codeTableUsed++;
+        }
+        codeTable[bucket] = slot + 1;
+    }
+
+    private void removeCode(int slot) {
+        int mask = codeTable.length - 1;
+        for (int bucket = hashCodeAt(slot) & mask; codeTable[bucket] != EMPTY; bucket = (bucket + 1) & mask) {
+            if (codeTable[bucket] == slot + 1) {
+                codeTable[bucket] = DELETED;
+                return;
+            }
+        }
+    }
+
+    private void rehashCodes(int capacity) {
+        int[] old = codeTable;
+        codeTable = new int[capacity];
+        codeTableUsed = 0;
+        for (int entry : old) {
+            if (entry != EMPTY && entry != DELETED) {
+                insertCode(entry - 1);
+            }
+        }
+    }
+
+    private int hashCodeAt(int slot) {
+        long address = records[slot];
+        ByteBuffer segment = segments.get((int) (address >>> SEGMENT_BITS));
+        int offset = (int) (address & (SEGMENT_SIZE - 1));
+        int length = segment.getShort(offset) & 0xFFFF;
+        int hash = 0x811C9DC5;
+        for (int i = 0; i < length; i++) {
+            hash = (hash ^ (fold(segment.get(offset + 2 + i)) & 0xFF)) * 0x01000193;
+        }
+        return mix(hash);
+    }
+
+    private static int hashFolded(byte[] key) {
+        int hash = 0x811C9DC5;
+        for (byte b : key) {
+            hash = (hash ^ (fold(b) & 0xFF)) * 0x01000193;
+        }
+        return mix(hash);
+    }
+
+    private boolean codeEqualsFolded(int slot, byte[] key) {
+        long address = records[slot];
+        ByteBuffer segment = segments.get((int) (address >>> SEGMENT_BITS));
+        int offset = (int) (address & (SEGMENT_SIZE - 1));
+        int length = segment.getShort(offset) & 0xFFFF;
+        if (length != key.length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (fold(segment.get(offset + 2 + i)) != fold(key[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte fold(byte b) {
+        return b >= 'A' && b <= 'Z' ? (byte) (b + ('a' - 'A')) : b;
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static long toMicros(LocalDateTime time) {
+        if (time == null) {
+            return NO_TIME;
+        }
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        if (micros == NO_TIME) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+            (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+}
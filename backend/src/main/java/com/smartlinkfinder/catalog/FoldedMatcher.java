@@ -0,0 +1,107 @@
+package com.smartlinkfinder.catalog;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Substring matcher over pre-folded UTF-8 text.
+ *
+ * Text is folded once when it is stored (lower-cased with Locale.ROOT like the normalized search
+ * term, then encoded), so a match is a plain byte comparison. The scan looks for the needle's
+ * rarest byte (by the catalog's byte histogram) eight bytes at a time with SWAR arithmetic on
+ * little-endian longs, and only verifies the candidates with Arrays.equals, which the JIT turns
+ * into a vectorized mismatch. Nothing is allocated per comparison.
+ */
+final class FoldedMatcher {
+
+    // Separates the fields of one link's search text, so no match can span two fields
+    static final byte FIELD_SEPARATOR = 0;
+
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+
+    private final byte[] needle;
+    private final boolean impossible;
+    private final int anchor;
+    private final byte anchorByte;
+    private final long anchorPattern;
+
+    /**
+     * @param byteFrequencies occurrences of each byte value in the searched text, used to pick the anchor
+     */
+    FoldedMatcher(String normalizedQuery, long[] byteFrequencies) {
+        this.needle = fold(normalizedQuery);
+        int rarest = 0;
+        boolean separator = false;
+        for (int i = 0; i < needle.length; i++) {
+            separator |= needle[i] == FIELD_SEPARATOR;
+            if (byteFrequencies[needle[i] & 0xFF] < byteFrequencies[needle[rarest] & 0xFF]) {
+                rarest = i;
+            }
+        }
+        this.impossible = separator;
+        this.anchor = rarest;
+        this.anchorByte = needle.length == 0 ? 0 : needle[rarest];
+        this.anchorPattern = (anchorByte & 0xFFL) * ONES;
+    }
+
+    static byte[] fold(String value) {
+        return value.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return whether the needle occurs in text[from, to)
+     */
+    boolean matches(byte[] text, int from, int to) {
+        int length = needle.length;
+        if (length == 0) {
+            return true;
+        }
+        if (impossible || length > to - from) {
+            return false;
+        }
+        // Positions the anchor byte can take for the needle to fit
+        int position = from + anchor;
+        int last = to - length + anchor;
+
+        if (last - position + 1 < Long.BYTES) {
+            for (; position <= last; position++) {
+                if (text[position] == anchorByte && verify(text, position - anchor)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        for (; position + Long.BYTES - 1 <= last; position += Long.BYTES) {
+            if (scanWord(text, position)) {
+                return true;
+            }
+        }
+        // The remainder as one word overlapping the previous one
+        return position <= last && scanWord(text, last - Long.BYTES + 1);
+    }
+
+    private boolean scanWord(byte[] text, int position) {
+        long word = (long) LONGS.get(text, position);
+        long difference = word ^ anchorPattern;
+        // High bit set in each byte equal to the anchor (plus false positives above a real one)
+        long candidates = (difference - ONES) & ~difference & HIGH_BITS;
+        while (candidates != 0) {
+            int candidate = position + (Long.numberOfTrailingZeros(candidates) >>> 3);
+            if (verify(text, candidate - anchor)) {
+                return true;
+            }
+            candidates &= candidates - 1;
+        }
+        return false;
+    }
+
+    private boolean verify(byte[] text, int start) {
+        return Arrays.equals(text, start, start + needle.length, needle, 0, needle.length);
+    }
+}
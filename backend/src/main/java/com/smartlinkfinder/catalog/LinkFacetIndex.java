@@ -0,0 +1,464 @@
+package com.smartlinkfinder.catalog;
+
+import com.smartlinkfinder.event.LinkChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory brand/status/market facets over link ids, one RoaringBitmap per distinct value.
+ * Built once at startup from a narrow (id, brand_name, status, market) scan and kept current from
+ * LinkChangedEvents, so filtered listings and facet counts never scan the links table. A RELOAD is
+ * caught up from the link_changes log in the background rather than rebuilt on the publishing thread.
+ * Values are matched exactly as stored. Archived links are not indexed. The market facet scopes
+ * listings and counts to a tenant; it is not reported in the counts.
+ *
+ * The index is periodically saved as a CatalogSnapshot. On restart it is loaded from that file and
+ * only the links changed since (per the link_changes log) are re-read; the full scan is the fallback
+ * when the snapshot is missing, corrupt, from another database or older than the log retention.
+ */
+@Component
+public class LinkFacetIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(LinkFacetIndex.class);
+
+    private static final String FACET_ROWS_QUERY = "SELECT id, brand_name, status, market FROM links WHERE status <> 'ARCHIVED'";
+
+    private static final String POSITION_QUERY = "SELECT pg_snapshot_xmin(pg_current_snapshot())::text";
+
+    private static final String DATABASE_ID_QUERY =
+        "SELECT system_identifier::text || '/' || current_database() FROM pg_control_system()";
+
+    private static final String CHANGED_IDS_QUERY = "SELECT DISTINCT link_id FROM link_changes WHERE tx >= ?::xid8";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${link.snapshot.enabled:true}")
+    private boolean snapshotEnabled;
+
+    @Value("${link.snapshot.path:${java.io.tmpdir}/smart-link-finder/link-catalog.snapshot}")
+    private String snapshotPath;
+
+    @Value("${link.changes.retention-days:30}")
+    private int changeLogRetentionDays;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, RoaringBitmap> byBrand = new HashMap<>();
+    private final Map<String, RoaringBitmap> byStatus = new HashMap<>();
+    private final Map<String, RoaringBitmap> byMarket = new HashMap<>();
+    private final RoaringBitmap all = new RoaringBitmap();
+    private volatile boolean ready;
+
+    // Change log position the index is known to be current with; -1 when unknown
+    private volatile long position = -1;
+
+    // RELOADs are caught up off the publishing thread, at most one queued at a time
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "link-facet-refresher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean refreshQueued = new AtomicBoolean();
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!snapshotEnabled || !warmStart()) {
+            rebuild();
+        }
+    }
+
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        Map<String, RoaringBitmap> brands = new HashMap<>();
+        Map<String, RoaringBitmap> statuses = new HashMap<>();
+        Map<String, RoaringBitmap> markets = new HashMap<>();
+        RoaringBitmap ids = new RoaringBitmap();
+        long scanPosition;
+        try {
+            // One snapshot for position and scan, so replaying the log from the position is complete
+            scanPosition = snapshotTransaction().execute(status -> {
+                long current = currentPosition();
+                jdbcTemplate.query(FACET_ROWS_QUERY, resultSet -> {
+                    int id = Math.toIntExact(resultSet.getLong(1));
+                    ids.add(id);
+                    add(brands, resultSet.getString(2), id);
+                    add(statuses, resultSet.getString(3), id);
+                    add(markets, resultSet.getString(4), id);
+                });
+                return current;
+            });
+        } catch (Exception e) {
+            logger.error("Failed to build link facet index, falling back to database queries", e);
+            ready = false;
+            return;
+        }
+
+        install(ids, brands, statuses, markets, scanPosition);
+        logger.info("Link facet index built: {} links, {} brands, {} statuses, {} markets in {} ms",
+            ids.getCardinality(), brands.size(), statuses.size(), markets.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Periodic catch-up while running, so a change notification lost between instances does not
+     * leave the index stale until the next RELOAD.
+     */
+    @Scheduled(fixedDelayString = "${link.catalog.catch-up-interval-ms:30000}",
+               initialDelayString = "${link.catalog.catch-up-interval-ms:30000}")
+    public void periodicCatchUp() {
+        if (!ready) {
+            return;
+        }
+        try {
+            catchUp();
+        } catch (Exception e) {
+            logger.warn("Link facet index catch-up failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Re-reads the links changed since the current position and moves the position forward.
+     */
+    public void catchUp() {
+        long from = position;
+        if (from < 0) {
+            return;
+        }
+        Map<Integer, String[]> changed = new HashMap<>();
+        Long to = snapshotTransaction().execute(status -> {
+            long current = currentPosition();
+            changed.putAll(readRows(jdbcTemplate.queryForList(CHANGED_IDS_QUERY, Long.class, Long.toString(from))));
+            return current;
+        });
+
+        lock.writeLock().lock();
+        try {
+            apply(changed);
+            if (position == from) {
+                position = to;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${link.snapshot.save-interval-ms:300000}",
+               initialDelayString = "${link.snapshot.save-interval-ms:300000}")
+    @PreDestroy
+    public void saveSnapshot() {
+        if (!snapshotEnabled || !ready || position < 0) {
+            return;
+        }
+        try {
+            long start = System.currentTimeMillis();
+            catchUp();
+            CatalogSnapshot snapshot;
+            lock.readLock().lock();
+            try {
+                snapshot = new CatalogSnapshot(databaseId(), position, System.currentTimeMillis(),
+                    all.clone(), cloneAll(byBrand), cloneAll(byStatus), cloneAll(byMarket));
+            } finally {
+                lock.readLock().unlock();
+            }
+            snapshot.writeTo(Paths.get(snapshotPath));
+            logger.info("Link catalog snapshot saved to {} in {} ms", snapshotPath, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            logger.warn("Failed to save link catalog snapshot: {}", e.getMessage());
+        }
+    }
+
+    private boolean warmStart() {
+        long start = System.currentTimeMillis();
+        Path path = Paths.get(snapshotPath);
+        try {
+            CatalogSnapshot snapshot = CatalogSnapshot.read(path);
+            if (!snapshot.getDatabaseId().equals(databaseId())) {
+                logger.info("Link catalog snapshot belongs to another database, doing a full load");
+                return false;
+            }
+            // Entries the delta would need may already be pruned from the change log
+            long maxAgeMillis = Duration.ofDays(changeLogRetentionDays - 1L).toMillis();
+            if (System.currentTimeMillis() - snapshot.getCreatedAtMillis() > maxAgeMillis) {
+                logger.info("Link catalog snapshot is older than the change log retention, doing a full load");
+                return false;
+            }
+            install(snapshot.getAll(), snapshot.getBrands(), snapshot.getStatuses(), snapshot.getMarkets(),
+                snapshot.getPosition());
+            catchUp();
+            logger.info("Link facet index warm-started from snapshot: {} links in {} ms",
+                all.getCardinality(), System.currentTimeMillis() - start);
+            return true;
+        } catch (NoSuchFileException e) {
+            logger.info("No link catalog snapshot at {}, doing a full load", path);
+        } catch (Exception e) {
+            logger.warn("Link catalog snapshot unusable ({}), doing a full load", e.getMessage());
+        }
+        ready = false;
+        position = -1;
+        return false;
+    }
+
+    private void install(RoaringBitmap ids, Map<String, RoaringBitmap> brands, Map<String, RoaringBitmap> statuses,
+                         Map<String, RoaringBitmap> markets, long installedPosition) {
+        lock.writeLock().lock();
+        try {
+            byBrand.clear();
+            byBrand.putAll(brands);
+            byStatus.clear();
+            byStatus.putAll(statuses);
+            byMarket.clear();
+            byMarket.putAll(markets);
+            all.clear();
+            all.or(ids);
+            position = installedPosition;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private TransactionTemplate snapshotTransaction() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        template.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        // Also called from after-commit listeners, where the finished transaction is still bound
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template;
+    }
+
+    private long currentPosition() {
+        return Long.parseLong(jdbcTemplate.queryForObject(POSITION_QUERY, String.class));
+    }
+
+    private String databaseId() {
+        return jdbcTemplate.queryForObject(DATABASE_ID_QUERY, String.class);
+    }
+
+    private static Map<String, RoaringBitmap> cloneAll(Map<String, RoaringBitmap> facet) {
+        Map<String, RoaringBitmap> copy = new HashMap<>();
+        facet.forEach((value, bitmap) -> copy.put(value, bitmap.clone()));
+        return copy;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onLinkChanged(LinkChangedEvent event) {
+        if (event.getType() == LinkChangedEvent.Type.RELOAD) {
+            refreshInBackground();
+            return;
+        }
+        if (!ready || event.getLinkIds().isEmpty()) {
+            return;
+        }
+        // Re-read the rows instead of trusting the event, so out-of-order events still converge
+        Map<Integer, String[]> changed = readRows(event.getLinkIds());
+
+        lock.writeLock().lock();
+        try {
+            apply(changed);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Queues one catch-up from the change log (a full rebuild when the position is unknown) on the
+     * refresher thread. RELOADs arriving while one is queued share it; one arriving while it runs
+     * queues the next, so the last RELOAD is always followed by a complete pass.
+     */
+    private void refreshInBackground() {
+        if (!refreshQueued.compareAndSet(false, true)) {
+            return;
+        }
+        refresher.execute(() -> {
+            refreshQueued.set(false);
+            if (ready && position >= 0) {
+                try {
+                    catchUp();
+                    return;
+                } catch (Exception e) {
+                    logger.warn("Link facet index catch-up failed ({}), rebuilding", e.getMessage());
+                }
+            }
+            rebuild();
+        });
+    }
+
+    @PreDestroy
+    public void stopRefresher() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * @return the facet values of each id, null for ids that are gone or archived
+     */
+    private Map<Integer, String[]> readRows(List<Long> ids) {
+        Map<Integer, String[]> rows = new HashMap<>();
+        for (Long id : ids) {
+            rows.put(Math.toIntExact(id), null);
+        }
+        if (!ids.isEmpty()) {
+            jdbcTemplate.query(FACET_ROWS_QUERY + " AND id = ANY (?)",
+                resultSet -> {
+                    rows.put(Math.toIntExact(resultSet.getLong(1)),
+                        new String[] { resultSet.getString(2), resultSet.getString(3), resultSet.getString(4) });
+                },
+                (Object) ids.toArray(new Long[0]));
+        }
+        return rows;
+    }
+
+    // Caller holds the write lock
+    private void apply(Map<Integer, String[]> rows) {
+        rows.forEach((id, row) -> {
+            remove(id);
+            if (row != null) {
+                all.add(id);
+                add(byBrand, row[0], id);
+                add(byStatus, row[1], id);
+                add(byMarket, row[2], id);
+            }
+        });
+    }
+
+    /**
+     * @return ids of links matching all filters (null = no filter on that facet)
+     */
+    public RoaringBitmap filter(String market, String brand, String status) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap result = market == null ? all.clone()
+                : byMarket.getOrDefault(market, new RoaringBitmap()).clone();
+            if (brand != null) {
+                result.and(byBrand.getOrDefault(brand, new RoaringBitmap()));
+            }
+            if (status != null) {
+                result.and(byStatus.getOrDefault(status, new RoaringBitmap()));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Facet counts within a base set. Brand counts honour the status filter and vice versa,
+     * so a client can show the alternatives for each facet next to the active selection.
+     */
+    public FacetCounts counts(RoaringBitmap base, String brand, String status) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap brandBase = status == null ? base : RoaringBitmap.and(base, byStatus.getOrDefault(status, new RoaringBitmap()));
+            RoaringBitmap statusBase = brand == null ? base : RoaringBitmap.and(base, byBrand.getOrDefault(brand, new RoaringBitmap()));
+            RoaringBitmap matching = brand == null ? brandBase : RoaringBitmap.and(brandBase, byBrand.getOrDefault(brand, new RoaringBitmap()));
+            return new FacetCounts(matching.getLongCardinality(), countBy(byBrand, brandBase), countBy(byStatus, statusBase));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the ids at positions [offset, offset + limit) of the bitmap in id order
+     */
+    public static List<Long> page(RoaringBitmap ids, long offset, int limit, boolean descending) {
+        long cardinality = ids.getLongCardinality();
+        List<Long> page = new ArrayList<>(limit);
+        for (long position = offset; position < cardinality && page.size() < limit; position++) {
+            long rank = descending ? cardinality - 1 - position : position;
+            page.add(Integer.toUnsignedLong(ids.select((int) rank)));
+        }
+        return page;
+    }
+
+    public static RoaringBitmap bitmapOf(List<Long> ids) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for (Long id : ids) {
+            bitmap.add(Math.toIntExact(id));
+        }
+        return bitmap;
+    }
+
+    private void remove(int id) {
+        all.remove(id);
+        byBrand.values().forEach(bitmap -> bitmap.remove(id));
+        byStatus.values().forEach(bitmap -> bitmap.remove(id));
+        byMarket.values().forEach(bitmap -> bitmap.remove(id));
+        byBrand.values().removeIf(RoaringBitmap::isEmpty);
+        byStatus.values().removeIf(RoaringBitmap::isEmpty);
+        byMarket.values().removeIf(RoaringBitmap::isEmpty);
+    }
+
+    private static void add(Map<String, RoaringBitmap> facet, String value, int id) {
+        if (value != null && !value.isBlank()) {
+            facet.computeIfAbsent(value, key -> new RoaringBitmap()).add(id);
+        }
+    }
+
+    private static Map<String, Long> countBy(Map<String, RoaringBitmap> facet, RoaringBitmap base) {
+        Map<String, Long> counts = new HashMap<>();
+        facet.forEach((value, bitmap) -> {
+            long count = RoaringBitmap.andCardinality(bitmap, base);
+            if (count > 0) {
+                counts.put(value, count);
+            }
+        });
+        Map<String, Long> sorted = new LinkedHashMap<>();
+        counts.entrySet().stream()
+            .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+            .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+        return sorted;
+    }
+
+    /**
+     * Facet counts returned by /links/facets and /links/search/facets
+     */
+    public static class FacetCounts {
+        private final long total;
+        private final Map<String, Long> brands;
+        private final Map<String, Long> statuses;
+
+        public FacetCounts(long total, Map<String, Long> brands, Map<String, Long> statuses) {
+            this.total = total;
+            this.brands = brands;
+            this.statuses = statuses;
+        }
+
+        public long getTotal() { return total; }
+        public Map<String, Long> getBrands() { return brands; }
+        public Map<String, Long> getStatuses() { return statuses; }
+    }
+}
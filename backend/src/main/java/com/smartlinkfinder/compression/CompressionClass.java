@@ -0,0 +1,54 @@
+package com.smartlinkfinder.compression;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Endpoint classes with their own response compression policy. Single-link lookups are too
+ * small to be worth compressing; search results and the large admin listings are compressed at
+ * the fastest level, where nearly all of the gain on repetitive JSON comes at a fraction of the
+ * CPU of the default level.
+ */
+public enum CompressionClass {
+
+    PUBLIC_RESOLVE("public", 0, false),
+    SEARCH("search", 1, true),
+    LIST("list", 1, false),
+    DEFAULT("default", 6, false);
+
+    private final String key;
+    private final int defaultLevel;
+    private final boolean defaultCacheable;
+
+    CompressionClass(String key, int defaultLevel, boolean defaultCacheable) {
+        this.key = key;
+        this.defaultLevel = defaultLevel;
+        this.defaultCacheable = defaultCacheable;
+    }
+
+    public String getKey() { return key; }
+    public int getDefaultLevel() { return defaultLevel; }
+    public boolean isDefaultCacheable() { return defaultCacheable; }
+
+    /**
+     * @return the class of the request, or null for requests that are never compressed
+     *         (HEAD requests, CORS preflights, and the static pages, which are gzipped at build time)
+     */
+    public static CompressionClass of(HttpServletRequest request) {
+        String path = request.getServletPath();
+        String method = request.getMethod();
+        if ("OPTIONS".equals(method) || "HEAD".equals(method) || path.endsWith(".html")) {
+            return null;
+        }
+        if (path.startsWith("/public/") || path.startsWith("/links/reference/")) {
+            return PUBLIC_RESOLVE;
+        }
+        if (path.equals("/links/search") || path.startsWith("/links/search/")) {
+            return SEARCH;
+        }
+        if ("GET".equals(method) && (path.equals("/links") || path.equals("/links/archived")
+                || path.equals("/links/changes") || path.startsWith("/links/health/") || path.equals("/audit"))) {
+            return LIST;
+        }
+        return DEFAULT;
+    }
+}
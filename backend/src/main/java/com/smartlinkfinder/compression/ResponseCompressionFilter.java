@@ -0,0 +1,210 @@
+package com.smartlinkfinder.compression;
+
+import com.smartlinkfinder.cache.TtlCache;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzip response compression with a policy per CompressionClass, in place of Tomcat's global
+ * server.compression (which compresses every response over 1 KB at the default level).
+ *
+ * For cacheable classes the compressed body is kept per request URL together with the SHA-256 of
+ * the body it was compressed from. A response whose digest is unchanged - the common case for
+ * repeated searches between catalog changes - reuses the stored gzip output instead of compressing
+ * again. Comparing digests keeps this correct without any knowledge of what the response depends
+ * on, and hashing is several times cheaper than deflating. The cache is bounded by entry count and
+ * by total bytes (compression.cache.max-bytes, counting the gzip output and the key), so unique
+ * query strings on the public search route cannot grow it beyond that.
+ *
+ * Levels are configured per class with compression.{public|search|list|default}.level
+ * (0 disables compression) and .cache.
+ */
+@Component
+public class ResponseCompressionFilter extends OncePerRequestFilter {
+
+    private final boolean enabled;
+    private final int minResponseSize;
+    private final int maxCachedBodyBytes;
+    private final long cacheMaxBytes;
+    private final Map<CompressionClass, Integer> levels = new EnumMap<>(CompressionClass.class);
+    private final Map<CompressionClass, Boolean> cacheable = new EnumMap<>(CompressionClass.class);
+    private final TtlCache<String, CompressedBody> bodies;
+
+    private final LongAdder compressed = new LongAdder();
+    private final LongAdder reused = new LongAdder();
+    private final LongAdder bytesIn = new LongAdder();
+    private final LongAdder bytesOut = new LongAdder();
+
+    public ResponseCompressionFilter(Environment environment,
+                                     @Value("${compression.enabled:true}") boolean enabled,
+                                     @Value("${compression.min-response-size:1024}") int minResponseSize,
+                                     @Value("${compression.cache.max-size:2000}") int cacheMaxSize,
+                                     @Value("${compression.cache.max-body-bytes:262144}") int maxCachedBodyBytes,
+                                     @Value("${compression.cache.max-bytes:16777216}") long cacheMaxBytes,
+                                     @Value("${compression.cache.ttl-seconds:300}") long cacheTtlSeconds) {
+        this.enabled = enabled;
+        this.minResponseSize = minResponseSize;
+        this.maxCachedBodyBytes = maxCachedBodyBytes;
+        this.cacheMaxBytes = cacheMaxBytes;
+        this.bodies = new TtlCache<>(cacheMaxSize, cacheTtlSeconds * 1000, cacheMaxBytes, CompressedBody::weight);
+        for (CompressionClass compressionClass : CompressionClass.values()) {
+            String prefix = "compression." + compressionClass.getKey() + ".";
+            int level = environment.getProperty(prefix + "level", Integer.class, compressionClass.getDefaultLevel());
+            if (level < 0 || level > 9) {
+                throw new IllegalArgumentException("Invalid compression level " + level + " for " + compressionClass.getKey());
+            }
+            levels.put(compressionClass, level);
+            cacheable.put(compressionClass, environment.getProperty(prefix + "cache", Boolean.class, compressionClass.isDefaultCacheable()));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        CompressionClass compressionClass = enabled ? CompressionClass.of(request) : null;
+        int level = compressionClass == null ? 0 : levels.get(compressionClass);
+        if (level == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null || !acceptEncoding.contains("gzip")) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, wrapper);
+
+        byte[] body = wrapper.getContentAsByteArray();
+        if (!isCompressible(wrapper, body.length)) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+
+        byte[] gzipped;
+        if (cacheable.get(compressionClass) && "GET".equals(request.getMethod()) && body.length <= maxCachedBodyBytes) {
+            gzipped = compressCached(cacheKey(request, wrapper.getContentType()), body, level);
+        } else {
+            gzipped = compress(body, level);
+        }
+
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        response.setContentLength(gzipped.length);
+        response.getOutputStream().write(gzipped);
+    }
+
+    /**
+     * Compression counters and cache usage, for the detailed health endpoint
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new HashMap<>();
+        Map<String, Object> classLevels = new HashMap<>();
+        levels.forEach((compressionClass, level) -> classLevels.put(compressionClass.getKey(), level));
+        statistics.put("levels", classLevels);
+        statistics.put("compressed", compressed.sum());
+        statistics.put("reused", reused.sum());
+        statistics.put("bytesIn", bytesIn.sum());
+        statistics.put("bytesOut", bytesOut.sum());
+        statistics.put("cacheSize", bodies.size());
+        statistics.put("cacheBytes", bodies.weight());
+        statistics.put("cacheMaxBytes", cacheMaxBytes);
+        return statistics;
+    }
+
+    private boolean isCompressible(ContentCachingResponseWrapper response, int length) {
+        if (length < minResponseSize || response.getStatus() != HttpServletResponse.SC_OK
+                || response.containsHeader(HttpHeaders.CONTENT_ENCODING)) {
+            return false;
+        }
+        String contentType = response.getContentType();
+        return contentType != null && (contentType.startsWith("application/json") || contentType.startsWith("application/cbor")
+                || contentType.startsWith("text/"));
+    }
+
+    private byte[] compressCached(String key, byte[] body, int level) throws IOException {
+        byte[] digest = sha256(body);
+        CompressedBody cached = bodies.get(key);
+        if (cached != null && MessageDigest.isEqual(cached.digest, digest)) {
+            reused.increment();
+            bytesIn.add(body.length);
+            bytesOut.add(cached.gzipped.length);
+            return cached.gzipped;
+        }
+        byte[] gzipped = compress(body, level);
+        bodies.put(key, new CompressedBody(key.length(), digest, gzipped));
+        return gzipped;
+    }
+
+    private static byte[] sha256(byte[] body) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(body);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private byte[] compress(byte[] body, int level) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new LeveledGzipOutputStream(out, level)) {
+            gzip.write(body);
+        }
+        compressed.increment();
+        bytesIn.add(body.length);
+        bytesOut.add(out.size());
+        return out.toByteArray();
+    }
+
+    // One URL can be served as JSON or CBOR, so the content type is part of the key
+    private static String cacheKey(HttpServletRequest request, String contentType) {
+        String query = request.getQueryString();
+        String url = query == null ? request.getRequestURI() : request.getRequestURI() + "?" + query;
+        return contentType + " " + url;
+    }
+
+    private static final class CompressedBody {
+        private final int keyLength;
+        private final byte[] digest;
+        private final byte[] gzipped;
+
+        CompressedBody(int keyLength, byte[] digest, byte[] gzipped) {
+            this.keyLength = keyLength;
+            this.digest = digest;
+            this.gzipped = gzipped;
+        }
+
+        // Approximate heap footprint: gzip output, digest and key characters plus object overhead
+        long weight() {
+            return gzipped.length + digest.length + 2L * keyLength + 128;
+        }
+    }
+
+    private static final class LeveledGzipOutputStream extends GZIPOutputStream {
+        LeveledGzipOutputStream(OutputStream out, int level) throws IOException {
+            super(out, 8192);
+            def.setLevel(level);
+        }
+    }
+}
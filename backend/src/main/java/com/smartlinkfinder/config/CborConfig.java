@@ -0,0 +1,23 @@
+package com.smartlinkfinder.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * CBOR (application/cbor) as an alternative response format, chosen by the Accept header.
+ * Clients that pull large link pages get a binary encoding of the same document as the JSON
+ * response, which is smaller and cheaper to write and parse. JSON stays the default.
+ *
+ * Built from Boot's Jackson builder so spring.jackson.* settings and modules apply to both formats.
+ */
+@Configuration
+public class CborConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.createXmlMapper(false).factory(new CBORFactory()).build());
+    }
+}
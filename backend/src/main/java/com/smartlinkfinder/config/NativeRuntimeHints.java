@@ -0,0 +1,77 @@
+package com.smartlinkfinder.config;
+
+import com.smartlinkfinder.dto.AdminLink;
+import com.smartlinkfinder.dto.AuditEntry;
+import com.smartlinkfinder.dto.AuthRequest;
+import com.smartlinkfinder.dto.AuthResponse;
+import com.smartlinkfinder.dto.BulkLinkRequest;
+import com.smartlinkfinder.dto.BulkLinkResult;
+import com.smartlinkfinder.dto.LinkChange;
+import com.smartlinkfinder.dto.LinkHealthStatus;
+import com.smartlinkfinder.dto.LinkPage;
+import com.smartlinkfinder.dto.LinkRequest;
+import com.smartlinkfinder.dto.LinkVersion;
+import com.smartlinkfinder.entity.Link;
+import com.smartlinkfinder.entity.User;
+import com.smartlinkfinder.service.PersistentDataInitializationService;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+/**
+ * Reachability metadata for the GraalVM native image build (-Pnative).
+ * Spring AOT covers beans and JPA managed types on its own; this registers what it
+ * cannot infer: JSON bodies behind ResponseEntity<?>, jjwt's reflectively loaded
+ * implementation classes and the POI/XMLBeans schema resources used by Excel upload.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final String[] JJWT_IMPLEMENTATION_TYPES = {
+        "io.jsonwebtoken.impl.DefaultClaimsBuilder",
+        "io.jsonwebtoken.impl.DefaultJwtBuilder",
+        "io.jsonwebtoken.impl.DefaultJwtHeaderBuilder",
+        "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+        "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+        "io.jsonwebtoken.impl.security.KeysBridge",
+        "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+        "io.jsonwebtoken.impl.security.StandardHashAlgorithms",
+        "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+        "io.jsonwebtoken.impl.security.StandardKeyOperations",
+        "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+        "io.jsonwebtoken.jackson.io.JacksonSerializer",
+        "io.jsonwebtoken.jackson.io.JacksonDeserializer"
+    };
+
+    private static final String[] POI_REFLECTIVE_TYPES = {
+        "org.apache.poi.schemas.ooxml.system.ooxml.TypeSystemHolder",
+        "org.apache.poi.xssf.usermodel.XSSFWorkbookFactory",
+        "org.apache.poi.hssf.usermodel.HSSFWorkbookFactory"
+    };
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // Request/response bodies serialized by Jackson
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+            Link.class, User.class, AuthRequest.class, AuthResponse.class, LinkRequest.class, LinkVersion.class, LinkPage.class, AdminLink.class,
+            BulkLinkRequest.class, BulkLinkResult.class, LinkChange.class, LinkHealthStatus.class, AuditEntry.class,
+            PersistentDataInitializationService.DataStatistics.class);
+
+        // jjwt resolves its implementation through Classes.newInstance(String)
+        for (String type : JJWT_IMPLEMENTATION_TYPES) {
+            hints.reflection().registerType(TypeReference.of(type),
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+        hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+
+        // Apache POI: workbook factories are service-loaded, XMLBeans reads compiled schemas (.xsb)
+        for (String type : POI_REFLECTIVE_TYPES) {
+            hints.reflection().registerType(TypeReference.of(type),
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS,
+                MemberCategory.DECLARED_FIELDS);
+        }
+        hints.resources().registerPattern("META-INF/services/org.apache.poi.*");
+        hints.resources().registerPattern("org/apache/poi/schemas/ooxml/**");
+    }
+}
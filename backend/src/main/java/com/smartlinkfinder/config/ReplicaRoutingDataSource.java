@@ -0,0 +1,169 @@
+package com.smartlinkfinder.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Supplier;
+
+/**
+ * Routes read-only transactions to a healthy replica (round robin) and everything else to the primary.
+ * Replicas are health-checked in the background and taken out of rotation while unreachable or
+ * lagging more than the configured limit; a replica that fails to hand out a connection is taken
+ * out immediately and the request falls back to the primary.
+ *
+ * Must be wrapped in a LazyConnectionDataSourceProxy so the read-only flag of the transaction is
+ * known by the time a connection is actually requested.
+ *
+ * Reads whose result must include the latest commits (loads that fill a cache right after an
+ * invalidation) run inside readFromPrimary.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private static final String PRIMARY = "primary";
+
+    private static final ThreadLocal<Boolean> primaryOnly = new ThreadLocal<>();
+
+    // Replay lag; zero when the replica has applied everything it received
+    private static final String LAG_QUERY =
+        "SELECT CASE WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+        "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final AtomicIntegerArray healthy;
+    private final double maxLagSeconds;
+    private final long checkIntervalMillis;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final ScheduledExecutorService healthChecker;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas,
+                                    double maxLagSeconds, long checkIntervalMillis) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.healthy = new AtomicIntegerArray(replicas.size());
+        this.maxLagSeconds = maxLagSeconds;
+        this.checkIntervalMillis = checkIntervalMillis;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(i, replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        checkReplicas();
+        healthChecker.scheduleWithFixedDelay(this::checkReplicas, checkIntervalMillis, checkIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        healthChecker.shutdownNow();
+    }
+
+    /**
+     * Runs read on the primary even inside a read-only transaction. Connections fetched before the
+     * call keep their target, so read must be the first to use the database in its transaction.
+     * Without replicas every read goes to the primary anyway.
+     */
+    public static <T> T readFromPrimary(Supplier<T> read) {
+        Boolean previous = primaryOnly.get();
+        primaryOnly.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            if (previous == null) {
+                primaryOnly.remove();
+            } else {
+                primaryOnly.set(previous);
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        int size = replicas.size();
+        if (size == 0 || !TransactionSynchronizationManager.isCurrentTransactionReadOnly() || primaryOnly.get() != null) {
+            return PRIMARY;
+        }
+        int start = Math.floorMod(nextReplica.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            int candidate = (start + i) % size;
+            if (healthy.get(candidate) == 1) {
+                return candidate;
+            }
+        }
+        return PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Object key = determineCurrentLookupKey();
+        if (PRIMARY.equals(key)) {
+            return primary.getConnection();
+        }
+        try {
+            return replicas.get((Integer) key).getConnection();
+        } catch (SQLException e) {
+            markUnhealthy((Integer) key, e.getMessage());
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Credentials are configured per pool
+        return getConnection();
+    }
+
+    private void checkReplicas() {
+        for (int i = 0; i < replicas.size(); i++) {
+            try (Connection connection = replicas.get(i).getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+                double lag = resultSet.next() ? resultSet.getDouble(1) : 0;
+                if (lag > maxLagSeconds) {
+                    markUnhealthy(i, String.format("replication lag %.1fs", lag));
+                } else if (healthy.getAndSet(i, 1) == 0) {
+                    logger.info("Read replica {} is in rotation (lag {}s)", i, lag);
+                }
+            } catch (Exception e) {
+                markUnhealthy(i, e.getMessage());
+            }
+        }
+    }
+
+    private void markUnhealthy(int replica, String reason) {
+        if (healthy.getAndSet(replica, 0) == 1) {
+            logger.warn("Read replica {} taken out of rotation: {}", replica, reason);
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package com.smartlinkfinder.config;
 
+import com.smartlinkfinder.admission.AdmissionControlFilter;
+import com.smartlinkfinder.admission.RateLimitFilter;
 import com.smartlinkfinder.security.JwtAuthenticationFilter;
 import com.smartlinkfinder.security.CustomUserDetailsService;
+import com.smartlinkfinder.security.PublicRoutes;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -33,6 +36,12 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
     
+    @Autowired
+    private AdmissionControlFilter admissionControlFilter;
+    
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+    
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
@@ -72,15 +81,11 @@ public class SecurityConfig {
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
                 // Public endpoints - must be first and most specific
-                .requestMatchers("/auth/login").permitAll()
-                .requestMatchers("/auth/register-super-admin").permitAll()
-                .requestMatchers("/health").permitAll()
-                .requestMatchers("/health/**").permitAll()
-                .requestMatchers("/links/reference/**").permitAll()
-                .requestMatchers("/links/search/**").permitAll()
-                .requestMatchers("/public/**").permitAll()
-                .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
+                // (shared with JwtAuthenticationFilter, which skips token handling on these)
+                .requestMatchers(PublicRoutes.ANONYMOUS).permitAll()
                 // Admin endpoints (require ADMIN or SUPER_ADMIN role) - specific HTTP methods
+                // Admins with a market additionally carry a MARKET_<code> authority; the link services
+                // confine them to that market (MarketScope), a SUPER_ADMIN is never scoped
                 .requestMatchers(HttpMethod.GET, "/links/**").hasAnyRole("ADMIN", "SUPER_ADMIN")
                 .requestMatchers(HttpMethod.POST, "/links/**").hasAnyRole("ADMIN", "SUPER_ADMIN")
                 .requestMatchers(HttpMethod.PUT, "/links/**").hasAnyRole("ADMIN", "SUPER_ADMIN")
@@ -89,11 +94,17 @@ public class SecurityConfig {
                 // Super Admin endpoints (require SUPER_ADMIN role)
                 .requestMatchers("/auth/register-admin").hasRole("SUPER_ADMIN")
                 .requestMatchers("/auth/admins/**").hasRole("SUPER_ADMIN")
+                .requestMatchers("/audit/**").hasRole("SUPER_ADMIN")
+                .requestMatchers("/statistics/**").hasRole("SUPER_ADMIN")
                 // All other requests require authentication
                 .anyRequest().authenticated()
             )
             .authenticationProvider(authenticationProvider())
-            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+            // Shed load before any token parsing or user lookup
+            .addFilterBefore(admissionControlFilter, JwtAuthenticationFilter.class)
+            // Reject clients over their rate limit before they take an admission slot
+            .addFilterBefore(rateLimitFilter, AdmissionControlFilter.class);
         
         return http.build();
     }
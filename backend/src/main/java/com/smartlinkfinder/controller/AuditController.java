@@ -0,0 +1,57 @@
+package com.smartlinkfinder.controller;
+
+import com.smartlinkfinder.audit.AuditLog;
+import com.smartlinkfinder.service.AuditService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/audit")
+@CrossOrigin(origins = "http://localhost:3000")
+public class AuditController {
+
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private AuditLog auditLog;
+
+    /**
+     * Audit trail, newest first. from/to are ISO date-times (from inclusive, to exclusive).
+     */
+    @GetMapping
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    public ResponseEntity<?> getAuditEntries(
+            @RequestParam(required = false) String actor,
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) String targetType,
+            @RequestParam(required = false) Long targetId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        try {
+            return ResponseEntity.ok(auditService.search(actor, action, targetType, targetId, from, to,
+                PageRequest.of(page, Math.min(size, 200))));
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
+
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    public ResponseEntity<Map<String, Object>> getAuditStatistics() {
+        return ResponseEntity.ok(auditLog.getStatistics());
+    }
+}
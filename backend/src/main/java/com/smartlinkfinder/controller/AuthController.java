@@ -9,6 +9,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
@@ -121,9 +122,9 @@ public class AuthController {
     
     @DeleteMapping("/admins/{id}")
     @PreAuthorize("hasRole('SUPER_ADMIN')")
-    public ResponseEntity<?> deleteAdmin(@PathVariable Long id) {
+    public ResponseEntity<?> deleteAdmin(@PathVariable Long id, Authentication authentication) {
         try {
-            authService.deleteAdmin(id);
+            authService.deleteAdmin(id, authentication.getName());
             Map<String, String> response = new HashMap<>();
             response.put("message", "Admin deleted successfully");
             return ResponseEntity.ok(response);
@@ -20,7 +20,9 @@ public class ExcelUploadController {
     private ExcelUploadService excelUploadService;
 
     @PostMapping("/upload")
-    public ResponseEntity<Map<String, Object>> uploadExcelFile(@RequestParam("file") MultipartFile file) {
+    public ResponseEntity<Map<String, Object>> uploadExcelFile(@RequestParam("file") MultipartFile file,
+                                                               @RequestParam(defaultValue = "skip") String mode,
+                                                               @RequestParam(required = false) String market) {
         Map<String, Object> response = new HashMap<>();
         
         try {
@@ -41,7 +43,7 @@ public class ExcelUploadController {
             }
             
             // Process Excel file
-            List<Link> links = excelUploadService.uploadExcelFile(file);
+            List<Link> links = excelUploadService.uploadExcelFile(file, market);
             
             if (links.isEmpty()) {
                 response.put("success", false);
@@ -49,6 +51,20 @@ public class ExcelUploadController {
                 return ResponseEntity.badRequest().body(response);
             }
             
+            // Upsert mode: insert new codes, update changed URLs, leave identical rows untouched
+            if ("upsert".equalsIgnoreCase(mode)) {
+                ExcelUploadService.UpsertResult result = excelUploadService.upsertLinks(links);
+                response.put("success", true);
+                response.put("message", "Excel file processed successfully");
+                response.put("mode", "upsert");
+                response.put("totalRows", links.size());
+                response.put("insertedRows", result.getInserted());
+                response.put("updatedRows", result.getUpdated());
+                response.put("unchangedRows", result.getUnchanged());
+                response.put("rejectedRows", result.getRejected());
+                return ResponseEntity.ok(response);
+            }
+            
             // Save links to database
             List<Link> savedLinks = excelUploadService.processAndSaveLinks(links);
             
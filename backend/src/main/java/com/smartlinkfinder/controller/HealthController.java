@@ -60,6 +60,7 @@ public class HealthController {
     /**
      * Simple detailed health check - no complex monitoring
      * Maps to: https://links-management-tool.onrender.com/api/health/detailed
+     * Public like /health; internal statistics are served by StatisticsController to SUPER_ADMINs.
      */
     @GetMapping("/health/detailed")
     public ResponseEntity<Map<String, Object>> detailedHealth() {
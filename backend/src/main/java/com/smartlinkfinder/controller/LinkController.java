@@ -1,8 +1,19 @@
 package com.smartlinkfinder.controller;
 
+import com.smartlinkfinder.dto.BulkLinkRequest;
+import com.smartlinkfinder.dto.BulkLinkResult;
+import com.smartlinkfinder.dto.AdminLink;
+import com.smartlinkfinder.dto.LinkPage;
 import com.smartlinkfinder.dto.LinkRequest;
 import com.smartlinkfinder.entity.Link;
+import com.smartlinkfinder.health.LinkHealthChecker;
+import com.smartlinkfinder.security.MarketScope;
+import com.smartlinkfinder.service.BulkLinkService;
+import com.smartlinkfinder.service.LinkArchiveService;
+import com.smartlinkfinder.service.LinkChangeLogService;
+import com.smartlinkfinder.service.LinkHealthService;
 import com.smartlinkfinder.service.LinkService;
+import com.smartlinkfinder.service.LinkVersionService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -16,6 +27,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -27,20 +39,140 @@ public class LinkController {
     @Autowired
     private LinkService linkService;
     
+    @Autowired
+    private BulkLinkService bulkLinkService;
+    
+    @Autowired
+    private LinkChangeLogService linkChangeLogService;
+    
+    @Autowired
+    private LinkHealthService linkHealthService;
+    
+    @Autowired
+    private LinkArchiveService linkArchiveService;
+    
+    @Autowired
+    private LinkVersionService linkVersionService;
+    
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
-    public ResponseEntity<Page<Link>> getAllLinks(
+    public ResponseEntity<LinkPage<AdminLink>> getAllLinks(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
-            @RequestParam(defaultValue = "desc") String sortDir) {
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(required = false) String market,
+            @RequestParam(required = false) String brand,
+            @RequestParam(required = false) String status) {
         
         Sort sort = sortDir.equalsIgnoreCase("desc") ? 
             Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
         Pageable pageable = PageRequest.of(page, size, sort);
         
-        Page<Link> links = linkService.getAllLinks(pageable);
-        return ResponseEntity.ok(links);
+        Page<Link> links = linkService.getLinks(market, brand, status, pageable);
+        return ResponseEntity.ok(LinkPage.of(links, AdminLink::of));
+    }
+    
+    /**
+     * Delta sync. Without a token only the current token is returned: take it, download the catalog,
+     * then poll with since=nextToken to receive UPSERT entries and DELETE tombstones.
+     */
+    @GetMapping("/changes")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<?> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "500") int limit) {
+        try {
+            if (since == null || since.isBlank()) {
+                Map<String, Object> response = new HashMap<>();
+                response.put("changes", List.of());
+                response.put("nextToken", linkChangeLogService.currentToken());
+                response.put("hasMore", false);
+                return ResponseEntity.ok(response);
+            }
+            return ResponseEntity.ok(linkChangeLogService.getChangesSince(since, Math.max(1, Math.min(limit, 1000))));
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        } catch (IllegalStateException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.GONE).body(error);
+        }
+    }
+    
+    @GetMapping("/facets")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<?> getFacetCounts(
+            @RequestParam(required = false) String market,
+            @RequestParam(required = false) String brand,
+            @RequestParam(required = false) String status) {
+        try {
+            return ResponseEntity.ok(linkService.getFacetCounts(market, brand, status));
+        } catch (IllegalStateException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
+        }
+    }
+    
+    @GetMapping("/health")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<Map<String, Object>> getHealthSummary() {
+        return ResponseEntity.ok(linkHealthService.getSummary());
+    }
+    
+    /**
+     * Links whose URL failed its latest check (outcome BROKEN or UNREACHABLE, default both).
+     */
+    @GetMapping("/health/problems")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<?> getHealthProblems(
+            @RequestParam(required = false) String outcome,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        if (outcome != null && !outcome.equalsIgnoreCase(LinkHealthChecker.Outcome.BROKEN.name()) &&
+            !outcome.equalsIgnoreCase(LinkHealthChecker.Outcome.UNREACHABLE.name())) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Outcome must be BROKEN or UNREACHABLE");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+        return ResponseEntity.ok(linkHealthService.getProblems(outcome, PageRequest.of(page, Math.min(size, 100))));
+    }
+    
+    @PostMapping("/health/check")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<Map<String, Object>> checkLinkHealth() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("started", linkHealthService.startBatch());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+    
+    @GetMapping("/{id}/health")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<?> getLinkHealth(@PathVariable Long id) {
+        return linkHealthService.getHealth(id)
+            .<ResponseEntity<?>>map(ResponseEntity::ok)
+            .orElseGet(() -> {
+                Map<String, String> error = new HashMap<>();
+                error.put("error", "Link has not been checked yet");
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+            });
+    }
+    
+    /**
+     * URL history of a link, newest version first.
+     */
+    @GetMapping("/{id}/versions")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<?> getLinkVersions(@PathVariable Long id) {
+        if (linkService.getLinkById(id).isEmpty()) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Link not found");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        }
+        return ResponseEntity.ok(linkVersionService.getHistory(id));
     }
     
     @GetMapping("/{id}")
@@ -57,8 +189,9 @@ public class LinkController {
     }
     
     @GetMapping("/reference/{referenceCode}")
-    public ResponseEntity<?> getLinkByReferenceCode(@PathVariable String referenceCode) {
-        Optional<Link> link = linkService.getLinkByReferenceCode(referenceCode);
+    public ResponseEntity<?> getLinkByReferenceCode(@PathVariable String referenceCode,
+                                                    @RequestParam(required = false) String market) {
+        Optional<Link> link = linkService.resolveReferenceCode(referenceCode, MarketScope.normalize(market));
         if (link.isPresent()) {
             return ResponseEntity.ok(link.get());
         } else {
@@ -73,7 +206,9 @@ public class LinkController {
     public ResponseEntity<?> searchLinks(
             @RequestParam String q,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String market,
+            @RequestParam(required = false) String brand) {
         
         // Limit size for better performance
         if (size > 50) {
@@ -88,9 +223,23 @@ public class LinkController {
         }
         
         Pageable pageable = PageRequest.of(page, size, Sort.by("referenceCode").ascending());
-        Page<Link> links = linkService.searchLinks(q, pageable);
+        Page<Link> links = linkService.searchLinks(q, market, brand, pageable);
         
-        return ResponseEntity.ok(links);
+        return ResponseEntity.ok(LinkPage.of(links));
+    }
+    
+    @GetMapping("/search/facets")
+    public ResponseEntity<?> getSearchFacetCounts(
+            @RequestParam String q,
+            @RequestParam(required = false) String market,
+            @RequestParam(required = false) String brand) {
+        try {
+            return ResponseEntity.ok(linkService.getSearchFacetCounts(q, market, brand));
+        } catch (IllegalStateException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
+        }
     }
     
     @PostMapping
@@ -106,6 +255,29 @@ public class LinkController {
         }
     }
     
+    /**
+     * Applies arrays of creates, updates (with id) and deletes (ids) in chunked batch transactions.
+     * Always 200 with per-item results unless the request as a whole is rejected.
+     */
+    @PostMapping("/bulk")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<?> bulkUpdateLinks(@RequestBody BulkLinkRequest request, Authentication authentication) {
+        try {
+            List<BulkLinkResult> results = bulkLinkService.apply(request, authentication.getName());
+            long failed = results.stream().filter(result -> !result.isSuccess()).count();
+            Map<String, Object> response = new HashMap<>();
+            response.put("total", results.size());
+            response.put("succeeded", results.size() - failed);
+            response.put("failed", failed);
+            response.put("results", results);
+            return ResponseEntity.ok(response);
+        } catch (RuntimeException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
+    
     @PutMapping("/{id}")
     public ResponseEntity<?> updateLink(@PathVariable Long id, @Valid @RequestBody LinkRequest linkRequest) {
         try {
@@ -118,6 +290,39 @@ public class LinkController {
         }
     }
     
+    /**
+     * Archived (soft-deleted) links still in the links table, most recently archived first.
+     */
+    @GetMapping("/archived")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<LinkPage<AdminLink>> getArchivedLinks(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(LinkPage.of(linkService.getArchivedLinks(PageRequest.of(page, size)), AdminLink::of));
+    }
+    
+    @GetMapping("/archived/stats")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<Map<String, Object>> getArchiveStatistics() {
+        return ResponseEntity.ok(linkArchiveService.getStatistics());
+    }
+    
+    @PostMapping("/{id}/restore")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<?> restoreLink(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(linkService.restoreLink(id));
+        } catch (RuntimeException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            HttpStatus status = "Archived link not found".equals(e.getMessage()) ? HttpStatus.NOT_FOUND : HttpStatus.CONFLICT;
+            return ResponseEntity.status(status).body(error);
+        }
+    }
+    
+    /**
+     * Archives the link (soft delete); see restoreLink.
+     */
     @DeleteMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
     public ResponseEntity<?> deleteLink(@PathVariable Long id) {
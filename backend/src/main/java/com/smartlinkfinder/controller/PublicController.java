@@ -1,7 +1,8 @@
 package com.smartlinkfinder.controller;
 
 import com.smartlinkfinder.entity.Link;
-import com.smartlinkfinder.repository.LinkRepository;
+import com.smartlinkfinder.security.MarketScope;
+import com.smartlinkfinder.service.LinkService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -16,11 +17,12 @@ import java.util.Optional;
 public class PublicController {
     
     @Autowired
-    private LinkRepository linkRepository;
+    private LinkService linkService;
     
     @GetMapping("/link/{referenceCode}")
-    public ResponseEntity<?> getLinkByReference(@PathVariable String referenceCode) {
-        Optional<Link> link = linkRepository.findByReferenceCodeIgnoreCase(referenceCode);
+    public ResponseEntity<?> getLinkByReference(@PathVariable String referenceCode,
+                                                @RequestParam(required = false) String market) {
+        Optional<Link> link = resolve(referenceCode, MarketScope.normalize(market));
         if (link.isPresent()) {
             return ResponseEntity.ok(link.get());
         } else {
@@ -30,4 +32,22 @@ public class PublicController {
             return ResponseEntity.status(404).body(error);
         }
     }
+    
+    /**
+     * "CODE@3" pins version 3 of CODE; anything else is a plain reference code resolving to the
+     * current version. With a market only that market's catalog shard is consulted.
+     */
+    private Optional<Link> resolve(String referenceCode, String market) {
+        int at = referenceCode.lastIndexOf('@');
+        if (at <= 0 || at == referenceCode.length() - 1) {
+            return linkService.resolveReferenceCode(referenceCode, market);
+        }
+        int version;
+        try {
+            version = Integer.parseInt(referenceCode.substring(at + 1));
+        } catch (NumberFormatException e) {
+            return linkService.resolveReferenceCode(referenceCode, market);
+        }
+        return linkService.resolveReferenceCode(referenceCode.substring(0, at), market, version);
+    }
 }
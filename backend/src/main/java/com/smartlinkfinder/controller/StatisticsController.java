@@ -0,0 +1,62 @@
+package com.smartlinkfinder.controller;
+
+import com.smartlinkfinder.admission.AdmissionControlFilter;
+import com.smartlinkfinder.admission.RateLimitFilter;
+import com.smartlinkfinder.audit.AuditLog;
+import com.smartlinkfinder.catalog.CompactLinkCatalog;
+import com.smartlinkfinder.compression.ResponseCompressionFilter;
+import com.smartlinkfinder.service.LinkValidityService;
+import com.smartlinkfinder.service.LinkVersionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Operational statistics of the request filters, the link catalog and the background services.
+ * They describe traffic, limits and internal queues, so unlike /health they are SUPER_ADMIN only.
+ */
+@RestController
+@RequestMapping("/statistics")
+public class StatisticsController {
+
+    @Autowired
+    private AdmissionControlFilter admissionControlFilter;
+
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
+    @Autowired
+    private CompactLinkCatalog linkCatalog;
+
+    @Autowired
+    private ResponseCompressionFilter responseCompressionFilter;
+
+    @Autowired
+    private AuditLog auditLog;
+
+    @Autowired
+    private LinkValidityService linkValidityService;
+
+    @Autowired
+    private LinkVersionService linkVersionService;
+
+    @GetMapping
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    public ResponseEntity<Map<String, Object>> getStatistics() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("admission", admissionControlFilter.getStatistics());
+        response.put("rateLimit", rateLimitFilter.getStatistics());
+        response.put("compression", responseCompressionFilter.getStatistics());
+        response.put("catalog", linkCatalog.getStatistics());
+        response.put("audit", auditLog.getStatistics());
+        response.put("validity", linkValidityService.getStatistics());
+        response.put("versions", linkVersionService.getStatistics());
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,27 @@
+package com.smartlinkfinder.dto;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import com.smartlinkfinder.entity.Link;
+
+/**
+ * A link as the admin listings show it: every field of the link plus the username of the admin
+ * who created it. Public routes serialize Link itself, which never carries the creator.
+ */
+public class AdminLink {
+    @JsonUnwrapped
+    private final Link link;
+    private final String addedBy;
+
+    public AdminLink(Link link, String addedBy) {
+        this.link = link;
+        this.addedBy = addedBy;
+    }
+
+    public static AdminLink of(Link link) {
+        return new AdminLink(link, link.getAddedByUsername());
+    }
+
+    public Link getLink() { return link; }
+
+    public String getAddedBy() { return addedBy; }
+}
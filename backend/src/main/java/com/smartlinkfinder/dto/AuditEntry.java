@@ -0,0 +1,55 @@
+package com.smartlinkfinder.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of the audit trail, as returned by GET /audit.
+ */
+public class AuditEntry {
+    private Long id;
+    private LocalDateTime occurredAt;
+    private String actor;
+    private String action;
+    private String targetType;
+    private Long targetId;
+    private String targetKey;
+    private String details;
+
+    public AuditEntry() {}
+
+    public AuditEntry(Long id, LocalDateTime occurredAt, String actor, String action, String targetType,
+                      Long targetId, String targetKey, String details) {
+        this.id = id;
+        this.occurredAt = occurredAt;
+        this.actor = actor;
+        this.action = action;
+        this.targetType = targetType;
+        this.targetId = targetId;
+        this.targetKey = targetKey;
+        this.details = details;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public LocalDateTime getOccurredAt() { return occurredAt; }
+    public void setOccurredAt(LocalDateTime occurredAt) { this.occurredAt = occurredAt; }
+
+    public String getActor() { return actor; }
+    public void setActor(String actor) { this.actor = actor; }
+
+    public String getAction() { return action; }
+    public void setAction(String action) { this.action = action; }
+
+    public String getTargetType() { return targetType; }
+    public void setTargetType(String targetType) { this.targetType = targetType; }
+
+    public Long getTargetId() { return targetId; }
+    public void setTargetId(Long targetId) { this.targetId = targetId; }
+
+    public String getTargetKey() { return targetKey; }
+    public void setTargetKey(String targetKey) { this.targetKey = targetKey; }
+
+    public String getDetails() { return details; }
+    public void setDetails(String details) { this.details = details; }
+}
@@ -5,6 +5,7 @@ public class AuthResponse {
     private String type = "Bearer";
     private String username;
     private String role;
+    private String market;
     
     public AuthResponse() {}
     
@@ -25,4 +26,7 @@ public class AuthResponse {
     
     public String getRole() { return role; }
     public void setRole(String role) { this.role = role; }
+    
+    public String getMarket() { return market; }
+    public void setMarket(String market) { this.market = market; }
 }
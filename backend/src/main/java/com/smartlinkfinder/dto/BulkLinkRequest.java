@@ -0,0 +1,38 @@
+package com.smartlinkfinder.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Body of POST /links/bulk. Items are validated individually, so one invalid item does not
+ * reject the whole request.
+ */
+public class BulkLinkRequest {
+    private List<LinkRequest> create = new ArrayList<>();
+    private List<Update> update = new ArrayList<>();
+    private List<Long> delete = new ArrayList<>();
+    
+    public BulkLinkRequest() {}
+    
+    public List<LinkRequest> getCreate() { return create; }
+    public void setCreate(List<LinkRequest> create) { this.create = create != null ? create : new ArrayList<>(); }
+    
+    public List<Update> getUpdate() { return update; }
+    public void setUpdate(List<Update> update) { this.update = update != null ? update : new ArrayList<>(); }
+    
+    public List<Long> getDelete() { return delete; }
+    public void setDelete(List<Long> delete) { this.delete = delete != null ? delete : new ArrayList<>(); }
+    
+    public int size() {
+        return create.size() + update.size() + delete.size();
+    }
+    
+    public static class Update extends LinkRequest {
+        private Long id;
+        
+        public Update() {}
+        
+        public Long getId() { return id; }
+        public void setId(Long id) { this.id = id; }
+    }
+}
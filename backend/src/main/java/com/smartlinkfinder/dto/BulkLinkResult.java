@@ -0,0 +1,50 @@
+package com.smartlinkfinder.dto;
+
+/**
+ * Outcome of one item of a bulk link request; index is the position in its create/update/delete list.
+ */
+public class BulkLinkResult {
+    private String operation;
+    private int index;
+    private Long id;
+    private String referenceCode;
+    private boolean success;
+    private String error;
+    
+    public BulkLinkResult() {}
+    
+    public static BulkLinkResult success(String operation, int index, Long id, String referenceCode) {
+        BulkLinkResult result = new BulkLinkResult();
+        result.operation = operation;
+        result.index = index;
+        result.id = id;
+        result.referenceCode = referenceCode;
+        result.success = true;
+        return result;
+    }
+    
+    public static BulkLinkResult failure(String operation, int index, Long id, String referenceCode, String error) {
+        BulkLinkResult result = success(operation, index, id, referenceCode);
+        result.success = false;
+        result.error = error;
+        return result;
+    }
+    
+    public String getOperation() { return operation; }
+    public void setOperation(String operation) { this.operation = operation; }
+    
+    public int getIndex() { return index; }
+    public void setIndex(int index) { this.index = index; }
+    
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public String getReferenceCode() { return referenceCode; }
+    public void setReferenceCode(String referenceCode) { this.referenceCode = referenceCode; }
+    
+    public boolean isSuccess() { return success; }
+    public void setSuccess(boolean success) { this.success = success; }
+    
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
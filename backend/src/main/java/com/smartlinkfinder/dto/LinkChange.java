@@ -0,0 +1,34 @@
+package com.smartlinkfinder.dto;
+
+import com.smartlinkfinder.entity.Link;
+
+/**
+ * One entry of GET /links/changes: UPSERT carries the current state of the link, DELETE is a tombstone.
+ */
+public class LinkChange {
+    private String operation;
+    private Long id;
+    private String referenceCode;
+    private Link link;
+    
+    public LinkChange() {}
+    
+    public LinkChange(String operation, Long id, String referenceCode, Link link) {
+        this.operation = operation;
+        this.id = id;
+        this.referenceCode = referenceCode;
+        this.link = link;
+    }
+    
+    public String getOperation() { return operation; }
+    public void setOperation(String operation) { this.operation = operation; }
+    
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public String getReferenceCode() { return referenceCode; }
+    public void setReferenceCode(String referenceCode) { this.referenceCode = referenceCode; }
+    
+    public Link getLink() { return link; }
+    public void setLink(Link link) { this.link = link; }
+}
@@ -0,0 +1,60 @@
+package com.smartlinkfinder.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Latest URL health check of a link, as returned by the /links/health endpoints.
+ */
+public class LinkHealthStatus {
+    private Long linkId;
+    private String referenceCode;
+    private String fullUrl;
+    private String outcome;
+    private Integer httpStatus;
+    private String error;
+    private int consecutiveFailures;
+    private LocalDateTime lastCheckedAt;
+    private LocalDateTime nextCheckAt;
+
+    public LinkHealthStatus() {}
+
+    public LinkHealthStatus(Long linkId, String referenceCode, String fullUrl, String outcome, Integer httpStatus,
+                            String error, int consecutiveFailures, LocalDateTime lastCheckedAt, LocalDateTime nextCheckAt) {
+        this.linkId = linkId;
+        this.referenceCode = referenceCode;
+        this.fullUrl = fullUrl;
+        this.outcome = outcome;
+        this.httpStatus = httpStatus;
+        this.error = error;
+        this.consecutiveFailures = consecutiveFailures;
+        this.lastCheckedAt = lastCheckedAt;
+        this.nextCheckAt = nextCheckAt;
+    }
+
+    public Long getLinkId() { return linkId; }
+    public void setLinkId(Long linkId) { this.linkId = linkId; }
+
+    public String getReferenceCode() { return referenceCode; }
+    public void setReferenceCode(String referenceCode) { this.referenceCode = referenceCode; }
+
+    public String getFullUrl() { return fullUrl; }
+    public void setFullUrl(String fullUrl) { this.fullUrl = fullUrl; }
+
+    public String getOutcome() { return outcome; }
+    public void setOutcome(String outcome) { this.outcome = outcome; }
+
+    public Integer getHttpStatus() { return httpStatus; }
+    public void setHttpStatus(Integer httpStatus) { this.httpStatus = httpStatus; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+
+    public int getConsecutiveFailures() { return consecutiveFailures; }
+    public void setConsecutiveFailures(int consecutiveFailures) { this.consecutiveFailures = consecutiveFailures; }
+
+    public LocalDateTime getLastCheckedAt() { return lastCheckedAt; }
+    public void setLastCheckedAt(LocalDateTime lastCheckedAt) { this.lastCheckedAt = lastCheckedAt; }
+
+    public LocalDateTime getNextCheckAt() { return nextCheckAt; }
+    public void setNextCheckAt(LocalDateTime nextCheckAt) { this.nextCheckAt = nextCheckAt; }
+}
@@ -0,0 +1,53 @@
+package com.smartlinkfinder.dto;
+
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Page envelope of GET /links, /links/archived and /links/search. Carries only the fields clients
+ * read; Spring's Page also serializes pageable, sort and several derived flags on every response.
+ * The content is Link on public routes and AdminLink on admin listings.
+ */
+public class LinkPage<T> {
+    private List<T> content;
+    private int number;
+    private int size;
+    private long totalElements;
+    private int totalPages;
+
+    public LinkPage() {}
+
+    public LinkPage(List<T> content, int number, int size, long totalElements, int totalPages) {
+        this.content = content;
+        this.number = number;
+        this.size = size;
+        this.totalElements = totalElements;
+        this.totalPages = totalPages;
+    }
+
+    public static <T> LinkPage<T> of(Page<T> page) {
+        return new LinkPage<>(page.getContent(), page.getNumber(), page.getSize(), page.getTotalElements(), page.getTotalPages());
+    }
+
+    public static <S, T> LinkPage<T> of(Page<S> page, Function<S, T> mapper) {
+        return new LinkPage<>(page.getContent().stream().map(mapper).toList(), page.getNumber(), page.getSize(),
+            page.getTotalElements(), page.getTotalPages());
+    }
+
+    public List<T> getContent() { return content; }
+    public void setContent(List<T> content) { this.content = content; }
+
+    public int getNumber() { return number; }
+    public void setNumber(int number) { this.number = number; }
+
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+
+    public long getTotalElements() { return totalElements; }
+    public void setTotalElements(long totalElements) { this.totalElements = totalElements; }
+
+    public int getTotalPages() { return totalPages; }
+    public void setTotalPages(int totalPages) { this.totalPages = totalPages; }
+}
@@ -1,8 +1,12 @@
 package com.smartlinkfinder.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
+import java.time.LocalDateTime;
+
 public class LinkRequest {
     @NotBlank(message = "Reference code is required")
     @Size(min = 2, max = 20, message = "Reference code must be between 2 and 20 characters")
@@ -20,6 +24,15 @@ public class LinkRequest {
     
     private String status;
     
+    // Only honoured for admins without a market of their own; scoped admins always write to theirs
+    @Size(max = 32, message = "Market must not exceed 32 characters")
+    private String market;
+    
+    // Optional validity window (ISO local date-times)
+    private LocalDateTime validFrom;
+    
+    private LocalDateTime validUntil;
+    
     public LinkRequest() {}
     
     public String getReferenceCode() { return referenceCode; }
@@ -36,4 +49,19 @@ public class LinkRequest {
     
     public String getStatus() { return status; }
     public void setStatus(String status) { this.status = status; }
+    
+    public String getMarket() { return market; }
+    public void setMarket(String market) { this.market = market; }
+    
+    public LocalDateTime getValidFrom() { return validFrom; }
+    public void setValidFrom(LocalDateTime validFrom) { this.validFrom = validFrom; }
+    
+    public LocalDateTime getValidUntil() { return validUntil; }
+    public void setValidUntil(LocalDateTime validUntil) { this.validUntil = validUntil; }
+    
+    @JsonIgnore
+    @AssertTrue(message = "validUntil must be after validFrom")
+    public boolean isValidityWindowOrdered() {
+        return validFrom == null || validUntil == null || validUntil.isAfter(validFrom);
+    }
 }
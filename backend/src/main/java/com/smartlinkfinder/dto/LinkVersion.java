@@ -0,0 +1,34 @@
+package com.smartlinkfinder.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of a link's URL history, as returned by GET /links/{id}/versions.
+ */
+public class LinkVersion {
+    private Long linkId;
+    private int version;
+    private String fullUrl;
+    private LocalDateTime createdAt;
+
+    public LinkVersion() {}
+
+    public LinkVersion(Long linkId, int version, String fullUrl, LocalDateTime createdAt) {
+        this.linkId = linkId;
+        this.version = version;
+        this.fullUrl = fullUrl;
+        this.createdAt = createdAt;
+    }
+
+    public Long getLinkId() { return linkId; }
+    public void setLinkId(Long linkId) { this.linkId = linkId; }
+
+    public int getVersion() { return version; }
+    public void setVersion(int version) { this.version = version; }
+
+    public String getFullUrl() { return fullUrl; }
+    public void setFullUrl(String fullUrl) { this.fullUrl = fullUrl; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
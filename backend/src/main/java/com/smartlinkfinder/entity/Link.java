@@ -1,21 +1,39 @@
 package com.smartlinkfinder.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.SQLRestriction;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.util.HexFormat;
 
 @Entity
 @Table(name = "links")
+// Archived (soft-deleted) links are invisible to every entity query; only native queries see them
+@SQLRestriction("status <> 'ARCHIVED'")
 public class Link {
+    public static final String STATUS_ACTIVE = "ACTIVE";
+    public static final String STATUS_SCHEDULED = "SCHEDULED";
+    public static final String STATUS_EXPIRED = "EXPIRED";
+    public static final String STATUS_ARCHIVED = "ARCHIVED";
+    public static final String DEFAULT_MARKET = "GLOBAL";
+    
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "links_seq")
+    @SequenceGenerator(name = "links_seq", sequenceName = "links_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Reference code is required")
     @Size(min = 2, max = 20, message = "Reference code must be between 2 and 20 characters")
-    @Column(name = "reference_code", unique = true)
+    // Unique among live links only (partial index, see V8__link_archiving.sql)
+    @Column(name = "reference_code")
     private String referenceCode;
     
     @NotBlank(message = "URL is required")
@@ -29,9 +47,13 @@ public class Link {
     @Column(name = "brand_name", length = 100)
     private String brandName;
     
-    @Column(name = "status", length = 20)
+    @Column(name = "status", length = 20, nullable = false)
     private String status;
     
+    // Tenant dimension; scoped admins only see their own market (see MarketScope)
+    @Column(name = "market", length = 32, nullable = false)
+    private String market;
+    
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "added_by_id")
     @JsonIgnore
@@ -43,10 +65,32 @@ public class Link {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    @Column(name = "archived_at")
+    private LocalDateTime archivedAt;
+    
+    // Validity window, either end open (null); LinkValidityService flips the status at each end
+    @Column(name = "valid_from")
+    private LocalDateTime validFrom;
+    
+    @Column(name = "valid_until")
+    private LocalDateTime validUntil;
+    
+    // Bumped by a trigger whenever full_url changes (see V10__link_versions.sql). Not a generated
+    // property: Hibernate would re-select it after every write and stop batching inserts and updates,
+    // so LinkService reads it back only where the written link is returned.
+    @Column(name = "current_version", insertable = false, updatable = false)
+    private Integer currentVersion;
+    
+    // Hash of the columns an Excel import writes, so re-imports can skip unchanged rows
+    @Column(name = "content_hash", length = 64)
+    @JsonIgnore
+    private String contentHash;
+    
     public Link() {
         this.createdAt = LocalDateTime.now();
         this.updatedAt = LocalDateTime.now();
-        this.status = "ACTIVE";
+        this.status = STATUS_ACTIVE;
+        this.market = DEFAULT_MARKET;
     }
     
     public Link(String referenceCode, String fullUrl, String description, String brandName, String status) {
@@ -55,10 +99,30 @@ public class Link {
         this.description = description;
         this.brandName = brandName;
         this.status = status;
+        this.market = DEFAULT_MARKET;
         this.createdAt = LocalDateTime.now();
         this.updatedAt = LocalDateTime.now();
     }
     
+    @PrePersist
+    @PreUpdate
+    void updateContentHash() {
+        this.contentHash = contentHash(fullUrl, status);
+    }
+    
+    /**
+     * SHA-256 (hex) of full URL and status; must match the expression used in V4__link_content_hash.sql
+     */
+    public static String contentHash(String fullUrl, String status) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            String content = (fullUrl == null ? "" : fullUrl) + "\n" + (status == null ? "" : status);
+            return HexFormat.of().formatHex(digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -78,12 +142,72 @@ public class Link {
     public String getStatus() { return status; }
     public void setStatus(String status) { this.status = status; }
     
+    public String getMarket() { return market; }
+    public void setMarket(String market) { this.market = market; }
+    
     public User getAddedBy() { return addedBy; }
     public void setAddedBy(User addedBy) { this.addedBy = addedBy; }
     
+    /**
+     * Username of the creator if it was fetched with the link (never triggers a lazy load). Not part
+     * of the link's JSON: only the admin listings report it, through AdminLink.
+     */
+    @JsonIgnore
+    public String getAddedByUsername() {
+        return addedBy != null && Hibernate.isInitialized(addedBy) ? addedBy.getUsername() : null;
+    }
+    
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
     
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+    
+    public LocalDateTime getArchivedAt() { return archivedAt; }
+    public void setArchivedAt(LocalDateTime archivedAt) { this.archivedAt = archivedAt; }
+    
+    public LocalDateTime getValidFrom() { return validFrom; }
+    public void setValidFrom(LocalDateTime validFrom) { this.validFrom = validFrom; }
+    
+    public LocalDateTime getValidUntil() { return validUntil; }
+    public void setValidUntil(LocalDateTime validUntil) { this.validUntil = validUntil; }
+    
+    /**
+     * Sets the validity window and the status it implies at the given time
+     */
+    public void applyValidity(LocalDateTime validFrom, LocalDateTime validUntil, LocalDateTime now) {
+        this.validFrom = validFrom;
+        this.validUntil = validUntil;
+        this.status = statusFor(validFrom, validUntil, now);
+    }
+    
+    public static String statusFor(LocalDateTime validFrom, LocalDateTime validUntil, LocalDateTime now) {
+        if (validUntil != null && !validUntil.isAfter(now)) {
+            return STATUS_EXPIRED;
+        }
+        return validFrom != null && validFrom.isAfter(now) ? STATUS_SCHEDULED : STATUS_ACTIVE;
+    }
+    
+    // Version of the URL carried by this object: the current one, or the pinned one for atVersion copies
+    @JsonProperty("version")
+    public Integer getCurrentVersion() { return currentVersion; }
+    public void setCurrentVersion(Integer currentVersion) { this.currentVersion = currentVersion; }
+    
+    /**
+     * Detached copy of this link pointing at one of its earlier URLs, for pinned-version resolution
+     */
+    public Link atVersion(int version, String versionUrl) {
+        Link pinned = new Link(referenceCode, versionUrl, description, brandName, status);
+        pinned.id = id;
+        pinned.market = market;
+        pinned.addedBy = addedBy;
+        pinned.createdAt = createdAt;
+        pinned.updatedAt = updatedAt;
+        pinned.validFrom = validFrom;
+        pinned.validUntil = validUntil;
+        pinned.currentVersion = version;
+        return pinned;
+    }
+    
+    public String getContentHash() { return contentHash; }
 }
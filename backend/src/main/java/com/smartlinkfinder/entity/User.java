@@ -39,7 +39,12 @@ public class User {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
-    @OneToMany(mappedBy = "addedBy", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    // Market an admin is restricted to; null (and every SUPER_ADMIN) means all markets
+    @Column(name = "market", length = 32)
+    private String market;
+    
+    // No cascade: deleting a user reassigns their links in bulk (AuthService.deleteAdmin)
+    @OneToMany(mappedBy = "addedBy", fetch = FetchType.LAZY)
     @JsonIgnore
     private List<Link> links;
     
@@ -83,6 +88,9 @@ public class User {
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
     
+    public String getMarket() { return market; }
+    public void setMarket(String market) { this.market = market; }
+    
     public List<Link> getLinks() { return links; }
     public void setLinks(List<Link> links) { this.links = links; }
 }
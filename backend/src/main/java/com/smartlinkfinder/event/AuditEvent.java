@@ -0,0 +1,80 @@
+package com.smartlinkfinder.event;
+
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDateTime;
+
+/**
+ * An auditable mutation or login, published by the services and written by AuditLog once the
+ * surrounding transaction has committed. The actor is taken from the security context when the
+ * event is created, unless given explicitly.
+ */
+public class AuditEvent {
+
+    public enum Action {
+        LINK_CREATED, LINK_UPDATED, LINK_DELETED, LINK_ARCHIVED, LINK_RESTORED, LINKS_IMPORTED,
+        USER_REGISTERED, ADMIN_DELETED, LOGIN_SUCCEEDED, LOGIN_FAILED
+    }
+
+    public static final String TARGET_LINK = "LINK";
+    public static final String TARGET_USER = "USER";
+
+    private final LocalDateTime occurredAt;
+    private final String actor;
+    private final Action action;
+    private final String targetType;
+    private final Long targetId;
+    private final String targetKey;
+    private final String details;
+
+    public AuditEvent(LocalDateTime occurredAt, String actor, Action action, String targetType, Long targetId,
+                      String targetKey, String details) {
+        this.occurredAt = occurredAt;
+        this.actor = actor;
+        this.action = action;
+        this.targetType = targetType;
+        this.targetId = targetId;
+        this.targetKey = targetKey;
+        this.details = details;
+    }
+
+    public static AuditEvent link(Action action, Long linkId, String referenceCode, String details) {
+        return new AuditEvent(LocalDateTime.now(), currentActor(), action, TARGET_LINK, linkId, referenceCode, details);
+    }
+
+    public static AuditEvent user(Action action, Long userId, String username, String details) {
+        return new AuditEvent(LocalDateTime.now(), currentActor(), action, TARGET_USER, userId, username, details);
+    }
+
+    public static AuditEvent login(String username, boolean succeeded, String details) {
+        return new AuditEvent(LocalDateTime.now(), username == null ? "anonymous" : username, succeeded ? Action.LOGIN_SUCCEEDED : Action.LOGIN_FAILED,
+            TARGET_USER, null, username, details);
+    }
+
+    /**
+     * @return the authenticated username, or "anonymous" outside an authenticated request
+     */
+    public static String currentActor() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken
+                || !authentication.isAuthenticated() || authentication.getName() == null) {
+            return "anonymous";
+        }
+        return authentication.getName();
+    }
+
+    public LocalDateTime getOccurredAt() { return occurredAt; }
+    public String getActor() { return actor; }
+    public Action getAction() { return action; }
+    public String getTargetType() { return targetType; }
+    public Long getTargetId() { return targetId; }
+    public String getTargetKey() { return targetKey; }
+    public String getDetails() { return details; }
+
+    @Override
+    public String toString() {
+        return String.format("AuditEvent{action=%s, actor=%s, target=%s:%s/%s}", action, actor, targetType, targetId, targetKey);
+    }
+}
@@ -0,0 +1,87 @@
+package com.smartlinkfinder.event;
+
+import java.util.List;
+
+/**
+ * Published whenever the link catalog changes, either by a write on this instance
+ * or by a notification received from another instance (remote = true).
+ * Consumers that keep in-memory link data listen for it after commit.
+ */
+public class LinkChangedEvent {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED,
+        // Several links changed, listed by id only (reference codes are not carried)
+        BATCH,
+        // Too many or unknown changes: drop what cannot be caught up from the link_changes log
+        RELOAD
+    }
+
+    // Largest id list a BATCH carries; it has to fit into one NOTIFY payload (8000 bytes)
+    public static final int MAX_BATCH_SIZE = 500;
+
+    private final Type type;
+    private final Long linkId;
+    private final String referenceCode;
+    private final String previousReferenceCode;
+    private final List<Long> linkIds;
+    private final boolean remote;
+
+    public LinkChangedEvent(Type type, Long linkId, String referenceCode, String previousReferenceCode, boolean remote) {
+        this(type, linkId, referenceCode, previousReferenceCode, linkId == null ? List.of() : List.of(linkId), remote);
+    }
+
+    private LinkChangedEvent(Type type, Long linkId, String referenceCode, String previousReferenceCode,
+                             List<Long> linkIds, boolean remote) {
+        this.type = type;
+        this.linkId = linkId;
+        this.referenceCode = referenceCode;
+        this.previousReferenceCode = previousReferenceCode;
+        this.linkIds = linkIds;
+        this.remote = remote;
+    }
+
+    public static LinkChangedEvent created(Long linkId, String referenceCode) {
+        return new LinkChangedEvent(Type.CREATED, linkId, referenceCode, null, false);
+    }
+
+    public static LinkChangedEvent updated(Long linkId, String referenceCode, String previousReferenceCode) {
+        return new LinkChangedEvent(Type.UPDATED, linkId, referenceCode, previousReferenceCode, false);
+    }
+
+    public static LinkChangedEvent deleted(Long linkId, String referenceCode) {
+        return new LinkChangedEvent(Type.DELETED, linkId, referenceCode, null, false);
+    }
+
+    public static LinkChangedEvent reload() {
+        return new LinkChangedEvent(Type.RELOAD, null, null, null, false);
+    }
+
+    /**
+     * One event for a set of changed links: a BATCH of their ids, or a RELOAD above MAX_BATCH_SIZE
+     */
+    public static LinkChangedEvent batch(List<Long> linkIds) {
+        return linkIds.size() > MAX_BATCH_SIZE ? reload() : batch(linkIds, false);
+    }
+
+    public static LinkChangedEvent batch(List<Long> linkIds, boolean remote) {
+        return new LinkChangedEvent(Type.BATCH, null, null, null, List.copyOf(linkIds), remote);
+    }
+
+    public Type getType() { return type; }
+    public Long getLinkId() { return linkId; }
+    public String getReferenceCode() { return referenceCode; }
+    public String getPreviousReferenceCode() { return previousReferenceCode; }
+    // The changed link of a single-link event, or all of a BATCH; empty for RELOAD
+    public List<Long> getLinkIds() { return linkIds; }
+    public boolean isRemote() { return remote; }
+
+    @Override
+    public String toString() {
+        if (type == Type.BATCH) {
+            return String.format("LinkChangedEvent{type=BATCH, ids=%d, remote=%s}", linkIds.size(), remote);
+        }
+        return String.format("LinkChangedEvent{type=%s, id=%s, code=%s, previous=%s, remote=%s}",
+            type, linkId, referenceCode, previousReferenceCode, remote);
+    }
+}
@@ -0,0 +1,242 @@
+package com.smartlinkfinder.health;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Non-blocking URL checker on java.net.http.HttpClient.
+ *
+ * Sends a conditional HEAD (If-None-Match / If-Modified-Since from the previous check) and falls
+ * back to a one-byte ranged GET for servers that reject HEAD. At most perHostConcurrency requests
+ * per host are in flight, the rest wait in a per-host queue without holding a thread. Knows nothing
+ * about Spring or the database, so it can be pointed at a local stub server.
+ */
+public class LinkHealthChecker {
+
+    public enum Outcome { OK, BROKEN, UNREACHABLE }
+
+    private final HttpClient client;
+    private final int perHostConcurrency;
+    private final Duration requestTimeout;
+    private final Map<String, HostLane> lanes = new ConcurrentHashMap<>();
+
+    public LinkHealthChecker(HttpClient client, int perHostConcurrency, Duration requestTimeout) {
+        if (perHostConcurrency < 1) {
+            throw new IllegalArgumentException("perHostConcurrency must be at least 1");
+        }
+        this.client = client;
+        this.perHostConcurrency = perHostConcurrency;
+        this.requestTimeout = requestTimeout;
+    }
+
+    /**
+     * Client whose I/O and callbacks run on the given executor instead of the common pool.
+     */
+    public static HttpClient newHttpClient(Executor executor, Duration connectTimeout) {
+        return HttpClient.newBuilder()
+            .executor(executor)
+            .connectTimeout(connectTimeout)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+    }
+
+    /**
+     * Never completes exceptionally; failures are reported as UNREACHABLE or BROKEN results.
+     */
+    public CompletableFuture<Result> check(Target target) {
+        URI uri;
+        try {
+            uri = URI.create(target.getUrl().trim());
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(Result.failed(target, Outcome.BROKEN, null, "Invalid URL"));
+        }
+        String scheme = uri.getScheme() == null ? "" : uri.getScheme().toLowerCase(Locale.ROOT);
+        if (!(scheme.equals("http") || scheme.equals("https")) || uri.getHost() == null) {
+            return CompletableFuture.completedFuture(Result.failed(target, Outcome.BROKEN, null, "Not an http(s) URL"));
+        }
+
+        CompletableFuture<Result> result = new CompletableFuture<>();
+        HostLane lane = lanes.computeIfAbsent(uri.getHost().toLowerCase(Locale.ROOT), host -> new HostLane());
+        lane.submit(() -> send(uri, target)
+            .whenComplete((checked, error) -> {
+                lane.release();
+                result.complete(checked);
+            }));
+        return result;
+    }
+
+    private CompletableFuture<Result> send(URI uri, Target target) {
+        HttpRequest.Builder head = HttpRequest.newBuilder(uri)
+            .method("HEAD", HttpRequest.BodyPublishers.noBody())
+            .timeout(requestTimeout);
+        if (target.getEtag() != null) {
+            head.header("If-None-Match", target.getEtag());
+        }
+        if (target.getLastModified() != null) {
+            head.header("If-Modified-Since", target.getLastModified());
+        }
+        try {
+            return client.sendAsync(head.build(), HttpResponse.BodyHandlers.discarding())
+                .thenCompose(response -> {
+                    if (response.statusCode() != 405 && response.statusCode() != 501) {
+                        return CompletableFuture.completedFuture(response);
+                    }
+                    HttpRequest get = HttpRequest.newBuilder(uri)
+                        .GET()
+                        .header("Range", "bytes=0-0")
+                        .timeout(requestTimeout)
+                        .build();
+                    return client.sendAsync(get, HttpResponse.BodyHandlers.discarding());
+                })
+                .handle((response, error) -> error == null ? toResult(target, response) : toResult(target, error));
+        } catch (RuntimeException e) {
+            // Rejected header values or a shut down client
+            return CompletableFuture.completedFuture(toResult(target, e));
+        }
+    }
+
+    private static Result toResult(Target target, HttpResponse<?> response) {
+        int status = response.statusCode();
+        if (status == 304) {
+            return new Result(target.getLinkId(), target.getUrl(), Outcome.OK, status, null,
+                target.getEtag(), target.getLastModified(), null);
+        }
+        if (status >= 200 && status < 300) {
+            return new Result(target.getLinkId(), target.getUrl(), Outcome.OK, status, null,
+                response.headers().firstValue("ETag").orElse(null),
+                response.headers().firstValue("Last-Modified").orElse(null), null);
+        }
+        if (status == 429 || status >= 500) {
+            return new Result(target.getLinkId(), target.getUrl(), Outcome.UNREACHABLE, status, "HTTP " + status,
+                target.getEtag(), target.getLastModified(), retryAfter(response));
+        }
+        return Result.failed(target, Outcome.BROKEN, status, "HTTP " + status);
+    }
+
+    private static Result toResult(Target target, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        String message = cause.getMessage() == null ? cause.getClass().getSimpleName() : cause.getMessage();
+        return new Result(target.getLinkId(), target.getUrl(), Outcome.UNREACHABLE, null, message,
+            target.getEtag(), target.getLastModified(), null);
+    }
+
+    private static Duration retryAfter(HttpResponse<?> response) {
+        String value = response.headers().firstValue("Retry-After").orElse(null);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            try {
+                Duration wait = Duration.between(ZonedDateTime.now(),
+                    ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME));
+                return wait.isNegative() ? null : wait;
+            } catch (RuntimeException ignored) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Per-host admission: runs a task when a slot is free, otherwise queues it for the next release.
+     */
+    private class HostLane {
+        private final ArrayDeque<Runnable> waiting = new ArrayDeque<>();
+        private int active;
+
+        void submit(Runnable task) {
+            synchronized (this) {
+                if (active >= perHostConcurrency) {
+                    waiting.add(task);
+                    return;
+                }
+                active++;
+            }
+            task.run();
+        }
+
+        void release() {
+            Runnable next;
+            synchronized (this) {
+                next = waiting.poll();
+                if (next == null) {
+                    active--;
+                }
+            }
+            if (next != null) {
+                next.run();
+            }
+        }
+    }
+
+    /**
+     * A link to check, with the validators returned by its previous check (may be null)
+     */
+    public static class Target {
+        private final long linkId;
+        private final String url;
+        private final String etag;
+        private final String lastModified;
+
+        public Target(long linkId, String url, String etag, String lastModified) {
+            this.linkId = linkId;
+            this.url = url;
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+
+        public long getLinkId() { return linkId; }
+        public String getUrl() { return url; }
+        public String getEtag() { return etag; }
+        public String getLastModified() { return lastModified; }
+    }
+
+    public static class Result {
+        private final long linkId;
+        private final String url;
+        private final Outcome outcome;
+        private final Integer httpStatus;
+        private final String error;
+        private final String etag;
+        private final String lastModified;
+        private final Duration retryAfter;
+
+        public Result(long linkId, String url, Outcome outcome, Integer httpStatus, String error,
+                      String etag, String lastModified, Duration retryAfter) {
+            this.linkId = linkId;
+            this.url = url;
+            this.outcome = outcome;
+            this.httpStatus = httpStatus;
+            this.error = error;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.retryAfter = retryAfter;
+        }
+
+        static Result failed(Target target, Outcome outcome, Integer httpStatus, String error) {
+            return new Result(target.getLinkId(), target.getUrl(), outcome, httpStatus, error, null, null, null);
+        }
+
+        public long getLinkId() { return linkId; }
+        public String getUrl() { return url; }
+        public Outcome getOutcome() { return outcome; }
+        public Integer getHttpStatus() { return httpStatus; }
+        public String getError() { return error; }
+        public String getEtag() { return etag; }
+        public String getLastModified() { return lastModified; }
+        public Duration getRetryAfter() { return retryAfter; }
+    }
+}
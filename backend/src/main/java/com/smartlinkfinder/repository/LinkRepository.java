@@ -3,23 +3,103 @@ package com.smartlinkfinder.repository;
 import com.smartlinkfinder.entity.Link;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface LinkRepository extends JpaRepository<Link, Long> {
-    Optional<Link> findByReferenceCodeIgnoreCase(String referenceCode);
+    // Queries behind the admin views fetch the creator in the same statement, so reporting addedBy
+    // (AdminLink) never costs a query per link. Public lookups and search never report it.
+    @Override
+    @EntityGraph(attributePaths = "addedBy")
+    Optional<Link> findById(Long id);
     
-    @Query("SELECT l FROM Link l WHERE " +
+    @Override
+    @EntityGraph(attributePaths = "addedBy")
+    List<Link> findAllById(Iterable<Long> ids);
+    
+    @Override
+    @EntityGraph(attributePaths = "addedBy")
+    Page<Link> findAll(Pageable pageable);
+    
+    // Explicit LOWER(...) so both lookups use the functional index on lower(reference_code);
+    // derived IgnoreCase queries compare with UPPER(...)
+    @Query("SELECT l FROM Link l WHERE LOWER(l.referenceCode) = LOWER(:referenceCode)")
+    Optional<Link> findByReferenceCodeIgnoreCase(@Param("referenceCode") String referenceCode);
+    
+    @Query("SELECT l FROM Link l WHERE (" +
+           "LOWER(l.referenceCode) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+           "LOWER(l.description) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+           "LOWER(l.brandName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+           "LOWER(l.fullUrl) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) AND " +
+           "(:market IS NULL OR l.market = :market) AND " +
+           "(:brand IS NULL OR l.brandName = :brand) AND (:status IS NULL OR l.status = :status)")
+    Page<Link> findBySearchTermAndFacets(@Param("searchTerm") String searchTerm, @Param("market") String market,
+                                         @Param("brand") String brand, @Param("status") String status,
+                                         Pageable pageable);
+    
+    @Query("SELECT l.id FROM Link l WHERE " +
            "LOWER(l.referenceCode) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
            "LOWER(l.description) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
            "LOWER(l.brandName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
            "LOWER(l.fullUrl) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
-    Page<Link> findBySearchTerm(@Param("searchTerm") String searchTerm, Pageable pageable);
+    List<Long> findIdsBySearchTerm(@Param("searchTerm") String searchTerm, Pageable pageable);
+    
+    @Query("SELECT l FROM Link l WHERE LOWER(l.referenceCode) IN :codes")
+    List<Link> findByLowerReferenceCodeIn(@Param("codes") Collection<String> codes);
+    
+    @Query("SELECT l FROM Link l WHERE (:market IS NULL OR l.market = :market) AND " +
+           "(:brand IS NULL OR l.brandName = :brand) AND (:status IS NULL OR l.status = :status)")
+    @EntityGraph(attributePaths = "addedBy")
+    Page<Link> findByFacets(@Param("market") String market, @Param("brand") String brand,
+                            @Param("status") String status, Pageable pageable);
+    
+    @Query("SELECT COUNT(l) > 0 FROM Link l WHERE LOWER(l.referenceCode) = LOWER(:referenceCode)")
+    boolean existsByReferenceCodeIgnoreCase(@Param("referenceCode") String referenceCode);
+    
+    // Trigger-maintained, so only the database knows it after a write
+    @Query(value = "SELECT current_version FROM links WHERE id = :id", nativeQuery = true)
+    Integer findCurrentVersion(@Param("id") Long id);
+    
+    // Soft delete; the rows stay in links (outside every live index) until LinkArchiveService
+    // moves them to links_archive
+    @Modifying
+    @Query("UPDATE Link l SET l.status = 'ARCHIVED', l.archivedAt = :now, l.updatedAt = :now " +
+           "WHERE l.id IN :ids AND l.status <> 'ARCHIVED'")
+    int archiveAllById(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+    
+    String RESTORED_STATUS = "CASE WHEN valid_until <= :now THEN 'EXPIRED' " +
+                             "WHEN valid_from > :now THEN 'SCHEDULED' ELSE 'ACTIVE' END";
+    
+    // Native: archived rows are hidden from entity queries. The status is recomputed from the validity
+    // window as in Link.statusFor, and content_hash with it as in Link.contentHash
+    @Modifying
+    @Query(value = "UPDATE links SET status = " + RESTORED_STATUS + ", " +
+                   "content_hash = encode(sha256(convert_to(COALESCE(full_url, '') || E'\\n' || " + RESTORED_STATUS + ", 'UTF8')), 'hex'), " +
+                   "archived_at = NULL, updated_at = now() " +
+                   "WHERE id = :id AND status = 'ARCHIVED'", nativeQuery = true)
+    int restoreArchived(@Param("id") Long id, @Param("now") LocalDateTime now);
+    
+    @Query(value = "SELECT * FROM links WHERE status = 'ARCHIVED' AND (CAST(:market AS varchar) IS NULL OR market = :market) " +
+                   "ORDER BY archived_at DESC, id DESC",
+           countQuery = "SELECT count(*) FROM links WHERE status = 'ARCHIVED' " +
+                        "AND (CAST(:market AS varchar) IS NULL OR market = :market)", nativeQuery = true)
+    Page<Link> findArchived(@Param("market") String market, Pageable pageable);
     
-    boolean existsByReferenceCodeIgnoreCase(String referenceCode);
+    // Set-based reassignment, used instead of cascading through a user's links one entity at a time.
+    // Native so that it also covers archived rows, which still reference the user until they are
+    // moved to links_archive; an entity UPDATE would skip them (@SQLRestriction) and the user's
+    // deletion would then fail on the foreign key.
+    @Modifying
+    @Query(value = "UPDATE links SET added_by_id = :to WHERE added_by_id = :from", nativeQuery = true)
+    int reassignAddedBy(@Param("from") Long fromId, @Param("to") Long toId);
 }
@@ -3,13 +3,15 @@ package com.smartlinkfinder.security;
 import com.smartlinkfinder.entity.User;
 import com.smartlinkfinder.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.List;
 
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
@@ -24,11 +26,18 @@ public class CustomUserDetailsService implements UserDetailsService {
         
         // Create authorities with proper role prefix
         String role = "ROLE_" + user.getRole().name();
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        authorities.add(new SimpleGrantedAuthority(role));
+        // Market scope; a SUPER_ADMIN always sees every market
+        String market = MarketScope.normalize(user.getMarket());
+        if (market != null && user.getRole() != User.Role.SUPER_ADMIN) {
+            authorities.add(new SimpleGrantedAuthority(MarketScope.AUTHORITY_PREFIX + market));
+        }
         
         return org.springframework.security.core.userdetails.User.builder()
                 .username(user.getUsername())
                 .password(user.getPassword())
-                .authorities(Collections.singletonList(new SimpleGrantedAuthority(role)))
+                .authorities(authorities)
                 .build();
     }
 }
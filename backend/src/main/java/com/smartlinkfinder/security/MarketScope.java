@@ -0,0 +1,59 @@
+package com.smartlinkfinder.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Locale;
+
+/**
+ * Market (tenant) scope of the current request.
+ *
+ * An admin with a market carries a MARKET_<code> authority (see CustomUserDetailsService) and is
+ * restricted to that market's links. Anonymous callers, SUPER_ADMINs and admins without a market
+ * are unscoped and may pick a market per request.
+ *
+ * The scope is only applied on authenticated routes. Public routes (PublicRoutes) take the
+ * requested market as is: a caller can always leave the token out, so a scope there would not
+ * restrict anything.
+ */
+public final class MarketScope {
+
+    public static final String AUTHORITY_PREFIX = "MARKET_";
+
+    private MarketScope() {}
+
+    /**
+     * @return the caller's market, or null when the caller is unscoped
+     */
+    public static String current() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            return null;
+        }
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            String name = authority.getAuthority();
+            if (name != null && name.startsWith(AUTHORITY_PREFIX)) {
+                return name.substring(AUTHORITY_PREFIX.length());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The caller's own market if scoped, otherwise the requested one (null = all markets)
+     */
+    public static String resolve(String requested) {
+        String scope = current();
+        return scope != null ? scope : normalize(requested);
+    }
+
+    public static boolean allows(String market) {
+        String scope = current();
+        return scope == null || scope.equals(market);
+    }
+
+    public static String normalize(String market) {
+        return market == null || market.isBlank() ? null : market.trim().toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,84 @@
+package com.smartlinkfinder.security;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Endpoints that are open without authentication. SecurityConfig permits exactly these patterns,
+ * and JwtAuthenticationFilter uses the same list to skip token handling, so the two cannot drift.
+ * None of them depends on the caller, so a token sent with them is never parsed and never costs a
+ * user lookup.
+ *
+ * The patterns are compiled once into exact paths and prefixes, matched against the servlet path
+ * (the request URI without the /api context path), so the check is a set lookup plus a few
+ * startsWith calls instead of a pattern-matcher walk per request.
+ */
+public final class PublicRoutes {
+
+    /**
+     * Login, bootstrap, health checks, the static pages (which log in against the API themselves),
+     * the public resolver, reference lookup and search (neither market-scoped, see MarketScope)
+     * and API docs.
+     */
+    public static final String[] ANONYMOUS = {
+        "/auth/login",
+        "/auth/register-super-admin",
+        "/health",
+        "/health/**",
+        "/index.html",
+        "/admin-side-gsk.html",
+        "/admin-management.html",
+        "/public/**",
+        "/links/reference/**",
+        "/links/search/**",
+        "/swagger-ui/**",
+        "/v3/api-docs/**"
+    };
+
+    private static final Matcher ANONYMOUS_MATCHER = new Matcher(ANONYMOUS);
+
+    private PublicRoutes() {}
+
+    public static boolean isAnonymous(String servletPath) {
+        return ANONYMOUS_MATCHER.matches(servletPath);
+    }
+
+    /**
+     * Exact paths plus "/x/**" patterns, which like Spring's path patterns also match "/x" itself.
+     */
+    private static final class Matcher {
+        private final Set<String> exact = new HashSet<>();
+        private final String[] prefixes;
+
+        Matcher(String[] patterns) {
+            List<String> prefixList = new ArrayList<>();
+            for (String pattern : patterns) {
+                if (pattern.endsWith("/**")) {
+                    String base = pattern.substring(0, pattern.length() - 3);
+                    exact.add(base);
+                    prefixList.add(base + "/");
+                } else {
+                    exact.add(pattern);
+                }
+            }
+            this.prefixes = prefixList.toArray(new String[0]);
+        }
+
+        boolean matches(String path) {
+            if (path == null) {
+                return false;
+            }
+            if (exact.contains(path)) {
+                return true;
+            }
+            for (String prefix : prefixes) {
+                if (path.startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
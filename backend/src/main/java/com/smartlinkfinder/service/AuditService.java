@@ -0,0 +1,83 @@
+package com.smartlinkfinder.service;
+
+import com.smartlinkfinder.dto.AuditEntry;
+import com.smartlinkfinder.event.AuditEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Read side of the audit trail written by AuditLog.
+ */
+@Service
+public class AuditService {
+
+    private static final RowMapper<AuditEntry> ENTRY_MAPPER = (resultSet, rowNum) -> new AuditEntry(
+        resultSet.getLong(1), resultSet.getTimestamp(2).toLocalDateTime(), resultSet.getString(3),
+        resultSet.getString(4), resultSet.getString(5), (Long) resultSet.getObject(6), resultSet.getString(7),
+        resultSet.getString(8));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Newest first; every filter is optional.
+     *
+     * @throws IllegalArgumentException for an unknown action
+     */
+    @Transactional(readOnly = true)
+    public Page<AuditEntry> search(String actor, String action, String targetType, Long targetId,
+                                   LocalDateTime from, LocalDateTime to, Pageable pageable) {
+        StringBuilder where = new StringBuilder(" WHERE TRUE");
+        List<Object> args = new ArrayList<>();
+        if (actor != null && !actor.isBlank()) {
+            where.append(" AND actor = ?");
+            args.add(actor);
+        }
+        if (action != null && !action.isBlank()) {
+            where.append(" AND action = ?");
+            try {
+                args.add(AuditEvent.Action.valueOf(action.toUpperCase(Locale.ROOT)).name());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown audit action " + action);
+            }
+        }
+        if (targetType != null && !targetType.isBlank()) {
+            where.append(" AND target_type = ?");
+            args.add(targetType.toUpperCase(Locale.ROOT));
+        }
+        if (targetId != null) {
+            where.append(" AND target_id = ?");
+            args.add(targetId);
+        }
+        if (from != null) {
+            where.append(" AND occurred_at >= ?");
+            args.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            where.append(" AND occurred_at < ?");
+            args.add(Timestamp.valueOf(to));
+        }
+
+        Long total = jdbcTemplate.queryForObject("SELECT count(*) FROM audit_log" + where, Long.class, args.toArray());
+        List<Object> pageArgs = new ArrayList<>(args);
+        pageArgs.add(pageable.getPageSize());
+        pageArgs.add(pageable.getOffset());
+        List<AuditEntry> content = jdbcTemplate.query(
+            "SELECT id, occurred_at, actor, action, target_type, target_id, target_key, details FROM audit_log" +
+            where + " ORDER BY occurred_at DESC, id DESC LIMIT ? OFFSET ?",
+            ENTRY_MAPPER, pageArgs.toArray());
+        return new PageImpl<>(content, pageable, total == null ? 0 : total);
+    }
+}
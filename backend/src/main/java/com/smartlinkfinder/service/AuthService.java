@@ -3,12 +3,18 @@ package com.smartlinkfinder.service;
 import com.smartlinkfinder.dto.AuthRequest;
 import com.smartlinkfinder.dto.AuthResponse;
 import com.smartlinkfinder.entity.User;
+import com.smartlinkfinder.event.AuditEvent;
+import com.smartlinkfinder.event.LinkChangedEvent;
+import com.smartlinkfinder.repository.LinkRepository;
 import com.smartlinkfinder.repository.UserRepository;
 import com.smartlinkfinder.security.JwtUtil;
+import com.smartlinkfinder.security.MarketScope;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -18,25 +24,40 @@ public class AuthService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private LinkRepository linkRepository;
+    
     @Autowired
     private PasswordEncoder passwordEncoder;
     
     @Autowired
     private JwtUtil jwtUtil;
     
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     public AuthResponse authenticate(AuthRequest authRequest) {
-        User user = userRepository.findByUsername(authRequest.getUsername())
-            .orElseThrow(() -> new RuntimeException("User not found"));
+        User user = userRepository.findByUsername(authRequest.getUsername()).orElse(null);
+        if (user == null) {
+            eventPublisher.publishEvent(AuditEvent.login(authRequest.getUsername(), false, "unknown user"));
+            throw new RuntimeException("User not found");
+        }
         
         // Verify password
         if (!passwordEncoder.matches(authRequest.getPassword(), user.getPassword())) {
+            eventPublisher.publishEvent(AuditEvent.login(user.getUsername(), false, "invalid password"));
             throw new RuntimeException("Invalid password");
         }
+        eventPublisher.publishEvent(AuditEvent.login(user.getUsername(), true, "role=" + user.getRole().name()));
         
         // Generate real JWT token
         String token = jwtUtil.generateToken(user.getUsername(), user.getRole().name());
         
-        return new AuthResponse(token, user.getUsername(), user.getRole().name());
+        AuthResponse response = new AuthResponse(token, user.getUsername(), user.getRole().name());
+        if (user.getRole() != User.Role.SUPER_ADMIN) {
+            response.setMarket(MarketScope.normalize(user.getMarket()));
+        }
+        return response;
     }
     
     public User registerUser(User user) {
@@ -49,15 +70,25 @@ public class AuthService {
         }
         
         user.setPassword(passwordEncoder.encode(user.getPassword()));
-        return userRepository.save(user);
+        user.setMarket(MarketScope.normalize(user.getMarket()));
+        User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(AuditEvent.user(AuditEvent.Action.USER_REGISTERED, savedUser.getId(),
+            savedUser.getUsername(), "role=" + savedUser.getRole().name()));
+        return savedUser;
     }
     
     // Admin management methods
+    @Transactional(readOnly = true)
     public List<User> getAllAdmins() {
         return userRepository.findByRoleOrderByCreatedAtDesc(User.Role.ADMIN);
     }
     
-    public void deleteAdmin(Long adminId) {
+    /**
+     * Deletes an admin; the links they added are handed over to the super admin performing the
+     * deletion with one UPDATE instead of being loaded and cascaded.
+     */
+    @Transactional
+    public void deleteAdmin(Long adminId, String performedBy) {
         User admin = userRepository.findById(adminId)
             .orElseThrow(() -> new RuntimeException("Admin not found"));
         
@@ -65,8 +96,17 @@ public class AuthService {
         if (admin.getRole() == User.Role.SUPER_ADMIN) {
             throw new RuntimeException("Cannot delete SUPER_ADMIN user");
         }
+        User successor = userRepository.findByUsername(performedBy)
+            .orElseThrow(() -> new RuntimeException("User not found"));
         
+        int reassigned = linkRepository.reassignAddedBy(admin.getId(), successor.getId());
         userRepository.delete(admin);
+        if (reassigned > 0) {
+            // Cached and catalog copies carry the creator
+            eventPublisher.publishEvent(LinkChangedEvent.reload());
+        }
+        eventPublisher.publishEvent(AuditEvent.user(AuditEvent.Action.ADMIN_DELETED, admin.getId(), admin.getUsername(),
+            "email=" + admin.getEmail() + "; linksReassignedTo=" + successor.getUsername() + "; links=" + reassigned));
     }
     
     public User getAdminById(Long adminId) {
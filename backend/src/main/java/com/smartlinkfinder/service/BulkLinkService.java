@@ -0,0 +1,336 @@
+package com.smartlinkfinder.service;
+
+import com.smartlinkfinder.dto.BulkLinkRequest;
+import com.smartlinkfinder.dto.BulkLinkResult;
+import com.smartlinkfinder.dto.LinkRequest;
+import com.smartlinkfinder.entity.Link;
+import com.smartlinkfinder.entity.User;
+import com.smartlinkfinder.event.AuditEvent;
+import com.smartlinkfinder.event.LinkChangedEvent;
+import com.smartlinkfinder.repository.LinkRepository;
+import com.smartlinkfinder.repository.UserRepository;
+import com.smartlinkfinder.security.MarketScope;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Bulk create/update/delete of links.
+ *
+ * Each operation list is processed in chunks of link.bulk.chunk-size items, one transaction per
+ * chunk. Within a chunk existence checks are done with one query per chunk and the writes go out
+ * as JDBC batches (sequence ids, hibernate.jdbc.batch_size). Invalid items are reported and
+ * skipped; if a chunk fails at the database all of its items are reported as failed and earlier
+ * chunks stay committed.
+ */
+@Service
+public class BulkLinkService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkLinkService.class);
+
+    // Above this many changes per chunk one BATCH event is cheaper for the caches than per-link events
+    private static final int MAX_INDIVIDUAL_EVENTS = 50;
+
+    @Autowired
+    private LinkRepository linkRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private Validator validator;
+
+    @Value("${link.bulk.max-items:5000}")
+    private int maxItems;
+
+    @Value("${link.bulk.chunk-size:500}")
+    private int chunkSize;
+
+    /**
+     * Deletes run first, then updates, then creates, so that reference codes freed earlier in the
+     * request can be reused by later items.
+     */
+    public List<BulkLinkResult> apply(BulkLinkRequest request, String username) {
+        if (request.size() > maxItems) {
+            throw new IllegalArgumentException("Bulk request exceeds the limit of " + maxItems + " items");
+        }
+        // Not List.contains(null), which immutable lists reject
+        if (request.getCreate().stream().anyMatch(Objects::isNull) || request.getUpdate().stream().anyMatch(Objects::isNull)
+                || request.getDelete().stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Bulk request items must not be null");
+        }
+        User addedBy = userRepository.findByUsername(username)
+            .orElseThrow(() -> new RuntimeException("User not found"));
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        List<BulkLinkResult> results = new ArrayList<>(request.size());
+
+        List<Long> deletes = request.getDelete();
+        for (int offset = 0; offset < deletes.size(); offset += chunkSize) {
+            List<Long> chunk = deletes.subList(offset, Math.min(offset + chunkSize, deletes.size()));
+            int start = offset;
+            results.addAll(runChunk(transaction, () -> deleteChunk(start, chunk),
+                error -> {
+                    List<BulkLinkResult> failed = new ArrayList<>();
+                    for (int i = 0; i < chunk.size(); i++) {
+                        failed.add(BulkLinkResult.failure("delete", start + i, chunk.get(i), null, error));
+                    }
+                    return failed;
+                }));
+        }
+
+        List<BulkLinkRequest.Update> updates = request.getUpdate();
+        for (int offset = 0; offset < updates.size(); offset += chunkSize) {
+            List<BulkLinkRequest.Update> chunk = updates.subList(offset, Math.min(offset + chunkSize, updates.size()));
+            int start = offset;
+            results.addAll(runChunk(transaction, () -> updateChunk(start, chunk),
+                error -> {
+                    List<BulkLinkResult> failed = new ArrayList<>();
+                    for (int i = 0; i < chunk.size(); i++) {
+                        failed.add(BulkLinkResult.failure("update", start + i, chunk.get(i).getId(), chunk.get(i).getReferenceCode(), error));
+                    }
+                    return failed;
+                }));
+        }
+
+        List<LinkRequest> creates = request.getCreate();
+        for (int offset = 0; offset < creates.size(); offset += chunkSize) {
+            List<LinkRequest> chunk = creates.subList(offset, Math.min(offset + chunkSize, creates.size()));
+            int start = offset;
+            results.addAll(runChunk(transaction, () -> createChunk(start, chunk, addedBy),
+                error -> {
+                    List<BulkLinkResult> failed = new ArrayList<>();
+                    for (int i = 0; i < chunk.size(); i++) {
+                        failed.add(BulkLinkResult.failure("create", start + i, null, chunk.get(i).getReferenceCode(), error));
+                    }
+                    return failed;
+                }));
+        }
+
+        return results;
+    }
+
+    private List<BulkLinkResult> runChunk(TransactionTemplate transaction, Supplier<List<BulkLinkResult>> work,
+                                          Function<String, List<BulkLinkResult>> onFailure) {
+        try {
+            return transaction.execute(status -> work.get());
+        } catch (RuntimeException e) {
+            String message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            logger.warn("Bulk link chunk rolled back: {}", message);
+            return onFailure.apply("Chunk rolled back: " + message);
+        }
+    }
+
+    private List<BulkLinkResult> deleteChunk(int offset, List<Long> ids) {
+        Map<Long, Link> existing = new HashMap<>();
+        // Links of other markets are invisible to a scoped admin
+        linkRepository.findAllById(ids).stream()
+            .filter(link -> MarketScope.allows(link.getMarket()))
+            .forEach(link -> existing.put(link.getId(), link));
+
+        List<BulkLinkResult> results = new ArrayList<>(ids.size());
+        List<Link> toDelete = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            Link link = existing.get(id);
+            if (link == null) {
+                results.add(BulkLinkResult.failure("delete", offset + i, id, null, "Link not found"));
+            } else if (!seen.add(id)) {
+                results.add(BulkLinkResult.failure("delete", offset + i, id, link.getReferenceCode(), "Duplicate id in request"));
+            } else {
+                toDelete.add(link);
+                results.add(BulkLinkResult.success("delete", offset + i, id, link.getReferenceCode()));
+            }
+        }
+
+        // Deletes are soft, like LinkService.deleteLink
+        if (!toDelete.isEmpty()) {
+            linkRepository.archiveAllById(toDelete.stream().map(Link::getId).toList(), LocalDateTime.now());
+        }
+        List<LinkChangedEvent> events = new ArrayList<>();
+        toDelete.forEach(link -> events.add(LinkChangedEvent.deleted(link.getId(), link.getReferenceCode())));
+        publish(events);
+        toDelete.forEach(link -> eventPublisher.publishEvent(AuditEvent.link(AuditEvent.Action.LINK_ARCHIVED,
+            link.getId(), link.getReferenceCode(), "source=bulk; fullUrl=" + link.getFullUrl())));
+        return results;
+    }
+
+    private List<BulkLinkResult> updateChunk(int offset, List<BulkLinkRequest.Update> updates) {
+        Map<Long, Link> links = new HashMap<>();
+        linkRepository.findAllById(updates.stream().map(BulkLinkRequest.Update::getId).filter(id -> id != null).toList())
+            .stream()
+            .filter(link -> MarketScope.allows(link.getMarket()))
+            .forEach(link -> links.put(link.getId(), link));
+        Map<String, Long> codeOwners = findCodeOwners(updates.stream().map(LinkRequest::getReferenceCode).toList());
+
+        List<BulkLinkResult> results = new ArrayList<>(updates.size());
+        List<Link> toSave = new ArrayList<>();
+        List<LinkChangedEvent> events = new ArrayList<>();
+        List<AuditEvent> auditEvents = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        // Codes given up by renames earlier in the chunk
+        Set<String> released = new HashSet<>();
+        for (int i = 0; i < updates.size(); i++) {
+            BulkLinkRequest.Update update = updates.get(i);
+            String error = validate(update);
+            Link link = update.getId() == null ? null : links.get(update.getId());
+            if (error == null && link == null) {
+                error = "Link not found";
+            }
+            if (error == null && !seen.add(link.getId())) {
+                error = "Duplicate id in request";
+            }
+            if (error == null) {
+                Long owner = codeOwners.putIfAbsent(lower(update.getReferenceCode()), link.getId());
+                if (owner != null && !owner.equals(link.getId())) {
+                    error = "Reference code already exists";
+                }
+            }
+            if (error != null) {
+                results.add(BulkLinkResult.failure("update", offset + i, update.getId(), update.getReferenceCode(), error));
+                continue;
+            }
+
+            String code = lower(update.getReferenceCode());
+            String previousCode = lower(link.getReferenceCode());
+            if (released.remove(code)) {
+                // Updates flush in id order (hibernate.order_updates), so write the rename that freed
+                // this code before taking it, or the unique index rejects the chunk
+                linkRepository.flush();
+            }
+            if (!code.equals(previousCode)) {
+                // The old code is free for the rest of the chunk
+                codeOwners.remove(previousCode, link.getId());
+                released.add(previousCode);
+            }
+
+            String previousReferenceCode = link.getReferenceCode();
+            String changes = LinkService.describeChanges(link, update);
+            link.setReferenceCode(update.getReferenceCode());
+            link.setFullUrl(update.getFullUrl());
+            link.setDescription(update.getDescription());
+            link.setBrandName(update.getBrandName());
+            link.applyValidity(update.getValidFrom(), update.getValidUntil(), LocalDateTime.now());
+            LinkService.applyMarket(link, update);
+            link.setUpdatedAt(LocalDateTime.now());
+            toSave.add(link);
+            events.add(LinkChangedEvent.updated(link.getId(), link.getReferenceCode(), previousReferenceCode));
+            auditEvents.add(AuditEvent.link(AuditEvent.Action.LINK_UPDATED, link.getId(), link.getReferenceCode(),
+                "source=bulk; " + changes));
+            results.add(BulkLinkResult.success("update", offset + i, link.getId(), link.getReferenceCode()));
+        }
+
+        linkRepository.saveAll(toSave);
+        linkRepository.flush();
+        publish(events);
+        auditEvents.forEach(eventPublisher::publishEvent);
+        return results;
+    }
+
+    private List<BulkLinkResult> createChunk(int offset, List<LinkRequest> creates, User addedBy) {
+        Map<String, Long> codeOwners = findCodeOwners(creates.stream().map(LinkRequest::getReferenceCode).toList());
+
+        List<BulkLinkResult> results = new ArrayList<>(creates.size());
+        List<Link> toSave = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < creates.size(); i++) {
+            LinkRequest create = creates.get(i);
+            String error = validate(create);
+            if (error == null && codeOwners.putIfAbsent(lower(create.getReferenceCode()), -1L) != null) {
+                error = "Reference code already exists";
+            }
+            if (error != null) {
+                results.add(BulkLinkResult.failure("create", offset + i, null, create.getReferenceCode(), error));
+                continue;
+            }
+
+            Link link = new Link();
+            link.setReferenceCode(create.getReferenceCode());
+            link.setFullUrl(create.getFullUrl());
+            link.setDescription(create.getDescription());
+            link.setBrandName(create.getBrandName());
+            link.applyValidity(create.getValidFrom(), create.getValidUntil(), LocalDateTime.now());
+            link.setMarket(LinkService.marketFor(create));
+            link.setAddedBy(addedBy);
+            toSave.add(link);
+            positions.add(results.size());
+            results.add(null);
+        }
+
+        List<Link> saved = linkRepository.saveAll(toSave);
+        linkRepository.flush();
+        List<LinkChangedEvent> events = new ArrayList<>();
+        for (int i = 0; i < saved.size(); i++) {
+            Link link = saved.get(i);
+            int position = positions.get(i);
+            results.set(position, BulkLinkResult.success("create", offset + position, link.getId(), link.getReferenceCode()));
+            events.add(LinkChangedEvent.created(link.getId(), link.getReferenceCode()));
+            eventPublisher.publishEvent(AuditEvent.link(AuditEvent.Action.LINK_CREATED, link.getId(),
+                link.getReferenceCode(), "source=bulk; fullUrl=" + link.getFullUrl()));
+        }
+        publish(events);
+        return results;
+    }
+
+    /**
+     * @return lower-cased reference code -> id of the link currently holding it
+     */
+    private Map<String, Long> findCodeOwners(List<String> referenceCodes) {
+        Set<String> codes = new HashSet<>();
+        referenceCodes.forEach(code -> {
+            if (code != null) {
+                codes.add(lower(code));
+            }
+        });
+        Map<String, Long> owners = new HashMap<>();
+        if (!codes.isEmpty()) {
+            linkRepository.findByLowerReferenceCodeIn(codes)
+                .forEach(link -> owners.put(lower(link.getReferenceCode()), link.getId()));
+        }
+        return owners;
+    }
+
+    private String validate(LinkRequest item) {
+        Set<ConstraintViolation<LinkRequest>> violations = validator.validate(item);
+        return violations.isEmpty() ? null : violations.iterator().next().getMessage();
+    }
+
+    private void publish(List<LinkChangedEvent> events) {
+        if (events.size() > MAX_INDIVIDUAL_EVENTS) {
+            eventPublisher.publishEvent(LinkChangedEvent.batch(events.stream().map(LinkChangedEvent::getLinkId).toList()));
+        } else {
+            events.forEach(eventPublisher::publishEvent);
+        }
+    }
+
+    private static String lower(String referenceCode) {
+        return referenceCode.toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,26 +1,65 @@
 package com.smartlinkfinder.service;
 
 import com.smartlinkfinder.entity.Link;
+import com.smartlinkfinder.event.AuditEvent;
+import com.smartlinkfinder.event.LinkChangedEvent;
+import com.smartlinkfinder.security.MarketScope;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 @Service
 public class ExcelUploadService {
 
+    private static final Logger logger = LoggerFactory.getLogger(ExcelUploadService.class);
+
+    // Rows per INSERT statement; 6 parameters per row stays far below the driver's 32767 bind limit
+    private static final int UPSERT_CHUNK_SIZE = 500;
+
+    // Matches the allocation size of links_seq: each nextval reserves the ids (value - 49 .. value)
+    private static final int ID_BLOCK_SIZE = 50;
+
+    // A scheduled or expired link keeps the status its validity window gives it
+    private static final String KEPT_STATUS =
+        "CASE WHEN links.status IN ('SCHEDULED', 'EXPIRED') THEN links.status ELSE EXCLUDED.status END";
+
+    // content_hash of the row as written, i.e. over the kept status (same expression as Link.contentHash);
+    // EXCLUDED.content_hash is over the imported status
+    private static final String KEPT_CONTENT_HASH =
+        "encode(sha256(convert_to(COALESCE(EXCLUDED.full_url, '') || E'\\n' || " + KEPT_STATUS + ", 'UTF8')), 'hex')";
+
     @Autowired
     private LinkService linkService;
 
-    public List<Link> uploadExcelFile(MultipartFile file) throws IOException {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Reads the links of a sheet into the given market; a scoped admin always imports into their own
+     */
+    public List<Link> uploadExcelFile(MultipartFile file, String market) throws IOException {
         List<Link> links = new ArrayList<>();
+        String importMarket = MarketScope.resolve(market);
         
         try (InputStream inputStream = file.getInputStream()) {
             Workbook workbook = new XSSFWorkbook(inputStream);
@@ -44,6 +83,7 @@ public class ExcelUploadService {
                 try {
                     Link link = createLinkFromRow(row);
                     if (link != null) {
+                        link.setMarket(importMarket != null ? importMarket : Link.DEFAULT_MARKET);
                         links.add(link);
                         successCount++;
                     }
@@ -153,4 +193,110 @@ public class ExcelUploadService {
         
         return savedLinks;
     }
+    
+    /**
+     * Upsert mode: inserts new reference codes and updates the URL of existing ones (matched
+     * case-insensitively), in set-based chunks within one transaction. Rows whose content hash
+     * is unchanged are not written at all, so re-importing the full catalog is idempotent and cheap.
+     * If a reference code appears more than once in the file, the last row wins. For a scoped
+     * admin, a code that belongs to another market is left untouched (reported as unchanged).
+     */
+    @Transactional
+    public UpsertResult upsertLinks(List<Link> links) {
+        UpsertResult result = new UpsertResult();
+        Map<String, Link> byCode = new LinkedHashMap<>();
+        for (Link link : links) {
+            // Same limits the entity enforces on the regular save path
+            int codeLength = link.getReferenceCode().length();
+            if (codeLength < 2 || codeLength > 20 || link.getFullUrl().length() > 2048) {
+                logger.warn("Skipping invalid row for reference code {}", link.getReferenceCode());
+                result.rejected++;
+                continue;
+            }
+            byCode.put(link.getReferenceCode().toLowerCase(Locale.ROOT), link);
+        }
+        List<Link> rows = new ArrayList<>(byCode.values());
+        List<Long> written = new ArrayList<>();
+        
+        for (int offset = 0; offset < rows.size(); offset += UPSERT_CHUNK_SIZE) {
+            upsertChunk(rows.subList(offset, Math.min(offset + UPSERT_CHUNK_SIZE, rows.size())), result, written);
+        }
+        result.unchanged = rows.size() - result.inserted - result.updated;
+        
+        if (!written.isEmpty()) {
+            // A BATCH of the written ids; a RELOAD (caught up from link_changes) for a large import
+            eventPublisher.publishEvent(LinkChangedEvent.batch(written));
+        }
+        eventPublisher.publishEvent(AuditEvent.link(AuditEvent.Action.LINKS_IMPORTED, null, null,
+            String.format("mode=upsert; inserted=%d; updated=%d; unchanged=%d; rejected=%d",
+                result.inserted, result.updated, result.unchanged, result.rejected)));
+        logger.info("Excel upsert completed. Inserted: {}, Updated: {}, Unchanged: {}, Rejected: {}",
+            result.inserted, result.updated, result.unchanged, result.rejected);
+        return result;
+    }
+    
+    private void upsertChunk(List<Link> rows, UpsertResult result, List<Long> written) {
+        List<Long> ids = reserveIds(rows.size());
+        StringBuilder sql = new StringBuilder(
+            "INSERT INTO links (id, reference_code, full_url, status, market, content_hash, created_at, updated_at) VALUES ");
+        List<Object> parameters = new ArrayList<>(rows.size() * 6);
+        for (int i = 0; i < rows.size(); i++) {
+            Link link = rows.get(i);
+            sql.append(i == 0 ? "" : ", ").append("(?, ?, ?, ?, ?, ?, now(), now())");
+            parameters.add(ids.get(i));
+            parameters.add(link.getReferenceCode());
+            parameters.add(link.getFullUrl());
+            parameters.add(link.getStatus());
+            parameters.add(link.getMarket());
+            parameters.add(Link.contentHash(link.getFullUrl(), link.getStatus()));
+        }
+        // Arbiter is the partial unique index on live links; an archived code gets a fresh row
+        sql.append(" ON CONFLICT (lower(reference_code)) WHERE status <> 'ARCHIVED' DO UPDATE SET ")
+            .append("full_url = EXCLUDED.full_url, ")
+            .append("status = ").append(KEPT_STATUS).append(", ")
+            .append("content_hash = ").append(KEPT_CONTENT_HASH).append(", updated_at = EXCLUDED.updated_at ")
+            .append("WHERE links.content_hash IS DISTINCT FROM ").append(KEPT_CONTENT_HASH).append(" ")
+            // A scoped admin's import never touches another market's link; existing links keep their market
+            .append(MarketScope.current() != null ? "AND links.market = EXCLUDED.market " : "")
+            // xmax is 0 only for freshly inserted tuples
+            .append("RETURNING id, reference_code, full_url, (xmax = 0) AS inserted");
+        
+        jdbcTemplate.query(sql.toString(), resultSet -> {
+            boolean inserted = resultSet.getBoolean(4);
+            written.add(resultSet.getLong(1));
+            if (inserted) {
+                result.inserted++;
+            } else {
+                result.updated++;
+            }
+            eventPublisher.publishEvent(AuditEvent.link(
+                inserted ? AuditEvent.Action.LINK_CREATED : AuditEvent.Action.LINK_UPDATED,
+                resultSet.getLong(1), resultSet.getString(2), "source=excel-upsert; fullUrl=" + resultSet.getString(3)));
+        }, parameters.toArray());
+    }
+    
+    private List<Long> reserveIds(int count) {
+        int blocks = (count + ID_BLOCK_SIZE - 1) / ID_BLOCK_SIZE;
+        List<Long> blockEnds = jdbcTemplate.queryForList(
+            "SELECT nextval('links_seq') FROM generate_series(1, ?)", Long.class, blocks);
+        List<Long> ids = new ArrayList<>(blocks * ID_BLOCK_SIZE);
+        for (Long blockEnd : blockEnds) {
+            for (long id = blockEnd - ID_BLOCK_SIZE + 1; id <= blockEnd; id++) {
+                ids.add(id);
+            }
+        }
+        return Collections.unmodifiableList(ids.subList(0, count));
+    }
+    
+    public static class UpsertResult {
+        private int inserted;
+        private int updated;
+        private int unchanged;
+        private int rejected;
+        
+        public int getInserted() { return inserted; }
+        public int getUpdated() { return updated; }
+        public int getUnchanged() { return unchanged; }
+        public int getRejected() { return rejected; }
+    }
 }
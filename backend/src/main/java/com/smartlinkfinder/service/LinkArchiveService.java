@@ -0,0 +1,75 @@
+package com.smartlinkfinder.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Cold storage for archived links (see V8__link_archiving.sql).
+ *
+ * Deleting a link only archives it in place, so it can be restored. Once it has been archived
+ * for link.archive.cold-after-days it is moved to links_archive, which keeps the links heap and
+ * its indexes down to the live catalog plus recent deletions. Each batch is one statement
+ * (DELETE ... RETURNING feeding the INSERTs), so a row is never in both tables or in neither, and
+ * its URL history goes to link_versions_archive along with it (V12__link_versions_archive.sql).
+ */
+@Service
+public class LinkArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LinkArchiveService.class);
+
+    // The version history is copied in the same statement: every part of it reads the snapshot taken
+    // before the DELETE, and the ON DELETE CASCADE on link_versions only runs after it
+    private static final String MOVE_STATEMENT =
+        "WITH moved AS (" +
+        "DELETE FROM links WHERE id IN (SELECT id FROM links WHERE status = 'ARCHIVED' " +
+        "AND archived_at < now() - make_interval(days => ?) ORDER BY archived_at LIMIT ?) " +
+        "RETURNING id, reference_code, full_url, description, brand_name, market, current_version, added_by_id, " +
+        "created_at, updated_at, archived_at), " +
+        "versions AS (" +
+        "INSERT INTO link_versions_archive (link_id, version, full_url, created_at) " +
+        "SELECT v.link_id, v.version, v.full_url, v.created_at FROM link_versions v JOIN moved ON moved.id = v.link_id " +
+        "ON CONFLICT DO NOTHING), " +
+        "archived AS (" +
+        "INSERT INTO links_archive (id, reference_code, full_url, description, brand_name, market, current_version, " +
+        "added_by_id, created_at, updated_at, archived_at) " +
+        "SELECT id, reference_code, full_url, description, brand_name, market, current_version, added_by_id, " +
+        "created_at, updated_at, archived_at FROM moved RETURNING id) " +
+        "SELECT count(*) FROM archived";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${link.archive.cold-after-days:30}")
+    private int coldAfterDays;
+
+    @Value("${link.archive.batch-size:1000}")
+    private int batchSize;
+
+    @Scheduled(cron = "${link.archive.move-cron:0 0 4 * * *}")
+    public void moveToColdStorage() {
+        long total = 0;
+        int moved;
+        do {
+            moved = jdbcTemplate.queryForObject(MOVE_STATEMENT, Integer.class, coldAfterDays, batchSize);
+            total += moved;
+        } while (moved == batchSize);
+        logger.info("Moved {} links archived more than {} days ago to cold storage", total, coldAfterDays);
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("archived", jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM links WHERE status = 'ARCHIVED'", Long.class));
+        stats.put("coldStorage", jdbcTemplate.queryForObject("SELECT count(*) FROM links_archive", Long.class));
+        stats.put("coldAfterDays", coldAfterDays);
+        return stats;
+    }
+}
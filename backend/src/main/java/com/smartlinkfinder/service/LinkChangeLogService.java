@@ -0,0 +1,179 @@
+package com.smartlinkfinder.service;
+
+import com.smartlinkfinder.dto.LinkChange;
+import com.smartlinkfinder.entity.Link;
+import com.smartlinkfinder.repository.LinkRepository;
+import com.smartlinkfinder.security.MarketScope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Delta sync over the link_changes log (see V5__link_change_log.sql).
+ *
+ * A sync token is an opaque position (transaction id, sequence) in the log plus the time it was
+ * issued. Only entries of transactions older than the oldest running transaction are returned,
+ * so entries never show up behind a position a client has already passed. Tokens older than the
+ * log retention are rejected, the client has to do a full sync again.
+ *
+ * A market-scoped admin only receives entries of their own market (V13__link_changes_market.sql);
+ * a link that left the market shows up as a DELETE.
+ */
+@Service
+public class LinkChangeLogService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LinkChangeLogService.class);
+
+    private static final String CURRENT_XMIN_QUERY = "SELECT pg_snapshot_xmin(pg_current_snapshot())::text";
+
+    private static final String CHANGES_QUERY =
+        "SELECT tx::text, seq, link_id, reference_code, operation FROM link_changes " +
+        "WHERE (tx, seq) > (?::xid8, ?) AND tx < ?::xid8 ORDER BY tx, seq LIMIT ?";
+
+    private static final String MARKET_CHANGES_QUERY =
+        "SELECT tx::text, seq, link_id, reference_code, operation FROM link_changes " +
+        "WHERE market = ? AND (tx, seq) > (?::xid8, ?) AND tx < ?::xid8 ORDER BY tx, seq LIMIT ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LinkRepository linkRepository;
+
+    @Value("${link.changes.retention-days:30}")
+    private int retentionDays;
+
+    /**
+     * Token for "now". Clients take it before a full download and then sync from it.
+     */
+    @Transactional(readOnly = true)
+    public String currentToken() {
+        return encode(Long.parseLong(jdbcTemplate.queryForObject(CURRENT_XMIN_QUERY, String.class)), 0);
+    }
+
+    /**
+     * @throws IllegalArgumentException for a malformed token
+     * @throws IllegalStateException when the token predates the log retention
+     */
+    @Transactional(readOnly = true)
+    public ChangePage getChangesSince(String token, int limit) {
+        long[] position = decode(token);
+        long xmin = Long.parseLong(jdbcTemplate.queryForObject(CURRENT_XMIN_QUERY, String.class));
+        String market = MarketScope.current();
+
+        RowMapper<Object[]> mapper = (resultSet, rowNum) -> new Object[] {
+            Long.parseLong(resultSet.getString(1)), resultSet.getLong(2), resultSet.getLong(3),
+            resultSet.getString(4), resultSet.getString(5) };
+        List<Object[]> rows = market == null
+            ? jdbcTemplate.query(CHANGES_QUERY, mapper,
+                Long.toString(position[0]), position[1], Long.toString(xmin), limit + 1)
+            : jdbcTemplate.query(MARKET_CHANGES_QUERY, mapper,
+                market, Long.toString(position[0]), position[1], Long.toString(xmin), limit + 1);
+
+        boolean hasMore = rows.size() > limit;
+        if (hasMore) {
+            rows = rows.subList(0, limit);
+        }
+
+        // Only the latest entry per link matters to a client applying the final state
+        Map<Long, Object[]> latest = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            latest.remove((Long) row[2]);
+            latest.put((Long) row[2], row);
+        }
+        List<Long> upsertIds = new ArrayList<>();
+        latest.values().forEach(row -> {
+            if (!"D".equals(row[4])) {
+                upsertIds.add((Long) row[2]);
+            }
+        });
+        Map<Long, Link> links = new HashMap<>();
+        linkRepository.findAllById(upsertIds).forEach(link -> links.put(link.getId(), link));
+
+        List<LinkChange> changes = new ArrayList<>(latest.size());
+        for (Object[] row : latest.values()) {
+            Long linkId = (Long) row[2];
+            Link link = links.get(linkId);
+            if (link == null || !MarketScope.allows(link.getMarket())) {
+                // Deleted or moved to another market since; its tombstone follows later in the log
+                changes.add(new LinkChange("DELETE", linkId, (String) row[3], null));
+            } else {
+                changes.add(new LinkChange("UPSERT", linkId, link.getReferenceCode(), link));
+            }
+        }
+
+        String nextToken;
+        if (hasMore) {
+            Object[] last = rows.get(rows.size() - 1);
+            nextToken = encode((Long) last[0], (Long) last[1]);
+        } else {
+            nextToken = encode(Math.max(xmin, position[0]), xmin > position[0] ? 0 : position[1]);
+        }
+        return new ChangePage(changes, nextToken, hasMore);
+    }
+
+    @Scheduled(cron = "${link.changes.prune-cron:0 30 3 * * *}")
+    @Transactional
+    public void pruneChangeLog() {
+        int deleted = jdbcTemplate.update("DELETE FROM link_changes WHERE changed_at < now() - make_interval(days => ?)",
+            retentionDays);
+        logger.info("Pruned {} link change log entries older than {} days", deleted, retentionDays);
+    }
+
+    private String encode(long tx, long seq) {
+        String raw = tx + "." + seq + "." + Instant.now().getEpochSecond();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private long[] decode(String token) {
+        long[] parts;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII);
+            String[] fields = raw.split("\\.");
+            if (fields.length != 3) {
+                throw new IllegalArgumentException("Invalid sync token");
+            }
+            parts = new long[] { Long.parseLong(fields[0]), Long.parseLong(fields[1]), Long.parseLong(fields[2]) };
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid sync token");
+        }
+        // One day of margin for transactions that were still running when the token was issued
+        Instant oldestValid = Instant.now().minus(Duration.ofDays(retentionDays - 1L));
+        if (Instant.ofEpochSecond(parts[2]).isBefore(oldestValid)) {
+            throw new IllegalStateException("Sync token expired, a full sync is required");
+        }
+        return parts;
+    }
+
+    public static class ChangePage {
+        private final List<LinkChange> changes;
+        private final String nextToken;
+        private final boolean hasMore;
+
+        public ChangePage(List<LinkChange> changes, String nextToken, boolean hasMore) {
+            this.changes = changes;
+            this.nextToken = nextToken;
+            this.hasMore = hasMore;
+        }
+
+        public List<LinkChange> getChanges() { return changes; }
+        public String getNextToken() { return nextToken; }
+        public boolean isHasMore() { return hasMore; }
+    }
+}
@@ -0,0 +1,303 @@
+package com.smartlinkfinder.service;
+
+import com.smartlinkfinder.dto.LinkHealthStatus;
+import com.smartlinkfinder.health.LinkHealthChecker;
+import com.smartlinkfinder.security.MarketScope;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Background URL health checks of all links (see V6__link_health.sql).
+ *
+ * Every interval one batch of due links is checked: never checked, URL changed since the last
+ * check, or past next_check_at. Healthy links are re-checked after link.health.recheck-hours;
+ * failures back off exponentially (honouring Retry-After) up to link.health.max-backoff-hours.
+ * HTTP and result writes run on a small dedicated pool, never on request threads, and only one
+ * batch runs at a time.
+ */
+@Service
+public class LinkHealthService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LinkHealthService.class);
+
+    private static final String DUE_QUERY =
+        "SELECT l.id, l.full_url, h.etag, h.last_modified, h.checked_url, h.consecutive_failures " +
+        "FROM links l LEFT JOIN link_health h ON h.link_id = l.id " +
+        "WHERE l.status <> 'ARCHIVED' AND (h.link_id IS NULL OR h.next_check_at <= ? OR h.checked_url <> l.full_url) " +
+        "ORDER BY h.next_check_at NULLS FIRST, l.id LIMIT ?";
+
+    private static final String RECORD_STATEMENT =
+        "INSERT INTO link_health (link_id, outcome, http_status, error, etag, last_modified, checked_url, " +
+        "consecutive_failures, last_checked_at, next_check_at) " +
+        "SELECT ?::bigint, ?::varchar, ?::integer, ?::varchar, ?::varchar, ?::varchar, ?::varchar, ?::integer, " +
+        "?::timestamp, ?::timestamp WHERE EXISTS (SELECT 1 FROM links WHERE id = ?::bigint) " +
+        "ON CONFLICT (link_id) DO UPDATE SET outcome = EXCLUDED.outcome, http_status = EXCLUDED.http_status, " +
+        "error = EXCLUDED.error, etag = EXCLUDED.etag, last_modified = EXCLUDED.last_modified, " +
+        "checked_url = EXCLUDED.checked_url, consecutive_failures = EXCLUDED.consecutive_failures, " +
+        "last_checked_at = EXCLUDED.last_checked_at, next_check_at = EXCLUDED.next_check_at";
+
+    private static final String STATUS_COLUMNS =
+        "SELECT h.link_id, l.reference_code, l.full_url, h.outcome, h.http_status, h.error, " +
+        "h.consecutive_failures, h.last_checked_at, h.next_check_at " +
+        "FROM link_health h JOIN links l ON l.id = h.link_id ";
+
+    private static final RowMapper<LinkHealthStatus> STATUS_MAPPER = (resultSet, rowNum) -> new LinkHealthStatus(
+        resultSet.getLong(1), resultSet.getString(2), resultSet.getString(3), resultSet.getString(4),
+        (Integer) resultSet.getObject(5), resultSet.getString(6), resultSet.getInt(7),
+        resultSet.getTimestamp(8).toLocalDateTime(), resultSet.getTimestamp(9).toLocalDateTime());
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${link.health.enabled:true}")
+    private boolean enabled;
+
+    @Value("${link.health.batch-size:200}")
+    private int batchSize;
+
+    @Value("${link.health.threads:2}")
+    private int threads;
+
+    @Value("${link.health.per-host-concurrency:4}")
+    private int perHostConcurrency;
+
+    @Value("${link.health.request-timeout-ms:10000}")
+    private long requestTimeoutMs;
+
+    @Value("${link.health.recheck-hours:24}")
+    private long recheckHours;
+
+    @Value("${link.health.backoff-base-minutes:5}")
+    private long backoffBaseMinutes;
+
+    @Value("${link.health.max-backoff-hours:24}")
+    private long maxBackoffHours;
+
+    private ExecutorService executor;
+    private LinkHealthChecker checker;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "link-health-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Duration timeout = Duration.ofMillis(requestTimeoutMs);
+        checker = new LinkHealthChecker(LinkHealthChecker.newHttpClient(executor, timeout), perHostConcurrency, timeout);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Scheduled(fixedDelayString = "${link.health.interval-ms:60000}",
+               initialDelayString = "${link.health.initial-delay-ms:60000}")
+    public void checkDueLinks() {
+        if (enabled) {
+            startBatch();
+        }
+    }
+
+    /**
+     * Starts checking the next batch of due links in the background.
+     *
+     * @return false if a batch is still running
+     */
+    public boolean startBatch() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            executor.execute(this::runBatch);
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+        return true;
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    private void runBatch() {
+        long start = System.currentTimeMillis();
+        try {
+            Map<Long, Integer> failures = new HashMap<>();
+            List<LinkHealthChecker.Target> targets = jdbcTemplate.query(DUE_QUERY, (resultSet, rowNum) -> {
+                long linkId = resultSet.getLong(1);
+                String url = resultSet.getString(2);
+                failures.put(linkId, resultSet.getInt(6));
+                // Validators of a previous URL say nothing about the current one
+                boolean sameUrl = url.equals(resultSet.getString(5));
+                return new LinkHealthChecker.Target(linkId, url,
+                    sameUrl ? resultSet.getString(3) : null, sameUrl ? resultSet.getString(4) : null);
+            }, Timestamp.valueOf(LocalDateTime.now()), batchSize);
+            if (targets.isEmpty()) {
+                running.set(false);
+                return;
+            }
+
+            List<CompletableFuture<LinkHealthChecker.Result>> checks = new ArrayList<>(targets.size());
+            targets.forEach(target -> checks.add(checker.check(target)));
+            CompletableFuture.allOf(checks.toArray(new CompletableFuture[0]))
+                .thenRunAsync(() -> {
+                    try {
+                        List<LinkHealthChecker.Result> results = new ArrayList<>(checks.size());
+                        checks.forEach(check -> results.add(check.join()));
+                        record(results, failures);
+                        logger.info("Checked {} link URLs in {} ms: {}", results.size(),
+                            System.currentTimeMillis() - start, countByOutcome(results));
+                    } catch (RuntimeException e) {
+                        logger.error("Failed to record link health results", e);
+                    } finally {
+                        running.set(false);
+                    }
+                }, executor);
+        } catch (RuntimeException e) {
+            logger.error("Failed to start link health batch", e);
+            running.set(false);
+        }
+    }
+
+    private void record(List<LinkHealthChecker.Result> results, Map<Long, Integer> previousFailures) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = new ArrayList<>(results.size());
+        for (LinkHealthChecker.Result result : results) {
+            boolean healthy = result.getOutcome() == LinkHealthChecker.Outcome.OK;
+            int failures = healthy ? 0 : previousFailures.getOrDefault(result.getLinkId(), 0) + 1;
+            Duration wait = healthy ? Duration.ofHours(recheckHours) : backoff(failures, result.getRetryAfter());
+            rows.add(new Object[] {
+                result.getLinkId(), result.getOutcome().name(), result.getHttpStatus(), truncate(result.getError(), 500),
+                truncate(result.getEtag(), 255), truncate(result.getLastModified(), 64), result.getUrl(), failures,
+                Timestamp.valueOf(now), Timestamp.valueOf(now.plus(withJitter(wait))), result.getLinkId() });
+        }
+        jdbcTemplate.batchUpdate(RECORD_STATEMENT, rows);
+    }
+
+    private Duration backoff(int failures, Duration retryAfter) {
+        Duration max = Duration.ofHours(maxBackoffHours);
+        Duration wait = Duration.ofMinutes(backoffBaseMinutes).multipliedBy(1L << Math.min(failures - 1, 20));
+        if (retryAfter != null && retryAfter.compareTo(wait) > 0) {
+            wait = retryAfter;
+        }
+        return wait.compareTo(max) > 0 ? max : wait;
+    }
+
+    // Up to 10% extra so that links checked together drift apart instead of hitting a host in bursts
+    private static Duration withJitter(Duration wait) {
+        return wait.plusMillis(ThreadLocalRandom.current().nextLong(wait.toMillis() / 10 + 1));
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value == null || value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+
+    private static Map<String, Long> countByOutcome(List<LinkHealthChecker.Result> results) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        results.forEach(result -> counts.merge(result.getOutcome().name(), 1L, Long::sum));
+        return counts;
+    }
+
+    /**
+     * Check outcome counts over the caller's market (all markets for unscoped callers)
+     */
+    public Map<String, Object> getSummary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        for (LinkHealthChecker.Outcome outcome : LinkHealthChecker.Outcome.values()) {
+            summary.put(outcome.name().toLowerCase(Locale.ROOT), 0L);
+        }
+        String market = MarketScope.current();
+        Object[] marketArgs = marketArgs(market);
+        jdbcTemplate.query("SELECT h.outcome, count(*) FROM link_health h JOIN links l ON l.id = h.link_id " +
+            "WHERE l.status <> 'ARCHIVED' " + marketFilter(market) + "GROUP BY h.outcome",
+            resultSet -> {
+                summary.put(resultSet.getString(1).toLowerCase(Locale.ROOT), resultSet.getLong(2));
+            }, marketArgs);
+        summary.put("unchecked", jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM links l WHERE l.status <> 'ARCHIVED' " + marketFilter(market) +
+            "AND NOT EXISTS (SELECT 1 FROM link_health h WHERE h.link_id = l.id)",
+            Long.class, marketArgs));
+        summary.put("enabled", enabled);
+        summary.put("running", running.get());
+        return summary;
+    }
+
+    /**
+     * Links of the caller's market whose latest check failed, most recently checked first.
+     *
+     * @param outcome BROKEN or UNREACHABLE; null for both
+     */
+    public Page<LinkHealthStatus> getProblems(String outcome, Pageable pageable) {
+        String market = MarketScope.current();
+        String filter = (outcome == null ? "WHERE h.outcome <> 'OK' " : "WHERE h.outcome = ? ") +
+            "AND l.status <> 'ARCHIVED' " + marketFilter(market);
+        List<Object> filterList = new ArrayList<>();
+        if (outcome != null) {
+            filterList.add(outcome.toUpperCase(Locale.ROOT));
+        }
+        filterList.addAll(List.of(marketArgs(market)));
+        Object[] filterArgs = filterList.toArray();
+
+        Long total = jdbcTemplate.queryForObject("SELECT count(*) FROM link_health h JOIN links l ON l.id = h.link_id " +
+            filter, Long.class, filterArgs);
+        List<Object> args = new ArrayList<>(List.of(filterArgs));
+        args.add(pageable.getPageSize());
+        args.add(pageable.getOffset());
+        List<LinkHealthStatus> content = jdbcTemplate.query(
+            STATUS_COLUMNS + filter + "ORDER BY h.last_checked_at DESC, h.link_id LIMIT ? OFFSET ?",
+            STATUS_MAPPER, args.toArray());
+        return new PageImpl<>(content, pageable, total == null ? 0 : total);
+    }
+
+    /**
+     * @return empty if the link was not checked yet or belongs to a market outside the caller's scope
+     */
+    public Optional<LinkHealthStatus> getHealth(Long linkId) {
+        String market = MarketScope.current();
+        List<Object> args = new ArrayList<>(List.of(linkId));
+        args.addAll(List.of(marketArgs(market)));
+        return jdbcTemplate.query(STATUS_COLUMNS + "WHERE h.link_id = ? " + marketFilter(market), STATUS_MAPPER,
+            args.toArray()).stream().findFirst();
+    }
+
+    private static String marketFilter(String market) {
+        return market == null ? "" : "AND l.market = ? ";
+    }
+
+    private static Object[] marketArgs(String market) {
+        return market == null ? new Object[0] : new Object[] { market };
+    }
+}
@@ -1,17 +1,42 @@
 package com.smartlinkfinder.service;
 
+import com.smartlinkfinder.cache.LinkCache;
+import com.smartlinkfinder.cache.SearchResultCache;
+import com.smartlinkfinder.cache.SingleFlight;
+import com.smartlinkfinder.catalog.CompactLinkCatalog;
+import com.smartlinkfinder.catalog.LinkFacetIndex;
+import com.smartlinkfinder.config.ReplicaRoutingDataSource;
 import com.smartlinkfinder.dto.LinkRequest;
 import com.smartlinkfinder.entity.Link;
 import com.smartlinkfinder.entity.User;
+import com.smartlinkfinder.event.AuditEvent;
+import com.smartlinkfinder.event.LinkChangedEvent;
 import com.smartlinkfinder.repository.LinkRepository;
 import com.smartlinkfinder.repository.UserRepository;
+import com.smartlinkfinder.security.MarketScope;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.roaringbitmap.RoaringBitmap;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 @Service
 @Transactional
@@ -23,6 +48,33 @@ public class LinkService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private LinkCache linkCache;
+    
+    @Autowired
+    private SearchResultCache searchCache;
+    
+    @Autowired
+    private LinkFacetIndex facetIndex;
+    
+    @Autowired
+    private CompactLinkCatalog linkCatalog;
+    
+    @Autowired
+    private LinkVersionService linkVersionService;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    // Concurrent identical cache misses share one query; keys carry the cache generation / catalog
+    // version so that a caller arriving after a write never joins a load that started before it
+    private final SingleFlight<String, Optional<Link>> referenceCodeLoads = new SingleFlight<>();
+    private final SingleFlight<String, Page<Link>> searchLoads = new SingleFlight<>();
+    private final SingleFlight<String, RoaringBitmap> facetLoads = new SingleFlight<>();
+    
+    @Value("${link.search-facets.max-database-matches:10000}")
+    private int maxDatabaseFacetMatches;
+    
     public Link createLink(LinkRequest linkRequest, String username) {
         if (linkRepository.existsByReferenceCodeIgnoreCase(linkRequest.getReferenceCode())) {
             throw new RuntimeException("Reference code already exists");
@@ -36,14 +88,21 @@ public class LinkService {
         link.setFullUrl(linkRequest.getFullUrl());
         link.setDescription(linkRequest.getDescription());
         link.setBrandName(linkRequest.getBrandName());
+        link.applyValidity(linkRequest.getValidFrom(), linkRequest.getValidUntil(), LocalDateTime.now());
+        link.setMarket(marketFor(linkRequest));
         
         link.setAddedBy(addedBy);
         
-        return linkRepository.save(link);
+        Link savedLink = saveReturningVersion(link);
+        eventPublisher.publishEvent(LinkChangedEvent.created(savedLink.getId(), savedLink.getReferenceCode()));
+        eventPublisher.publishEvent(AuditEvent.link(AuditEvent.Action.LINK_CREATED, savedLink.getId(),
+            savedLink.getReferenceCode(), "fullUrl=" + savedLink.getFullUrl()));
+        return savedLink;
     }
     
     public Link updateLink(Long id, LinkRequest linkRequest) {
         Link existingLink = linkRepository.findById(id)
+            .filter(link -> MarketScope.allows(link.getMarket()))
             .orElseThrow(() -> new RuntimeException("Link not found"));
         
         if (!existingLink.getReferenceCode().equalsIgnoreCase(linkRequest.getReferenceCode()) &&
@@ -51,37 +110,370 @@ public class LinkService {
             throw new RuntimeException("Reference code already exists");
         }
         
+        String previousReferenceCode = existingLink.getReferenceCode();
+        String changes = describeChanges(existingLink, linkRequest);
         existingLink.setReferenceCode(linkRequest.getReferenceCode());
         existingLink.setFullUrl(linkRequest.getFullUrl());
         existingLink.setDescription(linkRequest.getDescription());
         existingLink.setBrandName(linkRequest.getBrandName());
+        existingLink.applyValidity(linkRequest.getValidFrom(), linkRequest.getValidUntil(), LocalDateTime.now());
+        applyMarket(existingLink, linkRequest);
         
-        return linkRepository.save(existingLink);
+        Link savedLink = saveReturningVersion(existingLink);
+        eventPublisher.publishEvent(LinkChangedEvent.updated(savedLink.getId(), savedLink.getReferenceCode(), previousReferenceCode));
+        eventPublisher.publishEvent(AuditEvent.link(AuditEvent.Action.LINK_UPDATED, savedLink.getId(),
+            savedLink.getReferenceCode(), changes));
+        return savedLink;
+    }
+    
+    /**
+     * Writes the link and reads back the URL version the trigger assigned, for responses that report it
+     */
+    private Link saveReturningVersion(Link link) {
+        Link savedLink = linkRepository.saveAndFlush(link);
+        savedLink.setCurrentVersion(linkRepository.findCurrentVersion(savedLink.getId()));
+        return savedLink;
     }
     
+    /**
+     * Soft delete: the link is archived and disappears from lookups, search and listings, but can
+     * be restored until LinkArchiveService moves it to cold storage.
+     */
     public void deleteLink(Long id) {
-        if (!linkRepository.existsById(id)) {
-            throw new RuntimeException("Link not found");
+        Link link = linkRepository.findById(id)
+            .filter(existing -> MarketScope.allows(existing.getMarket()))
+            .orElseThrow(() -> new RuntimeException("Link not found"));
+        linkRepository.archiveAllById(List.of(id), LocalDateTime.now());
+        eventPublisher.publishEvent(LinkChangedEvent.deleted(id, link.getReferenceCode()));
+        eventPublisher.publishEvent(AuditEvent.link(AuditEvent.Action.LINK_ARCHIVED, id, link.getReferenceCode(),
+            "fullUrl=" + link.getFullUrl()));
+    }
+    
+    public Link restoreLink(Long id) {
+        int restored;
+        try {
+            restored = linkRepository.restoreArchived(id, LocalDateTime.now());
+        } catch (DataIntegrityViolationException e) {
+            // The code was taken by a live link after this one was archived
+            throw new RuntimeException("Reference code already exists");
         }
-        linkRepository.deleteById(id);
+        if (restored == 0) {
+            throw new RuntimeException("Archived link not found");
+        }
+        // Checked after the restore, which rolls back with the exception for another market's link
+        Link link = linkRepository.findById(id)
+            .filter(restoredLink -> MarketScope.allows(restoredLink.getMarket()))
+            .orElseThrow(() -> new RuntimeException("Archived link not found"));
+        eventPublisher.publishEvent(LinkChangedEvent.created(id, link.getReferenceCode()));
+        eventPublisher.publishEvent(AuditEvent.link(AuditEvent.Action.LINK_RESTORED, id, link.getReferenceCode(),
+            "fullUrl=" + link.getFullUrl()));
+        return link;
+    }
+    
+    @Transactional(readOnly = true)
+    public Page<Link> getArchivedLinks(Pageable pageable) {
+        return linkRepository.findArchived(MarketScope.current(),
+            PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+    }
+    
+    /**
+     * Market of a new link: a scoped admin's own, else the requested one, else the default market
+     */
+    static String marketFor(LinkRequest request) {
+        String market = MarketScope.resolve(request.getMarket());
+        return market != null ? market : Link.DEFAULT_MARKET;
+    }
+    
+    /**
+     * Moves a link to the requested market; only unscoped admins can actually change it
+     */
+    static void applyMarket(Link link, LinkRequest request) {
+        String market = MarketScope.resolve(request.getMarket());
+        if (market != null) {
+            link.setMarket(market);
+        }
+    }
+    
+    /**
+     * Changed fields as "field: old -> new" pairs for the audit trail
+     */
+    static String describeChanges(Link link, LinkRequest request) {
+        StringBuilder changes = new StringBuilder();
+        appendChange(changes, "referenceCode", link.getReferenceCode(), request.getReferenceCode());
+        appendChange(changes, "fullUrl", link.getFullUrl(), request.getFullUrl());
+        appendChange(changes, "description", link.getDescription(), request.getDescription());
+        appendChange(changes, "brandName", link.getBrandName(), request.getBrandName());
+        if (request.getMarket() != null) {
+            appendChange(changes, "market", link.getMarket(), MarketScope.resolve(request.getMarket()));
+        }
+        appendChange(changes, "validFrom", Objects.toString(link.getValidFrom(), null), Objects.toString(request.getValidFrom(), null));
+        appendChange(changes, "validUntil", Objects.toString(link.getValidUntil(), null), Objects.toString(request.getValidUntil(), null));
+        return changes.length() == 0 ? "no changes" : changes.toString();
     }
     
+    private static void appendChange(StringBuilder changes, String field, String before, String after) {
+        if (!Objects.equals(before, after)) {
+            if (changes.length() > 0) {
+                changes.append("; ");
+            }
+            changes.append(field).append(": ").append(before).append(" -> ").append(after);
+        }
+    }
+    
+    // Reads run without a transaction of their own so that cache hits never touch the connection pool;
+    // once the compact catalog is loaded it answers them, the caches only cover the time before
+    
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Optional<Link> getLinkById(Long id) {
-        return linkRepository.findById(id);
+        return findLinkById(id).filter(link -> MarketScope.allows(link.getMarket()));
     }
     
-    public Optional<Link> getLinkByReferenceCode(String referenceCode) {
-        return linkRepository.findByReferenceCodeIgnoreCase(referenceCode);
+    private Optional<Link> findLinkById(Long id) {
+        if (linkCatalog.isReady()) {
+            return linkCatalog.findById(id);
+        }
+        Link cached = linkCache.getById(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long generation = linkCache.generation();
+        Optional<Link> link = loadForCache(linkCache.requiresPrimaryReads(), () -> linkRepository.findById(id));
+        link.ifPresent(l -> linkCache.putById(l, generation));
+        return link;
+    }
+    
+    /**
+     * @param market null to accept a link of any market; the catalog then probes every shard
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public Optional<Link> getLinkByReferenceCode(String referenceCode, String market) {
+        if (linkCatalog.isReady()) {
+            return linkCatalog.findByReferenceCode(referenceCode, market);
+        }
+        return loadByReferenceCode(referenceCode).filter(link -> market == null || market.equals(link.getMarket()));
     }
     
+    private Optional<Link> loadByReferenceCode(String referenceCode) {
+        Optional<Link> cached = linkCache.getByReferenceCode(referenceCode);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = linkCache.generation();
+        String key = generation + ":" + referenceCode.toLowerCase(Locale.ROOT);
+        boolean primary = linkCache.requiresPrimaryReads();
+        return referenceCodeLoads.execute(key, () -> {
+            Optional<Link> link = loadForCache(primary, () -> linkRepository.findByReferenceCodeIgnoreCase(referenceCode));
+            linkCache.putByReferenceCode(referenceCode, link, generation);
+            return link;
+        });
+    }
+    
+    /**
+     * Public resolution: only links inside their validity window (status ACTIVE) resolve.
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public Optional<Link> resolveReferenceCode(String referenceCode, String market) {
+        return getLinkByReferenceCode(referenceCode, market).filter(link -> Link.STATUS_ACTIVE.equals(link.getStatus()));
+    }
+    
+    /**
+     * Public resolution of a pinned version. The current version is answered by the same lookup as
+     * an unpinned code; only earlier versions need the version history.
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public Optional<Link> resolveReferenceCode(String referenceCode, String market, int version) {
+        return resolveReferenceCode(referenceCode, market).flatMap(link -> {
+            if (link.getCurrentVersion() != null && link.getCurrentVersion() == version) {
+                return Optional.of(link);
+            }
+            return linkVersionService.getVersion(link.getId(), version)
+                .map(pinned -> link.atVersion(pinned.getVersion(), pinned.getFullUrl()));
+        });
+    }
+    
+    @Transactional(readOnly = true)
     public Page<Link> getAllLinks(Pageable pageable) {
         return linkRepository.findAll(pageable);
     }
     
+    /**
+     * Admin listing filtered by market, brand and/or status (null = any); a scoped admin only
+     * ever lists their own market. Served from the facet bitmaps when ordered by id, so the cost
+     * is one primary-key fetch of the page.
+     */
+    @Transactional(readOnly = true)
+    public Page<Link> getLinks(String market, String brand, String status, Pageable pageable) {
+        market = MarketScope.resolve(market);
+        brand = blankToNull(brand);
+        status = blankToNull(status);
+        if (market == null && brand == null && status == null) {
+            return getAllLinks(pageable);
+        }
+        Sort.Order idOrder = pageable.getSort().getOrderFor("id");
+        boolean idOrdered = pageable.getSort().isUnsorted() ||
+            (idOrder != null && pageable.getSort().stream().count() == 1);
+        if (!facetIndex.isReady() || !idOrdered) {
+            return linkRepository.findByFacets(market, brand, status, pageable);
+        }
+        
+        RoaringBitmap matching = facetIndex.filter(market, brand, status);
+        boolean descending = idOrder != null && idOrder.isDescending();
+        List<Long> pageIds = LinkFacetIndex.page(matching, pageable.getOffset(), pageable.getPageSize(), descending);
+        return new PageImpl<>(findAllInOrder(pageIds), pageable, matching.getLongCardinality());
+    }
+    
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Page<Link> searchLinks(String searchTerm, Pageable pageable) {
-        return linkRepository.findBySearchTerm(searchTerm, pageable);
+        return searchLinks(searchTerm, null, null, pageable);
+    }
+    
+    /**
+     * Search results are cached as id lists under the normalized query; a hit costs a hash
+     * lookup plus a primary-key fetch of the page rows that are not in the link cache. A search
+     * scoped to a market only scans that market's catalog shard.
+     *
+     * Search is a public route, so the market is only the requested one, never the caller's scope:
+     * anyone can leave out a token, so scoping by it would restrict nothing. For the same reason it
+     * only ever returns ACTIVE links, like the reference lookup; scheduled and expired links are
+     * listed through /links.
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public Page<Link> searchLinks(String searchTerm, String market, String brand, Pageable pageable) {
+        String query = SearchResultCache.normalize(searchTerm);
+        market = MarketScope.normalize(market);
+        brand = blankToNull(brand);
+        String status = Link.STATUS_ACTIVE;
+        
+        SearchResultCache.CachedPage cached = searchCache.get(query, market, brand, status, pageable);
+        if (cached != null) {
+            List<Long> ids = new ArrayList<>(cached.getIds().length);
+            for (long id : cached.getIds()) {
+                ids.add(id);
+            }
+            return new PageImpl<>(findAllInOrder(ids), pageable, cached.getTotal());
+        }
+        
+        long version = searchCache.catalogVersion();
+        String filterMarket = market;
+        String filterBrand = brand;
+        String filterStatus = status;
+        String key = version + ":" + SearchResultCache.key(query, market, brand, status, pageable);
+        boolean primary = searchCache.requiresPrimaryReads() || linkCache.requiresPrimaryReads();
+        return searchLoads.execute(key, () -> loadForCache(primary, () -> {
+            Page<Link> result;
+            if (linkCatalog.isReady() && isReferenceCodeOrdered(pageable)) {
+                CompactLinkCatalog.SearchPage page = linkCatalog.search(query, filterMarket, filterBrand, filterStatus,
+                    Math.toIntExact(pageable.getOffset()), pageable.getPageSize());
+                result = new PageImpl<>(page.getContent(), pageable, page.getTotal());
+            } else {
+                result = linkRepository.findBySearchTermAndFacets(query, filterMarket, filterBrand, filterStatus, pageable);
+            }
+            searchCache.put(query, filterMarket, filterBrand, filterStatus, pageable, result, version);
+            return result;
+        }));
+    }
+    
+    public LinkFacetIndex.FacetCounts getFacetCounts(String market, String brand, String status) {
+        requireFacetIndex();
+        return facetIndex.counts(facetIndex.filter(MarketScope.resolve(market), null, null),
+            blankToNull(brand), blankToNull(status));
+    }
+    
+    /**
+     * Facet counts over all matches of a search. The matches come from a scan of the compact
+     * catalog and are cached per normalized query until the next link change. Before the catalog
+     * is loaded they are read from the database, but only up to maxDatabaseFacetMatches ids;
+     * a broader query is refused rather than materializing most of the table.
+     */
+    @Transactional(readOnly = true)
+    public LinkFacetIndex.FacetCounts getSearchFacetCounts(String searchTerm, String market, String brand) {
+        requireFacetIndex();
+        String query = SearchResultCache.normalize(searchTerm);
+        // Public route like search: the requested market only
+        String filterMarket = MarketScope.normalize(market);
+        RoaringBitmap matches = searchCache.getMatches(query, filterMarket);
+        if (matches == null) {
+            long version = searchCache.catalogVersion();
+            String key = version + ":" + query + "\u0000" + (filterMarket == null ? "" : filterMarket);
+            boolean primary = searchCache.requiresPrimaryReads();
+            matches = facetLoads.execute(key, () -> {
+                RoaringBitmap loaded = linkCatalog.isReady()
+                    ? linkCatalog.matchingIds(query, filterMarket)
+                    : loadForCache(primary, () -> loadSearchMatches(query, filterMarket));
+                searchCache.putMatches(query, filterMarket, loaded, version);
+                return loaded;
+            });
+        }
+        // Public like search: only ACTIVE links are counted. The cached matches are shared, so and into a copy
+        RoaringBitmap active = RoaringBitmap.and(matches, facetIndex.filter(null, null, Link.STATUS_ACTIVE));
+        return facetIndex.counts(active, blankToNull(brand), null);
+    }
+    
+    private RoaringBitmap loadSearchMatches(String query, String market) {
+        List<Long> ids = linkRepository.findIdsBySearchTerm(query, PageRequest.of(0, maxDatabaseFacetMatches + 1));
+        if (ids.size() > maxDatabaseFacetMatches) {
+            throw new IllegalStateException("Search facets for broad queries are not available until the link catalog is loaded");
+        }
+        RoaringBitmap matches = LinkFacetIndex.bitmapOf(ids);
+        matches.and(facetIndex.filter(market, null, null));
+        return matches;
+    }
+    
+    /**
+     * Runs a load whose result is about to be cached; right after an invalidation it must not be
+     * answered by a replica that has not applied the change yet. The flag is taken before the load
+     * together with the cache generation or version it is stored under.
+     */
+    private static <T> T loadForCache(boolean primary, Supplier<T> load) {
+        return primary ? ReplicaRoutingDataSource.readFromPrimary(load) : load.get();
+    }
+    
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+    
+    private static boolean isReferenceCodeOrdered(Pageable pageable) {
+        Sort.Order order = pageable.getSort().getOrderFor("referenceCode");
+        return pageable.getSort().isUnsorted() ||
+            (order != null && order.isAscending() && pageable.getSort().stream().count() == 1);
+    }
+    
+    private void requireFacetIndex() {
+        if (!facetIndex.isReady()) {
+            throw new IllegalStateException("Facet index is not available yet");
+        }
+    }
+    
+    private List<Link> findAllInOrder(List<Long> ids) {
+        Map<Long, Link> byId = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        boolean fromCatalog = linkCatalog.isReady();
+        for (Long id : ids) {
+            Link cached = fromCatalog ? linkCatalog.findById(id).orElse(null) : linkCache.getById(id);
+            if (cached != null) {
+                byId.put(id, cached);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty() && !fromCatalog) {
+            long generation = linkCache.generation();
+            loadForCache(linkCache.requiresPrimaryReads(), () -> linkRepository.findAllById(missing)).forEach(link -> {
+                byId.put(link.getId(), link);
+                linkCache.putById(link, generation);
+            });
+        }
+        List<Link> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Link link = byId.get(id);
+            if (link != null) {
+                ordered.add(link);
+            }
+        }
+        return ordered;
     }
     
+    @Transactional(readOnly = true)
     public boolean existsByReferenceCode(String referenceCode) {
         return linkRepository.existsByReferenceCodeIgnoreCase(referenceCode);
     }
@@ -91,6 +483,10 @@ public class LinkService {
             throw new RuntimeException("Reference code already exists: " + link.getReferenceCode());
         }
         
-        return linkRepository.save(link);
+        Link savedLink = linkRepository.save(link);
+        eventPublisher.publishEvent(LinkChangedEvent.created(savedLink.getId(), savedLink.getReferenceCode()));
+        eventPublisher.publishEvent(AuditEvent.link(AuditEvent.Action.LINK_CREATED, savedLink.getId(),
+            savedLink.getReferenceCode(), "source=excel; fullUrl=" + savedLink.getFullUrl()));
+        return savedLink;
     }
 }
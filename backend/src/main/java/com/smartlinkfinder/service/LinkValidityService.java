@@ -0,0 +1,259 @@
+package com.smartlinkfinder.service;
+
+import com.smartlinkfinder.event.LinkChangedEvent;
+import com.smartlinkfinder.validity.TimingWheel;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Flips links between SCHEDULED, ACTIVE and EXPIRED when their validity window opens or closes.
+ *
+ * Upcoming transitions (the next link.validity.horizon-hours) are read from the partial indexes of
+ * V9__link_validity.sql into a TimingWheel owned by one "link-validity" thread, and re-read every
+ * link.validity.refill-minutes and after a RELOAD; nothing ever scans the whole links table. Links
+ * created or changed in between are queued by the event listener and re-read by that thread.
+ *
+ * A due link is flipped by an UPDATE that re-checks the window, so stale wheel entries and other
+ * instances flipping the same link are harmless. Each flip publishes a LinkChangedEvent, which
+ * invalidates the caches and updates the catalog; public resolution only serves ACTIVE links.
+ */
+@Service
+public class LinkValidityService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LinkValidityService.class);
+
+    private static final String UPCOMING_QUERY =
+        "SELECT id, valid_from FROM links WHERE status = 'SCHEDULED' AND valid_from < ?::timestamp " +
+        "UNION ALL " +
+        "SELECT id, valid_until FROM links WHERE status = 'ACTIVE' AND valid_until < ?::timestamp";
+
+    private static final String CHANGED_QUERY =
+        "SELECT id, CASE WHEN status = 'SCHEDULED' THEN valid_from ELSE valid_until END FROM links " +
+        "WHERE id = ANY (?) AND status IN ('SCHEDULED', 'ACTIVE')";
+
+    private static final String NEW_STATUS = "CASE WHEN valid_until <= ?::timestamp THEN 'EXPIRED' ELSE 'ACTIVE' END";
+
+    // content_hash covers the status, so it is recomputed with the same expression as
+    // V4__link_content_hash.sql and Link.contentHash; otherwise the next Excel re-import of these
+    // rows would see a stale hash
+    private static final String TRANSITION_STATEMENT =
+        "UPDATE links SET status = " + NEW_STATUS + ", " +
+        "content_hash = encode(sha256(convert_to(COALESCE(full_url, '') || E'\\n' || " + NEW_STATUS + ", 'UTF8')), 'hex'), " +
+        "updated_at = ?::timestamp " +
+        "WHERE id = ANY (?) AND status IN ('SCHEDULED', 'ACTIVE') " +
+        "AND ((status = 'SCHEDULED' AND valid_from <= ?::timestamp) OR valid_until <= ?::timestamp) " +
+        "RETURNING id, reference_code, status";
+
+    // One statement per BATCH event's worth of links
+    private static final int MAX_BATCH = LinkChangedEvent.MAX_BATCH_SIZE;
+    private static final int MAX_INDIVIDUAL_EVENTS = 50;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${link.validity.enabled:true}")
+    private boolean enabled;
+
+    @Value("${link.validity.tick-ms:1000}")
+    private long tickMillis;
+
+    @Value("${link.validity.horizon-hours:24}")
+    private long horizonHours;
+
+    @Value("${link.validity.refill-minutes:60}")
+    private long refillMinutes;
+
+    private final ConcurrentLinkedQueue<Long> changed = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean refillRequested = new AtomicBoolean();
+    private volatile boolean running;
+    private Thread worker;
+
+    // Owned by the worker thread
+    private TimingWheel wheel;
+    private final Map<Long, Long> deadlines = new HashMap<>();
+
+    private final AtomicLong activated = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+    private volatile int pending;
+    private volatile long lastRefillMillis;
+    private volatile LocalDateTime lastTransitionAt;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        wheel = new TimingWheel(tickMillis, 64, 4, toMillis(LocalDateTime.now()));
+        running = true;
+        worker = new Thread(this::run, "link-validity");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onLinkChanged(LinkChangedEvent event) {
+        if (!running) {
+            return;
+        }
+        if (event.getType() == LinkChangedEvent.Type.RELOAD) {
+            refillRequested.set(true);
+        } else if (event.getType() != LinkChangedEvent.Type.DELETED) {
+            event.getLinkIds().forEach(changed::offer);
+        }
+    }
+
+    private void run() {
+        long nextRefill = 0;
+        while (running) {
+            try {
+                List<Long> due = new ArrayList<>();
+                long now = toMillis(LocalDateTime.now());
+                if (refillRequested.getAndSet(false) || now >= nextRefill) {
+                    refill(now, due);
+                    nextRefill = now + refillMinutes * 60_000;
+                }
+                rereadChanged(now, due);
+                wheel.advanceTo(now, (linkId, deadline) -> {
+                    if (deadlines.remove(linkId, deadline)) {
+                        due.add(linkId);
+                    }
+                });
+                if (!due.isEmpty()) {
+                    transition(due);
+                }
+                pending = deadlines.size();
+                Thread.sleep(tickMillis - Math.floorMod(toMillis(LocalDateTime.now()), tickMillis));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Link validity scheduler failed, retrying", e);
+                try {
+                    Thread.sleep(tickMillis * 5);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void refill(long now, List<Long> due) {
+        long start = System.currentTimeMillis();
+        Timestamp horizon = Timestamp.valueOf(LocalDateTime.now().plusHours(horizonHours));
+        jdbcTemplate.query(UPCOMING_QUERY, resultSet -> {
+            schedule(resultSet.getLong(1), toMillis(resultSet.getTimestamp(2).toLocalDateTime()), due);
+        }, horizon, horizon);
+        lastRefillMillis = System.currentTimeMillis() - start;
+        logger.debug("Loaded {} upcoming link transitions in {} ms", deadlines.size() + due.size(), lastRefillMillis);
+    }
+
+    private void rereadChanged(long now, List<Long> due) {
+        Set<Long> ids = new LinkedHashSet<>();
+        for (Long id = changed.poll(); id != null; id = changed.poll()) {
+            ids.add(id);
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+        long horizon = now + horizonHours * 3_600_000;
+        jdbcTemplate.query(CHANGED_QUERY, resultSet -> {
+            Timestamp next = resultSet.getTimestamp(2);
+            if (next != null && toMillis(next.toLocalDateTime()) < horizon) {
+                schedule(resultSet.getLong(1), toMillis(next.toLocalDateTime()), due);
+            }
+        }, (Object) ids.toArray(new Long[0]));
+    }
+
+    private void schedule(long linkId, long deadline, List<Long> due) {
+        Long previous = deadlines.get(linkId);
+        if (previous != null && previous == deadline) {
+            return;
+        }
+        if (wheel.schedule(linkId, deadline)) {
+            deadlines.put(linkId, deadline);
+        } else {
+            deadlines.remove(linkId);
+            due.add(linkId);
+        }
+    }
+
+    private void transition(List<Long> due) {
+        for (int from = 0; from < due.size(); from += MAX_BATCH) {
+            List<Long> batch = due.subList(from, Math.min(from + MAX_BATCH, due.size()));
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            List<LinkChangedEvent> events = new ArrayList<>();
+            jdbcTemplate.query(TRANSITION_STATEMENT, resultSet -> {
+                String code = resultSet.getString(2);
+                events.add(LinkChangedEvent.updated(resultSet.getLong(1), code, code));
+                if ("EXPIRED".equals(resultSet.getString(3))) {
+                    expired.incrementAndGet();
+                } else {
+                    activated.incrementAndGet();
+                }
+            }, now, now, now, batch.toArray(new Long[0]), now, now);
+            if (events.isEmpty()) {
+                continue;
+            }
+            lastTransitionAt = now.toLocalDateTime();
+            logger.info("Validity window transition for {} links", events.size());
+            // Listeners (including this one) re-read the links, so a newly active link gets its expiry scheduled
+            if (events.size() > MAX_INDIVIDUAL_EVENTS) {
+                eventPublisher.publishEvent(LinkChangedEvent.batch(events.stream().map(LinkChangedEvent::getLinkId).toList()));
+            } else {
+                events.forEach(eventPublisher::publishEvent);
+            }
+        }
+    }
+
+    // Local date-times as pseudo epoch millis, matching how links store their timestamps
+    private static long toMillis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("running", running);
+        stats.put("pending", pending);
+        stats.put("activated", activated.get());
+        stats.put("expired", expired.get());
+        stats.put("lastRefillMillis", lastRefillMillis);
+        stats.put("lastTransitionAt", lastTransitionAt);
+        return stats;
+    }
+}
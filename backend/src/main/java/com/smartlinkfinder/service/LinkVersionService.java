@@ -0,0 +1,73 @@
+package com.smartlinkfinder.service;
+
+import com.smartlinkfinder.cache.TtlCache;
+import com.smartlinkfinder.dto.LinkVersion;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * URL history of links (see V10__link_versions.sql).
+ *
+ * Only pinned and historical versions come through here: the current version of a link is part
+ * of the link itself and resolves with the reference code lookup. A version row never changes
+ * once written, so pinned lookups are cached without invalidation; the TTL only bounds how long
+ * the history of a link that was moved to cold storage lingers.
+ */
+@Service
+public class LinkVersionService {
+
+    private static final String VERSION_COLUMNS = "SELECT link_id, version, full_url, created_at FROM link_versions ";
+
+    private static final RowMapper<LinkVersion> VERSION_MAPPER = (resultSet, rowNum) -> new LinkVersion(
+        resultSet.getLong(1), resultSet.getInt(2), resultSet.getString(3), resultSet.getTimestamp(4).toLocalDateTime());
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final TtlCache<Long, LinkVersion> pinned;
+
+    public LinkVersionService(@Value("${link.versions.cache.max-size:10000}") int maxSize,
+                              @Value("${link.versions.cache.ttl-seconds:3600}") long ttlSeconds) {
+        this.pinned = new TtlCache<>(maxSize, ttlSeconds * 1000);
+    }
+
+    public Optional<LinkVersion> getVersion(long linkId, int version) {
+        if (version < 1) {
+            return Optional.empty();
+        }
+        // Versions stay far below 2^32, so link id and version pack into one key
+        long key = linkId << 32 | version;
+        LinkVersion cached = pinned.get(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<LinkVersion> loaded = jdbcTemplate.query(VERSION_COLUMNS + "WHERE link_id = ? AND version = ?",
+            VERSION_MAPPER, linkId, version).stream().findFirst();
+        // A missing version may still be written later, so only hits are cached
+        loaded.ifPresent(found -> pinned.put(key, found));
+        return loaded;
+    }
+
+    /**
+     * All versions of a link, newest first
+     */
+    public List<LinkVersion> getHistory(long linkId) {
+        return jdbcTemplate.query(VERSION_COLUMNS + "WHERE link_id = ? ORDER BY version DESC", VERSION_MAPPER, linkId);
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("cachedVersions", pinned.size());
+        stats.put("hits", pinned.getHits());
+        stats.put("misses", pinned.getMisses());
+        return stats;
+    }
+}
@@ -146,6 +146,11 @@ public class PersistentDataInitializationService {
                 "ACTIVE"
             )
         );
+        // The markets V11__link_markets.sql derives from these URLs
+        String[] markets = { "EGYPT", "INDIA", "PAKISTAN", "GULF", "SAUDI" };
+        for (int i = 0; i < markets.length; i++) {
+            sampleLinks.get(i).setMarket(markets[i]);
+        }
         
         for (Link link : sampleLinks) {
             try {
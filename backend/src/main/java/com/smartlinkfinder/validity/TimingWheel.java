@@ -0,0 +1,156 @@
+package com.smartlinkfinder.validity;
+
+import java.util.Arrays;
+
+/**
+ * Hierarchical timing wheel for long keys.
+ *
+ * Level 0 has one slot per tick; each slot of level n spans a full revolution of level n - 1. A
+ * key is filed in the lowest level whose range covers its deadline and is moved down (cascaded)
+ * when the wheel reaches its slot, so scheduling is O(1) and each advance touches only the slots
+ * that are due, independent of how many keys are waiting. Deadlines beyond the top level are
+ * parked in its furthest slot and re-filed when it comes around.
+ *
+ * Never fires early: a deadline is rounded up to the next tick. Keys are not de-duplicated and
+ * cannot be cancelled; callers ignore stale expiries. Not thread-safe.
+ */
+public class TimingWheel {
+
+    /**
+     * Receives due keys together with the deadline they were scheduled for
+     */
+    public interface Expiry {
+        void expired(long key, long deadlineMillis);
+    }
+
+    private final long tickMillis;
+    private final int bits;
+    private final int mask;
+    private final int levels;
+    private final Bucket[] buckets;
+    private long currentTick;
+    private int size;
+
+    public TimingWheel(long tickMillis, int slotsPerLevel, int levels, long startMillis) {
+        if (tickMillis < 1 || levels < 1 || slotsPerLevel < 2 || Integer.bitCount(slotsPerLevel) != 1) {
+            throw new IllegalArgumentException("Need tickMillis >= 1, levels >= 1 and a power-of-two slotsPerLevel");
+        }
+        if ((long) Integer.numberOfTrailingZeros(slotsPerLevel) * levels > 62) {
+            throw new IllegalArgumentException("Wheel span does not fit in a long");
+        }
+        this.tickMillis = tickMillis;
+        this.bits = Integer.numberOfTrailingZeros(slotsPerLevel);
+        this.mask = slotsPerLevel - 1;
+        this.levels = levels;
+        this.buckets = new Bucket[slotsPerLevel * levels];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new Bucket();
+        }
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+    }
+
+    /**
+     * @return false if the deadline is already due (nothing is scheduled, the caller handles it)
+     */
+    public boolean schedule(long key, long deadlineMillis) {
+        long deadlineTick = Math.floorDiv(deadlineMillis, tickMillis) + (Math.floorMod(deadlineMillis, tickMillis) == 0 ? 0 : 1);
+        if (deadlineTick <= currentTick) {
+            return false;
+        }
+        file(key, deadlineMillis, deadlineTick);
+        size++;
+        return true;
+    }
+
+    /**
+     * Moves the wheel forward to the given time, handing every key that became due to expiry in
+     * deadline order (by tick).
+     */
+    public void advanceTo(long nowMillis, Expiry expiry) {
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        while (currentTick < targetTick) {
+            currentTick++;
+            for (int level = 1; level < levels; level++) {
+                // A level is cascaded when every level below it has wrapped around
+                if ((currentTick & ((1L << (bits * level)) - 1)) != 0) {
+                    break;
+                }
+                cascade(level, (int) ((currentTick >>> (bits * level)) & mask), expiry);
+            }
+            Bucket due = buckets[(int) (currentTick & mask)];
+            for (int i = 0; i < due.size; i++) {
+                size--;
+                expiry.expired(due.keys[i], due.deadlines[i]);
+            }
+            due.clear();
+        }
+    }
+
+    public int size() { return size; }
+
+    public long tickMillis() { return tickMillis; }
+
+    /**
+     * @return the time covered without parking, from now
+     */
+    public long spanMillis() { return tickMillis << (bits * levels); }
+
+    private void cascade(int level, int slot, Expiry expiry) {
+        Bucket bucket = buckets[level * (mask + 1) + slot];
+        if (bucket.size == 0) {
+            return;
+        }
+        long[] keys = Arrays.copyOf(bucket.keys, bucket.size);
+        long[] deadlines = Arrays.copyOf(bucket.deadlines, bucket.size);
+        bucket.clear();
+        for (int i = 0; i < keys.length; i++) {
+            long deadlineTick = Math.floorDiv(deadlines[i], tickMillis) + (Math.floorMod(deadlines[i], tickMillis) == 0 ? 0 : 1);
+            if (deadlineTick <= currentTick) {
+                size--;
+                expiry.expired(keys[i], deadlines[i]);
+            } else {
+                file(keys[i], deadlines[i], deadlineTick);
+            }
+        }
+    }
+
+    private void file(long key, long deadlineMillis, long deadlineTick) {
+        long delta = deadlineTick - currentTick;
+        for (int level = 0; level < levels; level++) {
+            if (delta < 1L << (bits * (level + 1))) {
+                int slot = (int) ((deadlineTick >>> (bits * level)) & mask);
+                buckets[level * (mask + 1) + slot].add(key, deadlineMillis);
+                return;
+            }
+        }
+        // Beyond the wheel: park in the furthest top-level slot, re-filed when it cascades
+        int top = levels - 1;
+        long parkedTick = currentTick + (1L << (bits * levels)) - 1;
+        int slot = (int) ((parkedTick >>> (bits * top)) & mask);
+        buckets[top * (mask + 1) + slot].add(key, deadlineMillis);
+    }
+
+    private static final class Bucket {
+        private long[] keys = new long[4];
+        private long[] deadlines = new long[4];
+        private int size;
+
+        void add(long key, long deadlineMillis) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                deadlines = Arrays.copyOf(deadlines, size * 2);
+            }
+            keys[size] = key;
+            deadlines[size] = deadlineMillis;
+            size++;
+        }
+
+        void clear() {
+            size = 0;
+            if (keys.length > 64) {
+                keys = new long[4];
+                deadlines = new long[4];
+            }
+        }
+    }
+}
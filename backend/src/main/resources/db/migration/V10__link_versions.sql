@@ -0,0 +1,50 @@
+-- Version history of link URLs. Every link starts at version 1; each write that changes full_url
+-- bumps links.current_version and records the new URL here. Maintained by triggers so that every
+-- write path (entity saves, the bulk API, the set-based Excel upsert) is covered.
+-- The current version is resolved from the links row itself; this table only serves pinned
+-- versions (/public/link/{code}@{version}) and the history listing.
+
+ALTER TABLE links ADD COLUMN IF NOT EXISTS current_version INTEGER NOT NULL DEFAULT 1;
+
+CREATE TABLE IF NOT EXISTS link_versions (
+    link_id     BIGINT NOT NULL REFERENCES links (id) ON DELETE CASCADE,
+    version     INTEGER NOT NULL,
+    full_url    VARCHAR(2048) NOT NULL,
+    created_at  TIMESTAMP(6) NOT NULL DEFAULT now(),
+    PRIMARY KEY (link_id, version)
+);
+
+INSERT INTO link_versions (link_id, version, full_url, created_at)
+SELECT id, current_version, full_url, coalesce(updated_at, created_at, now()) FROM links WHERE full_url IS NOT NULL
+ON CONFLICT DO NOTHING;
+
+CREATE OR REPLACE FUNCTION bump_link_version() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        NEW.current_version := 1;
+    ELSIF NEW.full_url IS DISTINCT FROM OLD.full_url THEN
+        NEW.current_version := OLD.current_version + 1;
+    ELSE
+        NEW.current_version := OLD.current_version;
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION record_link_version() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO link_versions (link_id, version, full_url) VALUES (NEW.id, NEW.current_version, NEW.full_url)
+    ON CONFLICT DO NOTHING;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS links_bump_version ON links;
+CREATE TRIGGER links_bump_version
+    BEFORE INSERT OR UPDATE ON links
+    FOR EACH ROW EXECUTE FUNCTION bump_link_version();
+
+DROP TRIGGER IF EXISTS links_record_version ON links;
+CREATE TRIGGER links_record_version
+    AFTER INSERT OR UPDATE OF full_url ON links
+    FOR EACH ROW EXECUTE FUNCTION record_link_version();
@@ -0,0 +1,20 @@
+-- Market (tenant) dimension. Every link belongs to one market; an admin with a market only sees
+-- and changes that market's links, users without one (and every SUPER_ADMIN) see all of them.
+-- Reference codes stay unique across markets because public resolution is by code alone.
+--
+-- Not declaratively partitioned: links(id) is referenced by link_health and link_versions, and a
+-- partitioned table's primary key would have to include market. Instead the lookup indexes lead
+-- with market, and CompactLinkCatalog keeps one shard per market, so a scoped lookup or search
+-- only touches its own market.
+
+ALTER TABLE links ADD COLUMN IF NOT EXISTS market VARCHAR(32) NOT NULL DEFAULT 'GLOBAL';
+ALTER TABLE users ADD COLUMN IF NOT EXISTS market VARCHAR(32);
+
+-- Existing URLs carry the market as a path segment: .../pharma/egypt/singrix/pi_31001_v1.pdf
+UPDATE links SET market = upper(substring(full_url FROM '/pharma/([A-Za-z]+)/'))
+WHERE market = 'GLOBAL' AND full_url ~ '/pharma/[A-Za-z]+/';
+
+CREATE INDEX IF NOT EXISTS links_active_market_lower_reference_code_idx ON links (market, lower(reference_code))
+    WHERE status <> 'ARCHIVED';
+CREATE INDEX IF NOT EXISTS links_active_market_brand_name_status_idx ON links (market, brand_name, status)
+    WHERE status <> 'ARCHIVED';
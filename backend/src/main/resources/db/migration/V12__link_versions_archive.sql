@@ -0,0 +1,14 @@
+-- Cold storage for the version history of archived links. link_versions rows are removed by
+-- ON DELETE CASCADE when LinkArchiveService moves a link out of links, so the same statement
+-- copies them here first. Like links_archive, no foreign keys.
+CREATE TABLE IF NOT EXISTS link_versions_archive (
+    link_id     BIGINT NOT NULL,
+    version     INTEGER NOT NULL,
+    full_url    VARCHAR(2048) NOT NULL,
+    created_at  TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (link_id, version)
+);
+
+-- Columns added to links after V8 that the cold copy should keep as well
+ALTER TABLE links_archive ADD COLUMN IF NOT EXISTS market VARCHAR(32);
+ALTER TABLE links_archive ADD COLUMN IF NOT EXISTS current_version INTEGER;
@@ -0,0 +1,28 @@
+-- Market of each change log entry, so a market-scoped admin's delta sync only reads (and only
+-- learns about) their own market. A link moved to another market is logged as a DELETE in its old
+-- market followed by the UPDATE in its new one, so clients of the old market drop it.
+-- Entries written before this migration take the market their link has now; tombstones of links
+-- that are gone keep a NULL market and are only returned to unscoped callers.
+
+ALTER TABLE link_changes ADD COLUMN IF NOT EXISTS market VARCHAR(32);
+
+UPDATE link_changes c SET market = l.market FROM links l WHERE l.id = c.link_id AND c.market IS NULL;
+
+CREATE INDEX IF NOT EXISTS link_changes_market_tx_seq_idx ON link_changes (market, tx, seq);
+
+CREATE OR REPLACE FUNCTION record_link_change() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        INSERT INTO link_changes (link_id, reference_code, operation, market)
+        VALUES (OLD.id, OLD.reference_code, 'D', OLD.market);
+        RETURN OLD;
+    END IF;
+    IF TG_OP = 'UPDATE' AND NEW.market IS DISTINCT FROM OLD.market THEN
+        INSERT INTO link_changes (link_id, reference_code, operation, market)
+        VALUES (OLD.id, OLD.reference_code, 'D', OLD.market);
+    END IF;
+    INSERT INTO link_changes (link_id, reference_code, operation, market)
+    VALUES (NEW.id, NEW.reference_code, CASE WHEN TG_OP = 'INSERT' THEN 'I' ELSE 'U' END, NEW.market);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,3 @@
+-- links_archive was created with the pre-V4 width of full_url. A longer URL made the whole cold
+-- storage batch fail, and since batches are ordered by archived_at the same row failed every night.
+ALTER TABLE links_archive ALTER COLUMN full_url TYPE VARCHAR(2048);
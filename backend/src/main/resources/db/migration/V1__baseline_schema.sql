@@ -0,0 +1,30 @@
+-- Baseline: the schema previously created by spring.jpa.hibernate.ddl-auto=update.
+-- Existing databases are baselined at version 1 (spring.flyway.baseline-on-migrate),
+-- so this script only runs against an empty database.
+
+CREATE TABLE IF NOT EXISTS users (
+    id          BIGSERIAL PRIMARY KEY,
+    created_at  TIMESTAMP(6),
+    email       VARCHAR(255),
+    password    VARCHAR(255),
+    role        VARCHAR(255) NOT NULL,
+    updated_at  TIMESTAMP(6),
+    username    VARCHAR(255),
+    CONSTRAINT users_role_check CHECK (role IN ('SUPER_ADMIN', 'ADMIN', 'USER')),
+    CONSTRAINT uk_6dotkott2kjsp8vw4d0m25fb7 UNIQUE (email),
+    CONSTRAINT uk_r43af9ap4edm43mmtq01oddj6 UNIQUE (username)
+);
+
+CREATE TABLE IF NOT EXISTS links (
+    id              BIGSERIAL PRIMARY KEY,
+    brand_name      VARCHAR(100),
+    created_at      TIMESTAMP(6),
+    description     VARCHAR(500),
+    full_url        VARCHAR(255),
+    reference_code  VARCHAR(255),
+    status          VARCHAR(20),
+    updated_at      TIMESTAMP(6),
+    added_by_id     BIGINT,
+    CONSTRAINT uk_ock595460bkyh2oxgy7romt9h UNIQUE (reference_code),
+    CONSTRAINT fkg640rmx7xpfmrhkb5xldya95e FOREIGN KEY (added_by_id) REFERENCES users (id)
+);
@@ -0,0 +1,23 @@
+-- Indexes for the queries in LinkRepository and UserRepository.
+-- See backend/benchmark/link-index-plans.sql for the plans before/after at 1M links.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- findByReferenceCodeIgnoreCase / existsByReferenceCodeIgnoreCase: lower(reference_code) = lower(?)
+-- Unique, since reference codes are already treated as case-insensitively unique by LinkService.
+CREATE UNIQUE INDEX IF NOT EXISTS links_lower_reference_code_uidx ON links (lower(reference_code));
+
+-- findBySearchTerm: lower(column) LIKE '%term%' on four columns, combined with a BitmapOr
+CREATE INDEX IF NOT EXISTS links_reference_code_trgm_idx ON links USING gin (lower(reference_code) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS links_description_trgm_idx ON links USING gin (lower(description) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS links_brand_name_trgm_idx ON links USING gin (lower(brand_name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS links_full_url_trgm_idx ON links USING gin (lower(full_url) gin_trgm_ops);
+
+-- Brand/status filtering
+CREATE INDEX IF NOT EXISTS links_brand_name_status_idx ON links (brand_name, status);
+
+-- Links per admin (added_by_id has no index of its own as a foreign key)
+CREATE INDEX IF NOT EXISTS links_added_by_id_idx ON links (added_by_id);
+
+-- findByRoleOrderByCreatedAtDesc
+CREATE INDEX IF NOT EXISTS users_role_created_at_idx ON users (role, created_at DESC);
@@ -0,0 +1,13 @@
+-- Sequence-based ids for links so Hibernate can batch inserts (IDENTITY disables JDBC batching).
+-- Hibernate reserves ids in blocks of 50 (pooled optimizer: nextval returns the top of the block).
+-- The column default stays for plain SQL inserts (data.sql): each default nextval reserves a
+-- whole block of its own and uses its top value, so it can never collide with Hibernate's ids.
+
+CREATE SEQUENCE IF NOT EXISTS links_seq INCREMENT BY 50 MINVALUE 1;
+
+SELECT setval('links_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM links), false);
+
+ALTER TABLE links ALTER COLUMN id SET DEFAULT nextval('links_seq');
+ALTER SEQUENCE links_seq OWNED BY links.id;
+
+DROP SEQUENCE IF EXISTS links_id_seq;
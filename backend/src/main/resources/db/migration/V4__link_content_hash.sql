@@ -0,0 +1,10 @@
+-- Content hash for idempotent Excel re-imports: upserts only touch rows whose hash changed.
+-- Must stay in sync with Link.contentHash(fullUrl, status).
+
+ALTER TABLE links ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64);
+
+UPDATE links
+SET content_hash = encode(sha256(convert_to(COALESCE(full_url, '') || E'\n' || COALESCE(status, ''), 'UTF8')), 'hex');
+
+-- The entity has always validated URLs up to 2048 characters
+ALTER TABLE links ALTER COLUMN full_url TYPE VARCHAR(2048);
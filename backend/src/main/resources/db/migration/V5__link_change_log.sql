@@ -0,0 +1,34 @@
+-- Change log for delta sync (GET /links/changes). Filled by a trigger so that every write path
+-- is covered, including the set-based Excel upsert and batch deletes.
+-- tx is the writing transaction's id: readers only return entries of transactions older than the
+-- oldest one still running, so an entry can never appear behind a cursor that already passed it.
+
+CREATE TABLE IF NOT EXISTS link_changes (
+    seq             BIGSERIAL PRIMARY KEY,
+    tx              XID8 NOT NULL DEFAULT pg_current_xact_id(),
+    link_id         BIGINT NOT NULL,
+    reference_code  VARCHAR(255),
+    operation       CHAR(1) NOT NULL,
+    changed_at      TIMESTAMP(6) NOT NULL DEFAULT now(),
+    CONSTRAINT link_changes_operation_check CHECK (operation IN ('I', 'U', 'D'))
+);
+
+CREATE INDEX IF NOT EXISTS link_changes_tx_seq_idx ON link_changes (tx, seq);
+CREATE INDEX IF NOT EXISTS link_changes_changed_at_idx ON link_changes (changed_at);
+
+CREATE OR REPLACE FUNCTION record_link_change() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        INSERT INTO link_changes (link_id, reference_code, operation) VALUES (OLD.id, OLD.reference_code, 'D');
+        RETURN OLD;
+    END IF;
+    INSERT INTO link_changes (link_id, reference_code, operation)
+    VALUES (NEW.id, NEW.reference_code, CASE WHEN TG_OP = 'INSERT' THEN 'I' ELSE 'U' END);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS links_record_change ON links;
+CREATE TRIGGER links_record_change
+    AFTER INSERT OR UPDATE OR DELETE ON links
+    FOR EACH ROW EXECUTE FUNCTION record_link_change();
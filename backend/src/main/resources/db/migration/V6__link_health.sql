@@ -0,0 +1,20 @@
+-- Results of the background URL health checker (LinkHealthService), one row per checked link.
+-- Kept out of the links table so that checks neither touch updated_at/content_hash nor fire the
+-- link_changes trigger and cache invalidations.
+
+CREATE TABLE IF NOT EXISTS link_health (
+    link_id               BIGINT PRIMARY KEY REFERENCES links (id) ON DELETE CASCADE,
+    outcome               VARCHAR(20) NOT NULL,
+    http_status           INTEGER,
+    error                 VARCHAR(500),
+    etag                  VARCHAR(255),
+    last_modified         VARCHAR(64),
+    checked_url           VARCHAR(2048) NOT NULL,
+    consecutive_failures  INTEGER NOT NULL DEFAULT 0,
+    last_checked_at       TIMESTAMP(6) NOT NULL,
+    next_check_at         TIMESTAMP(6) NOT NULL,
+    CONSTRAINT link_health_outcome_check CHECK (outcome IN ('OK', 'BROKEN', 'UNREACHABLE'))
+);
+
+CREATE INDEX IF NOT EXISTS link_health_next_check_at_idx ON link_health (next_check_at);
+CREATE INDEX IF NOT EXISTS link_health_outcome_idx ON link_health (outcome) WHERE outcome <> 'OK';
@@ -0,0 +1,28 @@
+-- Append-only audit trail of admin mutations and logins, written in batches by AuditLog.
+-- Rows can only be inserted; updates and deletes are rejected by a trigger.
+
+CREATE TABLE IF NOT EXISTS audit_log (
+    id           BIGSERIAL PRIMARY KEY,
+    occurred_at  TIMESTAMP(6) NOT NULL,
+    actor        VARCHAR(100) NOT NULL,
+    action       VARCHAR(40) NOT NULL,
+    target_type  VARCHAR(20),
+    target_id    BIGINT,
+    target_key   VARCHAR(255),
+    details      VARCHAR(2000)
+);
+
+CREATE INDEX IF NOT EXISTS audit_log_occurred_at_idx ON audit_log (occurred_at);
+CREATE INDEX IF NOT EXISTS audit_log_actor_idx ON audit_log (actor, occurred_at);
+CREATE INDEX IF NOT EXISTS audit_log_target_idx ON audit_log (target_type, target_id);
+
+CREATE OR REPLACE FUNCTION reject_audit_log_change() RETURNS trigger AS $$
+BEGIN
+    RAISE EXCEPTION 'audit_log is append-only';
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS audit_log_append_only ON audit_log;
+CREATE TRIGGER audit_log_append_only
+    BEFORE UPDATE OR DELETE ON audit_log
+    FOR EACH ROW EXECUTE FUNCTION reject_audit_log_change();
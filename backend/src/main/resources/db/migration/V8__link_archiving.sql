@@ -0,0 +1,51 @@
+-- Soft delete: deleting a link sets status = 'ARCHIVED' instead of removing the row.
+-- Lookup and search indexes only cover live rows, so they stay the size of the active catalog no
+-- matter how much history accumulates. Archived rows are moved to links_archive (cold storage)
+-- by LinkArchiveService once they are older than link.archive.cold-after-days.
+
+UPDATE links SET status = 'ACTIVE' WHERE status IS NULL;
+ALTER TABLE links ALTER COLUMN status SET DEFAULT 'ACTIVE';
+ALTER TABLE links ALTER COLUMN status SET NOT NULL;
+
+ALTER TABLE links ADD COLUMN IF NOT EXISTS archived_at TIMESTAMP(6);
+
+-- A reference code only has to be unique among live links; an archived code can be reused
+ALTER TABLE links DROP CONSTRAINT IF EXISTS uk_ock595460bkyh2oxgy7romt9h;
+DROP INDEX IF EXISTS links_lower_reference_code_uidx;
+CREATE UNIQUE INDEX IF NOT EXISTS links_active_lower_reference_code_uidx ON links (lower(reference_code))
+    WHERE status <> 'ARCHIVED';
+
+DROP INDEX IF EXISTS links_reference_code_trgm_idx;
+DROP INDEX IF EXISTS links_description_trgm_idx;
+DROP INDEX IF EXISTS links_brand_name_trgm_idx;
+DROP INDEX IF EXISTS links_full_url_trgm_idx;
+DROP INDEX IF EXISTS links_brand_name_status_idx;
+CREATE INDEX IF NOT EXISTS links_active_reference_code_trgm_idx ON links USING gin (lower(reference_code) gin_trgm_ops)
+    WHERE status <> 'ARCHIVED';
+CREATE INDEX IF NOT EXISTS links_active_description_trgm_idx ON links USING gin (lower(description) gin_trgm_ops)
+    WHERE status <> 'ARCHIVED';
+CREATE INDEX IF NOT EXISTS links_active_brand_name_trgm_idx ON links USING gin (lower(brand_name) gin_trgm_ops)
+    WHERE status <> 'ARCHIVED';
+CREATE INDEX IF NOT EXISTS links_active_full_url_trgm_idx ON links USING gin (lower(full_url) gin_trgm_ops)
+    WHERE status <> 'ARCHIVED';
+CREATE INDEX IF NOT EXISTS links_active_brand_name_status_idx ON links (brand_name, status)
+    WHERE status <> 'ARCHIVED';
+
+-- Admin listing of archived links and the cold-storage mover
+CREATE INDEX IF NOT EXISTS links_archived_at_idx ON links (archived_at) WHERE status = 'ARCHIVED';
+
+-- No foreign keys: rows here outlive their creators and are never joined on the request path
+CREATE TABLE IF NOT EXISTS links_archive (
+    id              BIGINT PRIMARY KEY,
+    reference_code  VARCHAR(255),
+    full_url        VARCHAR(255),
+    description     VARCHAR(500),
+    brand_name      VARCHAR(100),
+    added_by_id     BIGINT,
+    created_at      TIMESTAMP(6),
+    updated_at      TIMESTAMP(6),
+    archived_at     TIMESTAMP(6) NOT NULL,
+    moved_at        TIMESTAMP(6) NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS links_archive_lower_reference_code_idx ON links_archive (lower(reference_code));
@@ -0,0 +1,14 @@
+-- Validity windows. A link is SCHEDULED before valid_from, ACTIVE inside the window and EXPIRED
+-- from valid_until on; either end may be open (NULL). LinkValidityService flips the status.
+-- The two partial indexes are the "next transitions" index it loads its timing wheel from: they
+-- only hold links that still have a transition ahead of them.
+
+ALTER TABLE links ADD COLUMN IF NOT EXISTS valid_from TIMESTAMP(6);
+ALTER TABLE links ADD COLUMN IF NOT EXISTS valid_until TIMESTAMP(6);
+
+ALTER TABLE links ADD CONSTRAINT links_validity_window_check
+    CHECK (valid_from IS NULL OR valid_until IS NULL OR valid_until > valid_from);
+
+CREATE INDEX IF NOT EXISTS links_scheduled_valid_from_idx ON links (valid_from) WHERE status = 'SCHEDULED';
+CREATE INDEX IF NOT EXISTS links_active_valid_until_idx ON links (valid_until)
+    WHERE status = 'ACTIVE' AND valid_until IS NOT NULL;
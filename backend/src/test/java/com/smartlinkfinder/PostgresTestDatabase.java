@@ -0,0 +1,55 @@
+package com.smartlinkfinder;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Assumptions;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+
+/**
+ * One migrated PostgreSQL database shared by the tests that run the application's SQL.
+ *
+ * TEST_DATABASE_URL (with TEST_DATABASE_USER / TEST_DATABASE_PASSWORD) points the tests at an
+ * existing server, whose database is cleaned and migrated; otherwise an embedded server is started
+ * for the test JVM. If the embedded server cannot start on the platform the tests are skipped
+ * rather than failed.
+ */
+public final class PostgresTestDatabase {
+
+    private static DataSource dataSource;
+    private static String unavailable;
+
+    private PostgresTestDatabase() {}
+
+    public static synchronized JdbcTemplate jdbcTemplate() {
+        if (dataSource == null && unavailable == null) {
+            try {
+                dataSource = start();
+                Flyway.configure().dataSource(dataSource).cleanDisabled(false).load().clean();
+                Flyway.configure().dataSource(dataSource).load().migrate();
+            } catch (Exception e) {
+                unavailable = e.getMessage();
+            }
+        }
+        Assumptions.assumeTrue(unavailable == null, () -> "No PostgreSQL for SQL tests: " + unavailable);
+        return new JdbcTemplate(dataSource);
+    }
+
+    private static DataSource start() throws Exception {
+        String url = System.getenv("TEST_DATABASE_URL");
+        if (url != null && !url.isBlank()) {
+            return new DriverManagerDataSource(url, System.getenv("TEST_DATABASE_USER"), System.getenv("TEST_DATABASE_PASSWORD"));
+        }
+        EmbeddedPostgres postgres = EmbeddedPostgres.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                postgres.close();
+            } catch (Exception ignored) {
+                // JVM exit
+            }
+        }));
+        return postgres.getPostgresDatabase();
+    }
+}
@@ -0,0 +1,201 @@
+package com.smartlinkfinder.admission;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTest {
+
+    private static final long MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    @Test
+    void admitsABurstOfExactlyCapacity() {
+        RateLimitFilter.Limiter limiter = new RateLimitFilter.Limiter(5, 10);
+        long now = 1_000_000_000L;
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire("client", now)).as("request %d", i + 1).isZero();
+        }
+        // One token per 6 s: the sixth request has to wait exactly one token interval
+        assertThat(limiter.tryAcquire("client", now)).isEqualTo(MINUTE / 10);
+    }
+
+    @Test
+    void refillsOneTokenPerInterval() {
+        RateLimitFilter.Limiter limiter = new RateLimitFilter.Limiter(2, 60);
+        long now = 0;
+        long interval = MINUTE / 60;
+
+        assertThat(limiter.tryAcquire("client", now)).isZero();
+        assertThat(limiter.tryAcquire("client", now)).isZero();
+        assertThat(limiter.tryAcquire("client", now + interval - 1)).isEqualTo(1);
+        assertThat(limiter.tryAcquire("client", now + interval)).isZero();
+        assertThat(limiter.tryAcquire("client", now + interval)).isEqualTo(interval);
+        // Idle for longer than a full refill: back to capacity, not beyond it
+        long later = now + 10 * interval;
+        assertThat(limiter.tryAcquire("client", later)).isZero();
+        assertThat(limiter.tryAcquire("client", later)).isZero();
+        assertThat(limiter.tryAcquire("client", later)).isEqualTo(interval);
+    }
+
+    @Test
+    void keepsClientsApart() {
+        RateLimitFilter.Limiter limiter = new RateLimitFilter.Limiter(1, 1);
+
+        assertThat(limiter.tryAcquire("a", 0)).isZero();
+        assertThat(limiter.tryAcquire("a", 0)).isPositive();
+        assertThat(limiter.tryAcquire("b", 0)).isZero();
+    }
+
+    @Test
+    void concurrentTakesNeverExceedCapacity() throws Exception {
+        int capacity = 1000;
+        RateLimitFilter.Limiter limiter = new RateLimitFilter.Limiter(capacity, 1);
+        int threads = 8;
+        AtomicInteger admitted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int t = 0; t < threads; t++) {
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    // Far more attempts than tokens, all at the same instant, so nothing refills
+                    for (int i = 0; i < capacity; i++) {
+                        if (limiter.tryAcquire("client", 0) == 0) {
+                            admitted.incrementAndGet();
+                        }
+                    }
+                });
+            }
+            start.countDown();
+            executor.shutdown();
+            assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(admitted.get()).isEqualTo(capacity);
+    }
+
+    @Test
+    void evictsBucketsThatHaveRefilled() {
+        RateLimitFilter.Limiter limiter = new RateLimitFilter.Limiter(10, 60);
+        long interval = MINUTE / 60;
+        limiter.tryAcquire("idle", 0);
+        limiter.tryAcquire("busy", interval);
+        limiter.tryAcquire("busy", interval);
+
+        assertThat(limiter.evict(interval, Integer.MAX_VALUE)).isEqualTo(1);
+        assertThat(limiter.clients()).isEqualTo(1);
+        assertThat(drain(limiter, "busy", interval)).isEqualTo(8);
+    }
+
+    @Test
+    void evictionKeepsTheMostDrainedBucketsOfAStripe() {
+        RateLimitFilter.Limiter limiter = new RateLimitFilter.Limiter(100, 60);
+        // Clients landing in one stripe, each having taken a different number of tokens
+        String[] clients = sameStripe(5);
+        for (int c = 0; c < clients.length; c++) {
+            for (int i = 0; i <= c * 10; i++) {
+                limiter.tryAcquire(clients[c], 0);
+            }
+        }
+
+        limiter.evict(0, 2);
+
+        assertThat(limiter.clients()).isEqualTo(2);
+        // The two most drained clients still have their reduced buckets: 100 - 41 and 100 - 31
+        assertThat(drain(limiter, clients[4])).isEqualTo(100 - 41);
+        assertThat(drain(limiter, clients[3])).isEqualTo(100 - 31);
+        assertThat(drain(limiter, clients[0])).isEqualTo(100);
+    }
+
+    @Test
+    void rejectsWithRetryAfterAndUsesTheRemoteAddressByDefault() throws Exception {
+        RateLimitFilter filter = new RateLimitFilter(new MockEnvironment(), true, "X-Forwarded-For", 0, 100000);
+
+        for (int i = 0; i < 5; i++) {
+            // A forged header must not hand out a fresh bucket per request
+            assertThat(login(filter, "10.0.0." + i).getStatus()).isEqualTo(200);
+        }
+        MockHttpServletResponse rejected = login(filter, "10.0.0.99");
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        // Login refills 10 per minute: the next token is 6 s away
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("6");
+        assertThat(rejected.getContentAsString()).contains("Too Many Requests");
+    }
+
+    @Test
+    void takesTheClientFromTheEntryTheOutermostTrustedProxyAppended() {
+        RateLimitFilter oneProxy = new RateLimitFilter(new MockEnvironment(), true, "X-Forwarded-For", 1, 100000);
+        RateLimitFilter twoProxies = new RateLimitFilter(new MockEnvironment(), true, "X-Forwarded-For", 2, 100000);
+        RateLimitFilter noProxy = new RateLimitFilter(new MockEnvironment(), true, "X-Forwarded-For", 0, 100000);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setRemoteAddr("10.1.1.1");
+        request.addHeader("X-Forwarded-For", "6.6.6.6, 203.0.113.7, 10.0.0.2");
+
+        assertThat(noProxy.clientAddress(request)).isEqualTo("10.1.1.1");
+        assertThat(oneProxy.clientAddress(request)).isEqualTo("10.0.0.2");
+        assertThat(twoProxies.clientAddress(request)).isEqualTo("203.0.113.7");
+
+        MockHttpServletRequest direct = new MockHttpServletRequest("POST", "/api/auth/login");
+        direct.setRemoteAddr("10.1.1.1");
+        direct.addHeader("X-Forwarded-For", "203.0.113.7");
+        assertThat(twoProxies.clientAddress(direct)).isEqualTo("203.0.113.7");
+
+        MockHttpServletRequest missing = new MockHttpServletRequest("POST", "/api/auth/login");
+        missing.setRemoteAddr("10.1.1.1");
+        assertThat(oneProxy.clientAddress(missing)).isEqualTo("10.1.1.1");
+    }
+
+    private static MockHttpServletResponse login(RateLimitFilter filter, String forwardedFor) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setContextPath("/api");
+        request.setServletPath("/auth/login");
+        request.setRemoteAddr("198.51.100.1");
+        request.addHeader("X-Forwarded-For", forwardedFor);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static int drain(RateLimitFilter.Limiter limiter, String client) {
+        return drain(limiter, client, 0);
+    }
+
+    private static int drain(RateLimitFilter.Limiter limiter, String client, long now) {
+        int taken = 0;
+        while (limiter.tryAcquire(client, now) == 0) {
+            taken++;
+        }
+        return taken;
+    }
+
+    private static String[] sameStripe(int count) {
+        String[] clients = new String[count];
+        int found = 0;
+        for (int i = 0; found < count; i++) {
+            String client = "10.0." + (i / 256) + "." + (i % 256);
+            int hash = client.hashCode();
+            if (((hash ^ (hash >>> 16)) & 15) == 0) {
+                clients[found++] = client;
+            }
+        }
+        return clients;
+    }
+}
@@ -0,0 +1,113 @@
+package com.smartlinkfinder.cache;
+
+import com.smartlinkfinder.entity.Link;
+import com.smartlinkfinder.event.LinkChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LinkCacheTest {
+
+    private final LinkCache cache = new LinkCache(true, 100, 300, 5, 5000);
+
+    @Test
+    void keepsLoadsOnlyWhenNoInvalidationHappenedSinceTheyStarted() {
+        long generation = cache.generation();
+        cache.onLinkChanged(LinkChangedEvent.updated(2L, "PI_1002", "PI_1002"));
+
+        cache.putByReferenceCode("PI_1001", Optional.of(link(1L, "PI_1001")), generation);
+        assertThat(cache.getByReferenceCode("PI_1001")).isNull();
+
+        cache.putByReferenceCode("PI_1001", Optional.of(link(1L, "PI_1001")), cache.generation());
+        assertThat(cache.getByReferenceCode("pi_1001")).get().extracting(Link::getId).isEqualTo(1L);
+        assertThat(cache.getById(1L)).isNotNull();
+    }
+
+    @Test
+    void evictsTheChangedLinkUnderItsOldAndNewCode() {
+        cache.putByReferenceCode("PI_1001", Optional.of(link(1L, "PI_1001")), cache.generation());
+        cache.putByReferenceCode("PI_2001", Optional.empty(), cache.generation());
+
+        cache.onLinkChanged(LinkChangedEvent.updated(1L, "PI_2001", "PI_1001"));
+
+        assertThat(cache.getByReferenceCode("PI_1001")).isNull();
+        assertThat(cache.getByReferenceCode("PI_2001")).isNull();
+        assertThat(cache.getById(1L)).isNull();
+    }
+
+    @Test
+    void reloadDropsEverything() {
+        cache.putByReferenceCode("PI_1001", Optional.of(link(1L, "PI_1001")), cache.generation());
+        cache.putById(link(2L, "PI_1002"), cache.generation());
+
+        cache.onLinkChanged(LinkChangedEvent.reload());
+
+        assertThat(cache.getByReferenceCode("PI_1001")).isNull();
+        assertThat(cache.getById(2L)).isNull();
+    }
+
+    @Test
+    void aPutRacingWithAnInvalidationNeverSurvivesIt() throws Exception {
+        int rounds = 20_000;
+        CyclicBarrier start = new CyclicBarrier(2);
+        CyclicBarrier done = new CyclicBarrier(2);
+        AtomicBoolean failed = new AtomicBoolean();
+        Thread invalidator = new Thread(() -> {
+            try {
+                for (int i = 0; i < rounds; i++) {
+                    start.await();
+                    cache.onLinkChanged(i % 2 == 0
+                        ? LinkChangedEvent.updated(1L, "PI_1001", "PI_1001")
+                        : LinkChangedEvent.reload());
+                    done.await();
+                }
+            } catch (Exception e) {
+                failed.set(true);
+            }
+        });
+        invalidator.start();
+
+        int survived = 0;
+        for (int i = 0; i < rounds; i++) {
+            long generation = cache.generation();
+            Link loaded = link(1L, "PI_1001");
+            start.await();
+            cache.putByReferenceCode("PI_1001", Optional.of(loaded), generation);
+            cache.putById(loaded, generation);
+            done.await();
+
+            // Every round's load started before that round's invalidation, so none may remain cached
+            Optional<Link> byCode = cache.getByReferenceCode("PI_1001");
+            if ((byCode != null && byCode.orElse(null) == loaded) || cache.getById(1L) == loaded) {
+                survived++;
+            }
+        }
+        invalidator.join();
+
+        assertThat(failed).isFalse();
+        assertThat(survived).isZero();
+    }
+
+    @Test
+    void requiresPrimaryReadsForTheReplicaLagAfterAnInvalidation() throws Exception {
+        LinkCache shortWindow = new LinkCache(true, 100, 300, 0.05, 0);
+        assertThat(shortWindow.requiresPrimaryReads()).isFalse();
+
+        shortWindow.onLinkChanged(LinkChangedEvent.reload());
+        assertThat(shortWindow.requiresPrimaryReads()).isTrue();
+
+        Thread.sleep(100);
+        assertThat(shortWindow.requiresPrimaryReads()).isFalse();
+    }
+
+    private static Link link(Long id, String referenceCode) {
+        Link link = new Link(referenceCode, "https://docs.example.com/" + referenceCode + ".pdf", "leaflet", "Singrix",
+            Link.STATUS_ACTIVE);
+        link.setId(id);
+        return link;
+    }
+}
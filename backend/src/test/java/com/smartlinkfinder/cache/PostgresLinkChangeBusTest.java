@@ -0,0 +1,49 @@
+package com.smartlinkfinder.cache;
+
+import com.smartlinkfinder.event.LinkChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PostgresLinkChangeBusTest {
+
+    private final PostgresLinkChangeBus sender = new PostgresLinkChangeBus();
+    private final PostgresLinkChangeBus receiver = new PostgresLinkChangeBus();
+
+    @Test
+    void batchesArriveWithTheirIds() {
+        LinkChangedEvent received = receiver.decode(sender.encode(LinkChangedEvent.batch(List.of(3L, 1L, 2L))));
+
+        assertThat(received.getType()).isEqualTo(LinkChangedEvent.Type.BATCH);
+        assertThat(received.getLinkIds()).containsExactly(3L, 1L, 2L);
+        assertThat(received.isRemote()).isTrue();
+    }
+
+    @Test
+    void singleChangesKeepTheirCodes() {
+        LinkChangedEvent received = receiver.decode(sender.encode(LinkChangedEvent.updated(7L, "PI_2001", "PI_1001")));
+
+        assertThat(received.getType()).isEqualTo(LinkChangedEvent.Type.UPDATED);
+        assertThat(received.getLinkIds()).containsExactly(7L);
+        assertThat(received.getReferenceCode()).isEqualTo("PI_2001");
+        assertThat(received.getPreviousReferenceCode()).isEqualTo("PI_1001");
+    }
+
+    @Test
+    void aBatchTooLongForOneNotificationIsSentAsAReload() {
+        List<Long> ids = LongStream.range(0, LinkChangedEvent.MAX_BATCH_SIZE).map(i -> Long.MAX_VALUE - i).boxed().toList();
+
+        LinkChangedEvent received = receiver.decode(sender.encode(LinkChangedEvent.batch(ids)));
+
+        assertThat(received.getType()).isEqualTo(LinkChangedEvent.Type.RELOAD);
+        assertThat(received.getLinkIds()).isEmpty();
+    }
+
+    @Test
+    void ownNotificationsAreIgnored() {
+        assertThat(sender.decode(sender.encode(LinkChangedEvent.batch(List.of(1L))))).isNull();
+    }
+}
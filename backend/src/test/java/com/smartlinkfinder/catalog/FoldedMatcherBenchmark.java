@@ -0,0 +1,90 @@
+package com.smartlinkfinder.catalog;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full scan of one million links: the catalog's folded SWAR search against the per-row
+ * LOWER(field) LIKE '%term%' evaluation the database fallback does, on the same synthetic data.
+ * Each operation is one complete scan counting the matches. See benchmark/README.md to run it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class FoldedMatcherBenchmark {
+
+    private static final String[] BRANDS = {
+        "Singrix", "Aldovan", "Corventa", "Dermalis", "Ebrizol", "Fenotrex", "Glucora", "Hepatin",
+        "Irvanox", "Juvamed", "Kardiol", "Lumeron", "Mycostat", "Neurexa", "Osteval", "Pulmira"
+    };
+    private static final String[] WORDS = {
+        "patient", "information", "leaflet", "summary", "product", "characteristics", "dosing",
+        "guide", "tablets", "injection", "solution", "prescribing", "safety", "update", "Übersicht",
+        "Gebrauchsinformation", "notice", "médicament", "version", "label"
+    };
+
+    @Param({"1000000"})
+    public int links;
+
+    // A common brand, a single reference code, a word in most descriptions, and no match at all
+    @Param({"singrix", "pi_031001", "leaflet", "zqxj"})
+    public String term;
+
+    private CompactLinkStore store;
+    private String[][] rows;
+
+    @Setup
+    public void load() {
+        Random random = new Random(7);
+        LocalDateTime now = LocalDateTime.now();
+        store = new CompactLinkStore("DE");
+        rows = new String[links][];
+        for (int i = 0; i < links; i++) {
+            String code = String.format("PI_%06d", i);
+            String brand = BRANDS[random.nextInt(BRANDS.length)];
+            String description = brand + " " + WORDS[random.nextInt(WORDS.length)] + " "
+                + WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+            String url = "https://docs.example.com/de/" + brand.toLowerCase(Locale.ROOT) + "/" + code + ".pdf";
+            store.put(i + 1, code, url, description, brand, "ACTIVE", now, now, 1, "admin", null, null, 1);
+            rows[i] = new String[] {code, description, url, brand};
+        }
+    }
+
+    @Benchmark
+    public long catalogScan() {
+        long[] total = new long[1];
+        store.search(term, null, null, 0, 0, total);
+        return total[0];
+    }
+
+    @Benchmark
+    public long lowerLike() {
+        long matches = 0;
+        for (String[] row : rows) {
+            for (String field : row) {
+                if (field.toLowerCase(Locale.ROOT).contains(term)) {
+                    matches++;
+                    break;
+                }
+            }
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,178 @@
+package com.smartlinkfinder.catalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * FoldedMatcher's SWAR scan against a lowercase-and-contains oracle, which is what
+ * LOWER(field) LIKE '%term%' evaluates per field.
+ */
+class FoldedMatcherTest {
+
+    // Same for every byte, so the anchor is the needle's first byte
+    private static final long[] FLAT = new long[256];
+
+    @Test
+    void findsNeedleAtEveryOffsetAcrossWordBoundaries() {
+        for (int textLength = 1; textLength <= 40; textLength++) {
+            for (int needleLength = 1; needleLength <= Math.min(textLength, 12); needleLength++) {
+                for (int at = 0; at + needleLength <= textLength; at++) {
+                    byte[] text = filler(textLength);
+                    for (int i = 0; i < needleLength; i++) {
+                        text[at + i] = (byte) ('a' + i);
+                    }
+                    String needle = new String(text, at, needleLength);
+                    for (int anchor = 0; anchor < needleLength; anchor++) {
+                        FoldedMatcher matcher = new FoldedMatcher(needle, preferring(needle.charAt(anchor)));
+                        assertThat(matcher.matches(text, 0, textLength))
+                            .as("needle %s at %d of %d, anchor %d", needle, at, textLength, anchor)
+                            .isTrue();
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void ignoresMatchesOutsideTheRange() {
+        byte[] text = "abcdefgh-xyz-----------abcdefgh".getBytes();
+        FoldedMatcher matcher = new FoldedMatcher("abcdefgh", FLAT);
+
+        assertThat(matcher.matches(text, 9, 23)).isFalse();
+        assertThat(matcher.matches(text, 1, text.length - 1)).isFalse();
+        assertThat(matcher.matches(text, 0, 8)).isTrue();
+        assertThat(matcher.matches(text, 23, text.length)).isTrue();
+    }
+
+    @Test
+    void matchesNextToFieldSeparatorsButNeverAcrossThem() {
+        byte[] text = searchText("PI_31001", "Singrix leaflet", "https://example.com/pi.pdf", "SINGRIX");
+
+        assertThat(new FoldedMatcher("pi_31001", FLAT).matches(text, 0, text.length)).isTrue();
+        assertThat(new FoldedMatcher("singrix", FLAT).matches(text, 0, text.length)).isTrue();
+        assertThat(new FoldedMatcher("pdf", FLAT).matches(text, 0, text.length)).isTrue();
+        // "...31001" + separator + "singrix..." must not be joined into one field
+        assertThat(new FoldedMatcher("31001singrix", FLAT).matches(text, 0, text.length)).isFalse();
+        assertThat(new FoldedMatcher("1\u0000s", FLAT).matches(text, 0, text.length)).isFalse();
+    }
+
+    @Test
+    void handlesNeedlesShorterThanAWord() {
+        byte[] text = searchText("AB", "cdefghijklmnopqrstuvwxyz", null, "Q");
+        for (int length = 1; length < Long.BYTES; length++) {
+            String needle = "klmnopqrs".substring(0, length);
+            assertThat(new FoldedMatcher(needle, FLAT).matches(text, 0, text.length)).as(needle).isTrue();
+        }
+        assertThat(new FoldedMatcher("q", FLAT).matches(text, 0, text.length)).isTrue();
+        assertThat(new FoldedMatcher("ba", FLAT).matches(text, 0, text.length)).isFalse();
+        assertThat(new FoldedMatcher("", FLAT).matches(text, 0, 0)).isTrue();
+        assertThat(new FoldedMatcher("abc", FLAT).matches(text, 0, 2)).isFalse();
+    }
+
+    @Test
+    void foldsNonAsciiText() {
+        byte[] text = searchText("ÄRZTE-01", "Café Ölmühle Straße", null, "ΣΊΣΥΦΟΣ");
+
+        assertThat(matches("ärzte", text)).isTrue();
+        assertThat(matches("CAFÉ ÖLMÜHLE", text)).isTrue();
+        assertThat(matches("straße", text)).isTrue();
+        // Final sigma folds to ς, as it does in the lower-cased search term
+        assertThat(matches("σίσυφος", text)).isTrue();
+        assertThat(matches("ΣΊΣΥΦ", text)).isTrue();
+        // A multi-byte character differing only in its last byte (é vs è)
+        assertThat(matches("cafè", text)).isFalse();
+    }
+
+    @Test
+    void agreesWithLowercaseContainsOracle() {
+        Random random = new Random(42);
+        String alphabet = "abcABCxyzXYZ019_-./ éÉüÜßΣσ€";
+        for (int round = 0; round < 20_000; round++) {
+            String[] fields = new String[4];
+            for (int i = 0; i < fields.length; i++) {
+                fields[i] = random.nextInt(8) == 0 ? null : randomString(random, alphabet, random.nextInt(30));
+            }
+            String needle;
+            String source = fields[random.nextInt(fields.length)];
+            if (source != null && !source.isEmpty() && random.nextBoolean()) {
+                int start = random.nextInt(source.length());
+                needle = source.substring(start, start + 1 + random.nextInt(source.length() - start));
+            } else {
+                needle = randomString(random, alphabet, 1 + random.nextInt(6));
+            }
+            String normalized = needle.toLowerCase(Locale.ROOT);
+
+            // Surround the text with copies of the needle that must not count
+            byte[] own = searchText(fields);
+            byte[] decoy = FoldedMatcher.fold(needle);
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            buffer.writeBytes(decoy);
+            int from = buffer.size();
+            buffer.writeBytes(own);
+            int to = buffer.size();
+            buffer.writeBytes(decoy);
+            byte[] text = buffer.toByteArray();
+
+            long[] frequencies = new long[256];
+            for (int i = 0; i < frequencies.length; i++) {
+                frequencies[i] = random.nextInt(100);
+            }
+            boolean expected = false;
+            for (String field : fields) {
+                expected |= normalized.isEmpty() || (field != null && field.toLowerCase(Locale.ROOT).contains(normalized));
+            }
+            assertThat(new FoldedMatcher(normalized, frequencies).matches(text, from, to))
+                .as("needle '%s' in %s", normalized, String.join("|", String.valueOf(fields[0]),
+                    String.valueOf(fields[1]), String.valueOf(fields[2]), String.valueOf(fields[3])))
+                .isEqualTo(expected);
+        }
+    }
+
+    private static boolean matches(String query, byte[] text) {
+        return new FoldedMatcher(query.toLowerCase(Locale.ROOT), FLAT).matches(text, 0, text.length);
+    }
+
+    /**
+     * Search text as CompactLinkStore lays it out: folded fields joined by the separator.
+     */
+    private static byte[] searchText(String... fields) {
+        ByteArrayOutputStream text = new ByteArrayOutputStream();
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                text.write(FoldedMatcher.FIELD_SEPARATOR);
+            }
+            if (fields[i] != null) {
+                text.writeBytes(FoldedMatcher.fold(fields[i]));
+            }
+        }
+        return text.toByteArray();
+    }
+
+    private static byte[] filler(int length) {
+        byte[] text = new byte[length];
+        for (int i = 0; i < length; i++) {
+            text[i] = (byte) ('0' + i % 10);
+        }
+        return text;
+    }
+
+    private static long[] preferring(char anchor) {
+        long[] frequencies = new long[256];
+        java.util.Arrays.fill(frequencies, 10);
+        frequencies[anchor & 0xFF] = 1;
+        return frequencies;
+    }
+
+    private static String randomString(Random random, String alphabet, int length) {
+        StringBuilder value = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            value.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return value.toString();
+    }
+}
@@ -0,0 +1,111 @@
+package com.smartlinkfinder.catalog;
+
+import com.smartlinkfinder.PostgresTestDatabase;
+import com.smartlinkfinder.event.LinkChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Map.entry;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Incremental maintenance of the facet index against the migrated schema: after any mix of
+ * changes, applying their events must leave the same bitmaps as a full rebuild.
+ */
+class LinkFacetIndexTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private final List<LinkFacetIndex> indexes = new ArrayList<>();
+    private long adminId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = PostgresTestDatabase.jdbcTemplate();
+        jdbcTemplate.execute("TRUNCATE links, links_archive, link_versions_archive, link_changes, users CASCADE");
+        adminId = jdbcTemplate.queryForObject(
+            "INSERT INTO users (username, email, password, role) VALUES ('admin', 'admin@example.com', 'x', 'ADMIN') RETURNING id",
+            Long.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        indexes.forEach(LinkFacetIndex::stopRefresher);
+    }
+
+    @Test
+    void batchEventsKeepTheIndexEqualToARebuild() {
+        long singrix = insertLink("PI_1001", "Singrix", "EGYPT");
+        long toArchive = insertLink("PI_1002", "Singrix", "EGYPT");
+        long toDelete = insertLink("PI_1003", "Tavora", "GLOBAL");
+        insertLink("PI_1004", "Tavora", "GLOBAL");
+        LinkFacetIndex index = builtIndex();
+
+        jdbcTemplate.update("UPDATE links SET brand_name = 'Tavora', market = 'GLOBAL' WHERE id = ?", singrix);
+        jdbcTemplate.update("UPDATE links SET status = 'ARCHIVED', archived_at = now() WHERE id = ?", toArchive);
+        jdbcTemplate.update("DELETE FROM links WHERE id = ?", toDelete);
+        long added = insertLink("PI_1005", "Norvale", "EGYPT");
+        index.onLinkChanged(LinkChangedEvent.batch(List.of(singrix, toArchive, toDelete, added)));
+
+        assertSameContent(index, builtIndex());
+        assertThat(index.filter("EGYPT", null, null).toArray()).containsExactly(Math.toIntExact(added));
+        assertThat(index.counts(index.filter(null, null, null), null, null).getBrands())
+            .containsExactly(entry("Tavora", 2L), entry("Norvale", 1L));
+    }
+
+    @Test
+    void reloadCatchesUpFromTheChangeLogInTheBackground() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            insertLink("PI_" + (2000 + i), i % 2 == 0 ? "Singrix" : "Tavora", "GLOBAL");
+        }
+        LinkFacetIndex index = builtIndex();
+
+        // A bulk change no event lists: every Tavora link moves market, one more is added
+        jdbcTemplate.update("UPDATE links SET market = 'EGYPT' WHERE brand_name = 'Tavora'");
+        insertLink("PI_3000", "Norvale", "EGYPT");
+        index.onLinkChanged(LinkChangedEvent.reload());
+
+        LinkFacetIndex rebuilt = builtIndex();
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!index.filter("EGYPT", null, null).equals(rebuilt.filter("EGYPT", null, null))
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertSameContent(index, rebuilt);
+        assertThat(index.filter("EGYPT", null, null).getCardinality()).isEqualTo(11);
+    }
+
+    private LinkFacetIndex builtIndex() {
+        LinkFacetIndex index = new LinkFacetIndex();
+        ReflectionTestUtils.setField(index, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(index, "transactionManager", new DataSourceTransactionManager(jdbcTemplate.getDataSource()));
+        ReflectionTestUtils.setField(index, "snapshotEnabled", false);
+        index.start();
+        assertThat(index.isReady()).isTrue();
+        indexes.add(index);
+        return index;
+    }
+
+    private static void assertSameContent(LinkFacetIndex actual, LinkFacetIndex expected) {
+        for (String market : new String[] { null, "EGYPT", "GLOBAL" }) {
+            assertThat(actual.filter(market, null, null)).as(market).isEqualTo(expected.filter(market, null, null));
+            LinkFacetIndex.FacetCounts actualCounts = actual.counts(actual.filter(market, null, null), null, null);
+            LinkFacetIndex.FacetCounts expectedCounts = expected.counts(expected.filter(market, null, null), null, null);
+            assertThat(actualCounts.getBrands()).as(market).isEqualTo(expectedCounts.getBrands());
+            assertThat(actualCounts.getStatuses()).as(market).isEqualTo(expectedCounts.getStatuses());
+        }
+    }
+
+    private long insertLink(String referenceCode, String brand, String market) {
+        return jdbcTemplate.queryForObject(
+            "INSERT INTO links (reference_code, full_url, description, brand_name, status, market, added_by_id, created_at, updated_at) " +
+            "VALUES (?, ?, 'leaflet', ?, 'ACTIVE', ?, ?, now(), now()) RETURNING id",
+            Long.class, referenceCode, "https://docs.example.com/" + referenceCode + ".pdf", brand, market, adminId);
+    }
+}
@@ -0,0 +1,130 @@
+package com.smartlinkfinder.compression;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseCompressionFilterTest {
+
+    private static final byte[] SEARCH_BODY = json("PI_", 200);
+
+    @Test
+    void reusesTheCompressedBodyWhileTheResponseIsUnchanged() throws Exception {
+        ResponseCompressionFilter filter = filter(16 * 1024 * 1024);
+
+        MockHttpServletResponse first = search(filter, "q=singrix", SEARCH_BODY);
+        MockHttpServletResponse second = search(filter, "q=singrix", SEARCH_BODY);
+
+        assertThat(first.getHeader("Content-Encoding")).isEqualTo("gzip");
+        assertThat(gunzip(second.getContentAsByteArray())).isEqualTo(SEARCH_BODY);
+        assertThat(second.getContentAsByteArray()).isEqualTo(first.getContentAsByteArray());
+        assertThat(filter.getStatistics()).containsEntry("compressed", 1L).containsEntry("reused", 1L);
+    }
+
+    @Test
+    void compressesAgainWhenTheResponseChanges() throws Exception {
+        ResponseCompressionFilter filter = filter(16 * 1024 * 1024);
+        byte[] changed = json("PX_", 200);
+
+        search(filter, "q=singrix", SEARCH_BODY);
+        MockHttpServletResponse response = search(filter, "q=singrix", changed);
+
+        assertThat(gunzip(response.getContentAsByteArray())).isEqualTo(changed);
+        assertThat(filter.getStatistics()).containsEntry("compressed", 2L).containsEntry("reused", 0L);
+    }
+
+    @Test
+    void boundsTheCacheByBytes() throws Exception {
+        ResponseCompressionFilter filter = filter(4096);
+
+        for (int i = 0; i < 100; i++) {
+            search(filter, "q=term" + i, SEARCH_BODY);
+        }
+
+        assertThat((Long) filter.getStatistics().get("cacheBytes")).isPositive().isLessThanOrEqualTo(4096L);
+        assertThat((Integer) filter.getStatistics().get("cacheSize")).isLessThan(100);
+    }
+
+    @Test
+    void variesOnAcceptEncodingEvenWhenNotCompressing() throws Exception {
+        ResponseCompressionFilter filter = filter(16 * 1024 * 1024);
+        MockHttpServletRequest request = request("/links/search", "q=singrix");
+        request.removeHeader("Accept-Encoding");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, writing(SEARCH_BODY));
+
+        assertThat(response.getHeaders("Vary")).contains("Accept-Encoding");
+        assertThat(response.getHeader("Content-Encoding")).isNull();
+        assertThat(response.getContentAsByteArray()).isEqualTo(SEARCH_BODY);
+    }
+
+    @Test
+    void variesOnAcceptEncodingWhenCompressing() throws Exception {
+        MockHttpServletResponse response = search(filter(16 * 1024 * 1024), "q=singrix", SEARCH_BODY);
+
+        assertThat(response.getHeaders("Vary")).contains("Accept-Encoding");
+    }
+
+    @Test
+    void leavesUncompressedClassesAlone() throws Exception {
+        ResponseCompressionFilter filter = filter(16 * 1024 * 1024);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request("/public/link/PI_1", null), response, writing(SEARCH_BODY));
+
+        assertThat(response.getHeader("Content-Encoding")).isNull();
+        assertThat(response.getHeaders("Vary")).doesNotContain("Accept-Encoding");
+        assertThat(response.getContentAsByteArray()).isEqualTo(SEARCH_BODY);
+    }
+
+    private static ResponseCompressionFilter filter(long cacheMaxBytes) {
+        return new ResponseCompressionFilter(new MockEnvironment(), true, 1024, 2000, 262144, cacheMaxBytes, 300);
+    }
+
+    private static MockHttpServletResponse search(ResponseCompressionFilter filter, String query, byte[] body)
+            throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request("/links/search", query), response, writing(body));
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String path, String query) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api" + path);
+        request.setContextPath("/api");
+        request.setServletPath(path);
+        request.setQueryString(query);
+        request.addHeader("Accept-Encoding", "gzip, deflate, br");
+        return request;
+    }
+
+    private static FilterChain writing(byte[] body) {
+        return (request, response) -> {
+            response.setContentType("application/json");
+            response.getOutputStream().write(body);
+        };
+    }
+
+    private static byte[] json(String prefix, int links) {
+        StringBuilder json = new StringBuilder("{\"content\":[");
+        for (int i = 0; i < links; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"id\":").append(i).append(",\"referenceCode\":\"")
+                .append(prefix).append(i).append("\",\"brandName\":\"Singrix\"}");
+        }
+        return json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] gunzip(byte[] gzipped) throws Exception {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            return in.readAllBytes();
+        }
+    }
+}
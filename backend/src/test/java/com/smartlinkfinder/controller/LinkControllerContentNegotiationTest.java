@@ -0,0 +1,113 @@
+package com.smartlinkfinder.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.smartlinkfinder.config.CborConfig;
+import com.smartlinkfinder.entity.Link;
+import com.smartlinkfinder.security.CustomUserDetailsService;
+import com.smartlinkfinder.security.JwtUtil;
+import com.smartlinkfinder.service.BulkLinkService;
+import com.smartlinkfinder.service.LinkArchiveService;
+import com.smartlinkfinder.service.LinkChangeLogService;
+import com.smartlinkfinder.service.LinkHealthService;
+import com.smartlinkfinder.service.LinkService;
+import com.smartlinkfinder.service.LinkVersionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Response format of /links/search with the converters Boot registers, CborConfig included:
+ * CBOR only when the client asks for it, JSON for browsers and wildcard clients. Listings use the
+ * LinkPage envelope rather than Spring's Page.
+ */
+@WebMvcTest(LinkController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@Import(CborConfig.class)
+class LinkControllerContentNegotiationTest {
+
+    private static final MediaType CBOR = MediaType.valueOf("application/cbor");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean private LinkService linkService;
+    @MockBean private BulkLinkService bulkLinkService;
+    @MockBean private LinkChangeLogService linkChangeLogService;
+    @MockBean private LinkHealthService linkHealthService;
+    @MockBean private LinkArchiveService linkArchiveService;
+    @MockBean private LinkVersionService linkVersionService;
+    @MockBean private JwtUtil jwtUtil;
+    @MockBean private CustomUserDetailsService customUserDetailsService;
+
+    @BeforeEach
+    void stubSearch() {
+        Link link = new Link("PI_1001", "https://docs.example.com/pi_1001.pdf", "Singrix leaflet", "Singrix", Link.STATUS_ACTIVE);
+        link.setId(1L);
+        when(linkService.searchLinks(eq("singrix"), isNull(), isNull(), any(Pageable.class)))
+            .thenReturn(new PageImpl<>(List.of(link), PageRequest.of(0, 20), 1));
+        when(linkService.getArchivedLinks(any(Pageable.class)))
+            .thenReturn(new PageImpl<>(List.of(link), PageRequest.of(0, 10), 1));
+    }
+
+    @Test
+    void cborWhenTheClientAcceptsIt() throws Exception {
+        MvcResult result = mockMvc.perform(get("/links/search").param("q", "singrix").accept(CBOR))
+            .andExpect(status().isOk())
+            .andReturn();
+
+        assertThat(MediaType.valueOf(result.getResponse().getContentType()).isCompatibleWith(CBOR)).isTrue();
+        JsonNode page = new ObjectMapper(new CBORFactory()).readTree(result.getResponse().getContentAsByteArray());
+        assertThat(page.get("content").get(0).get("referenceCode").asText()).isEqualTo("PI_1001");
+        assertThat(page.get("totalElements").asLong()).isEqualTo(1);
+    }
+
+    @Test
+    void jsonForWildcardAndBrowserAccept() throws Exception {
+        for (String accept : List.of("*/*", "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8")) {
+            MvcResult result = mockMvc.perform(get("/links/search").param("q", "singrix").header("Accept", accept))
+                .andExpect(status().isOk())
+                .andReturn();
+
+            assertThat(MediaType.valueOf(result.getResponse().getContentType()).isCompatibleWith(MediaType.APPLICATION_JSON))
+                .as(accept)
+                .isTrue();
+            JsonNode page = new ObjectMapper().readTree(result.getResponse().getContentAsString());
+            assertThat(page.get("content").get(0).get("referenceCode").asText()).isEqualTo("PI_1001");
+        }
+    }
+
+    @Test
+    void archivedLinksUseTheLinkPageEnvelope() throws Exception {
+        MvcResult result = mockMvc.perform(get("/links/archived").accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andReturn();
+
+        JsonNode page = new ObjectMapper().readTree(result.getResponse().getContentAsString());
+        assertThat(page.get("content").get(0).get("referenceCode").asText()).isEqualTo("PI_1001");
+        assertThat(page.get("totalElements").asLong()).isEqualTo(1);
+        assertThat(page.has("pageable")).isFalse();
+        assertThat(page.has("sort")).isFalse();
+    }
+}
@@ -0,0 +1,57 @@
+package com.smartlinkfinder.controller;
+
+import com.smartlinkfinder.security.CustomUserDetailsService;
+import com.smartlinkfinder.security.JwtUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The root HTML pages as packaged by the build: the gzipped copy made at build time for clients
+ * that accept it, the plain page for the rest.
+ */
+@WebMvcTest(HealthController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class StaticPagesTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean private JwtUtil jwtUtil;
+    @MockBean private CustomUserDetailsService customUserDetailsService;
+
+    @Test
+    void sendsThePrecompressedPageToGzipClients() throws Exception {
+        MvcResult result = mockMvc.perform(get("/index.html").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br"))
+            .andExpect(status().isOk())
+            .andReturn();
+
+        assertThat(result.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(result.getResponse().getHeaders(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT_ENCODING);
+        byte[] page = new GZIPInputStream(new ByteArrayInputStream(result.getResponse().getContentAsByteArray())).readAllBytes();
+        assertThat(new String(page, StandardCharsets.UTF_8)).contains("<html");
+    }
+
+    @Test
+    void sendsThePlainPageOtherwise() throws Exception {
+        MvcResult result = mockMvc.perform(get("/admin-side-gsk.html"))
+            .andExpect(status().isOk())
+            .andReturn();
+
+        assertThat(result.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(result.getResponse().getContentAsString()).contains("<html");
+    }
+}
@@ -0,0 +1,49 @@
+package com.smartlinkfinder.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartlinkfinder.entity.Link;
+import com.smartlinkfinder.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdminLinkTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    void publicLinkJsonNeverCarriesTheCreator() throws Exception {
+        JsonNode json = objectMapper.valueToTree(LinkPage.of(new PageImpl<>(List.of(link()), PageRequest.of(0, 10), 1)));
+
+        JsonNode content = json.get("content").get(0);
+        assertThat(content.get("referenceCode").asText()).isEqualTo("PI_1001");
+        assertThat(content.has("addedBy")).isFalse();
+        assertThat(content.has("addedByUsername")).isFalse();
+    }
+
+    @Test
+    void adminLinkAddsTheCreatorToTheLinkFields() throws Exception {
+        JsonNode json = objectMapper.valueToTree(
+            LinkPage.of(new PageImpl<>(List.of(link()), PageRequest.of(0, 10), 1), AdminLink::of));
+
+        JsonNode content = json.get("content").get(0);
+        assertThat(content.get("referenceCode").asText()).isEqualTo("PI_1001");
+        assertThat(content.get("addedBy").asText()).isEqualTo("admin.de");
+        assertThat(content.has("link")).isFalse();
+        assertThat(json.get("totalElements").asLong()).isEqualTo(1);
+    }
+
+    private static Link link() {
+        User creator = new User();
+        creator.setId(7L);
+        creator.setUsername("admin.de");
+        Link link = new Link("PI_1001", "https://example.com/pi.pdf", "Leaflet", "Singrix", Link.STATUS_ACTIVE);
+        link.setAddedBy(creator);
+        return link;
+    }
+}
@@ -0,0 +1,88 @@
+package com.smartlinkfinder.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.smartlinkfinder.entity.Link;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One page of links written three ways: Spring's Page as JSON (the response before LinkPage),
+ * LinkPage as JSON, and LinkPage as CBOR. Each operation serializes the whole page to bytes and
+ * returns the length; the encoded sizes are printed once per fork. See benchmark/README.md to run it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LinkPageSerializationBenchmark {
+
+    private static final String[] BRANDS = {"Singrix", "Aldovan", "Corventa", "Dermalis", "Ebrizol", "Fenotrex"};
+
+    @Param({"20", "1000"})
+    public int links;
+
+    private final ObjectMapper json = new ObjectMapper().findAndRegisterModules();
+    private final ObjectMapper cbor = new ObjectMapper(new CBORFactory()).findAndRegisterModules();
+
+    private Page<Link> page;
+    private LinkPage<Link> linkPage;
+
+    @Setup
+    public void load() throws Exception {
+        LocalDateTime now = LocalDateTime.of(2026, 10, 1, 9, 30);
+        List<Link> content = new ArrayList<>(links);
+        for (int i = 0; i < links; i++) {
+            String brand = BRANDS[i % BRANDS.length];
+            String code = String.format("PI_%06d", i);
+            Link link = new Link(code, "https://docs.example.com/de/" + brand.toLowerCase(Locale.ROOT) + "/" + code + ".pdf",
+                brand + " patient information leaflet", brand, Link.STATUS_ACTIVE);
+            link.setId((long) i + 1);
+            link.setCreatedAt(now);
+            link.setUpdatedAt(now);
+            link.setCurrentVersion(1);
+            content.add(link);
+        }
+        page = new PageImpl<>(content, PageRequest.of(0, links, Sort.by("referenceCode").ascending()), 25_000);
+        linkPage = LinkPage.of(page);
+
+        System.out.printf("%nbytes: springPageJson=%d linkPageJson=%d linkPageCbor=%d%n",
+            springPageJson(), linkPageJson(), linkPageCbor());
+    }
+
+    @Benchmark
+    public int springPageJson() throws Exception {
+        return json.writeValueAsBytes(page).length;
+    }
+
+    @Benchmark
+    public int linkPageJson() throws Exception {
+        return json.writeValueAsBytes(linkPage).length;
+    }
+
+    @Benchmark
+    public int linkPageCbor() throws Exception {
+        return cbor.writeValueAsBytes(linkPage).length;
+    }
+}
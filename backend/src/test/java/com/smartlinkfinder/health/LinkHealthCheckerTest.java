@@ -0,0 +1,171 @@
+package com.smartlinkfinder.health;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * LinkHealthChecker against a local stub server (com.sun.net.httpserver).
+ */
+class LinkHealthCheckerTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private ExecutorService clientExecutor;
+    private LinkHealthChecker checker;
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        serverExecutor = Executors.newFixedThreadPool(16);
+        server.setExecutor(serverExecutor);
+        server.start();
+        clientExecutor = Executors.newFixedThreadPool(4);
+        checker = new LinkHealthChecker(LinkHealthChecker.newHttpClient(clientExecutor, TIMEOUT), 2, TIMEOUT);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+        clientExecutor.shutdownNow();
+    }
+
+    @Test
+    void fallsBackToRangedGetWhenHeadIsRejected() throws Exception {
+        handle("/no-head", exchange -> {
+            requests.add(exchange.getRequestMethod() + " " + exchange.getRequestHeaders().getFirst("Range"));
+            if ("HEAD".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+            } else {
+                exchange.getResponseHeaders().add("ETag", "\"abc\"");
+                exchange.sendResponseHeaders(206, 1);
+                exchange.getResponseBody().write('x');
+            }
+            exchange.close();
+        });
+
+        LinkHealthChecker.Result result = check(new LinkHealthChecker.Target(1, url("/no-head"), null, null));
+
+        assertThat(requests).containsExactly("HEAD null", "GET bytes=0-0");
+        assertThat(result.getOutcome()).isEqualTo(LinkHealthChecker.Outcome.OK);
+        assertThat(result.getHttpStatus()).isEqualTo(206);
+        assertThat(result.getEtag()).isEqualTo("\"abc\"");
+    }
+
+    @Test
+    void notModifiedKeepsThePreviousValidators() throws Exception {
+        String lastModified = "Wed, 21 Oct 2026 07:28:00 GMT";
+        handle("/cached", exchange -> {
+            requests.add(exchange.getRequestHeaders().getFirst("If-None-Match") + " | "
+                + exchange.getRequestHeaders().getFirst("If-Modified-Since"));
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+        });
+
+        LinkHealthChecker.Result result = check(new LinkHealthChecker.Target(2, url("/cached"), "\"v1\"", lastModified));
+
+        assertThat(requests).containsExactly("\"v1\" | " + lastModified);
+        assertThat(result.getOutcome()).isEqualTo(LinkHealthChecker.Outcome.OK);
+        assertThat(result.getHttpStatus()).isEqualTo(304);
+        assertThat(result.getEtag()).isEqualTo("\"v1\"");
+        assertThat(result.getLastModified()).isEqualTo(lastModified);
+    }
+
+    @Test
+    void parsesRetryAfterSecondsAndHttpDates() throws Exception {
+        String inOneMinute = ZonedDateTime.now(ZoneOffset.UTC).plusSeconds(60).format(DateTimeFormatter.RFC_1123_DATE_TIME);
+        handle("/seconds", exchange -> respond(exchange, 503, "120"));
+        handle("/date", exchange -> respond(exchange, 429, inOneMinute));
+        handle("/garbage", exchange -> respond(exchange, 503, "soon"));
+
+        LinkHealthChecker.Result seconds = check(new LinkHealthChecker.Target(3, url("/seconds"), null, null));
+        LinkHealthChecker.Result date = check(new LinkHealthChecker.Target(4, url("/date"), null, null));
+        LinkHealthChecker.Result garbage = check(new LinkHealthChecker.Target(5, url("/garbage"), null, null));
+
+        assertThat(seconds.getOutcome()).isEqualTo(LinkHealthChecker.Outcome.UNREACHABLE);
+        assertThat(seconds.getRetryAfter()).isEqualTo(Duration.ofSeconds(120));
+        assertThat(date.getOutcome()).isEqualTo(LinkHealthChecker.Outcome.UNREACHABLE);
+        assertThat(date.getRetryAfter()).isBetween(Duration.ofSeconds(50), Duration.ofSeconds(61));
+        assertThat(garbage.getRetryAfter()).isNull();
+    }
+
+    @Test
+    void limitsConcurrentRequestsPerHost() throws Exception {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        CountDownLatch twoArrived = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        handle("/slow", exchange -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            twoArrived.countDown();
+            try {
+                release.await(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            inFlight.decrementAndGet();
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+
+        List<CompletableFuture<LinkHealthChecker.Result>> checks = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            checks.add(checker.check(new LinkHealthChecker.Target(i, url("/slow?n=" + i), null, null)));
+        }
+        assertThat(twoArrived.await(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)).isTrue();
+        // Give queued checks a chance to (wrongly) start
+        Thread.sleep(200);
+        assertThat(inFlight.get()).isEqualTo(2);
+        release.countDown();
+
+        for (CompletableFuture<LinkHealthChecker.Result> pending : checks) {
+            assertThat(pending.get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS).getOutcome())
+                .isEqualTo(LinkHealthChecker.Outcome.OK);
+        }
+        assertThat(maxInFlight.get()).isEqualTo(2);
+    }
+
+    private LinkHealthChecker.Result check(LinkHealthChecker.Target target) throws Exception {
+        return checker.check(target).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void handle(String path, HttpHandler handler) {
+        server.createContext(path, handler);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String retryAfter) throws IOException {
+        exchange.getResponseHeaders().add("Retry-After", retryAfter);
+        exchange.sendResponseHeaders(status, -1);
+        exchange.close();
+    }
+
+    private String url(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+}
@@ -0,0 +1,70 @@
+package com.smartlinkfinder.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtAuthenticationFilterTest {
+
+    private final AtomicInteger lookups = new AtomicInteger();
+    private final JwtUtil jwtUtil = JwtAuthenticationFilterBenchmark.jwtUtil(86_400_000L);
+    private final JwtAuthenticationFilter filter = new JwtAuthenticationFilter();
+
+    JwtAuthenticationFilterTest() {
+        UserDetails admin = User.withUsername("admin").password("x").roles("ADMIN").build();
+        ReflectionTestUtils.setField(filter, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(filter, "userDetailsService", new CustomUserDetailsService() {
+            @Override
+            public UserDetails loadUserByUsername(String username) {
+                lookups.incrementAndGet();
+                return admin;
+            }
+        });
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void publicRoutesIgnoreTokens() throws Exception {
+        String valid = jwtUtil.generateToken("admin", "ADMIN");
+        for (String path : new String[] {"/links/search", "/links/search/facets", "/links/reference/PI_1", "/public/link/PI_1"}) {
+            filter(path, valid);
+            filter(path, "not-a-token");
+        }
+
+        assertThat(lookups.get()).isZero();
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    @Test
+    void authenticatedRoutesAcceptValidTokensOnly() throws Exception {
+        filter("/links", JwtAuthenticationFilterBenchmark.jwtUtil(-60_000L).generateToken("admin", "ADMIN"));
+        assertThat(lookups.get()).isZero();
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+
+        filter("/links", jwtUtil.generateToken("admin", "ADMIN"));
+        assertThat(lookups.get()).isEqualTo(1);
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getName()).isEqualTo("admin");
+    }
+
+    private void filter(String path, String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api" + path);
+        request.setContextPath("/api");
+        request.setServletPath(path);
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+    }
+}
@@ -0,0 +1,177 @@
+package com.smartlinkfinder.service;
+
+import com.smartlinkfinder.dto.BulkLinkRequest;
+import com.smartlinkfinder.dto.BulkLinkResult;
+import com.smartlinkfinder.dto.LinkRequest;
+import com.smartlinkfinder.entity.Link;
+import com.smartlinkfinder.entity.User;
+import com.smartlinkfinder.repository.LinkRepository;
+import com.smartlinkfinder.repository.UserRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Per-item validation and chunk failure handling of bulk requests, over an in-memory link table.
+ */
+class BulkLinkServiceTest {
+
+    private final LinkRepository linkRepository = mock(LinkRepository.class);
+    private final Map<Long, Link> table = new HashMap<>();
+    private final List<String> flushed = new ArrayList<>();
+    private BulkLinkService bulkLinkService;
+
+    @BeforeEach
+    void setUp() {
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(new User()));
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        when(linkRepository.findAllById(anyList())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(table::get).filter(link -> link != null).toList();
+        });
+        when(linkRepository.findByLowerReferenceCodeIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> codes = invocation.getArgument(0);
+            return table.values().stream()
+                .filter(link -> codes.contains(link.getReferenceCode().toLowerCase(Locale.ROOT)))
+                .toList();
+        });
+        when(linkRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        // What a flush would write: the codes of the table at that moment
+        doAnswer(invocation -> {
+            flushed.add(table.values().stream().map(link -> link.getId() + "=" + link.getReferenceCode()).sorted().toList().toString());
+            return null;
+        }).when(linkRepository).flush();
+
+        bulkLinkService = new BulkLinkService();
+        ReflectionTestUtils.setField(bulkLinkService, "linkRepository", linkRepository);
+        ReflectionTestUtils.setField(bulkLinkService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(bulkLinkService, "eventPublisher", mock(ApplicationEventPublisher.class));
+        ReflectionTestUtils.setField(bulkLinkService, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(bulkLinkService, "validator", Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(bulkLinkService, "maxItems", 5000);
+        ReflectionTestUtils.setField(bulkLinkService, "chunkSize", 500);
+    }
+
+    @Test
+    void aCodeGivenUpByARenameCanBeTakenLaterInTheChunk() {
+        put(1L, "PI_1001");
+        put(2L, "PI_1002");
+        BulkLinkRequest request = new BulkLinkRequest();
+        // Link 2 moves away from PI_1002, then link 1 (lower id, so flushed first) takes it
+        request.setUpdate(List.of(update(2L, "PI_2002"), update(1L, "PI_1002")));
+
+        List<BulkLinkResult> results = bulkLinkService.apply(request, "admin");
+
+        assertThat(results).allMatch(BulkLinkResult::isSuccess);
+        assertThat(table.get(1L).getReferenceCode()).isEqualTo("PI_1002");
+        assertThat(table.get(2L).getReferenceCode()).isEqualTo("PI_2002");
+        // The rename was written while link 1 still had its old code
+        assertThat(flushed.get(0)).isEqualTo("[1=PI_1001, 2=PI_2002]");
+    }
+
+    @Test
+    void reportsEachInvalidItemAndAppliesTheRest() {
+        put(1L, "PI_1001");
+        put(2L, "PI_1002");
+        put(3L, "PI_1003");
+        BulkLinkRequest.Update blankUrl = update(3L, "PI_1003");
+        blankUrl.setFullUrl(" ");
+        BulkLinkRequest request = new BulkLinkRequest();
+        request.setUpdate(List.of(
+            update(99L, "PI_9999"),
+            update(1L, "PI_1001"),
+            update(1L, "PI_1001"),
+            update(2L, "pi_1001"),
+            blankUrl));
+
+        List<BulkLinkResult> results = bulkLinkService.apply(request, "admin");
+
+        assertThat(results).extracting(BulkLinkResult::getError).containsExactly(
+            "Link not found", null, "Duplicate id in request", "Reference code already exists", "URL is required");
+        assertThat(results).extracting(BulkLinkResult::getIndex).containsExactly(0, 1, 2, 3, 4);
+        assertThat(table.get(2L).getReferenceCode()).isEqualTo("PI_1002");
+    }
+
+    @Test
+    void aChunkRejectedByTheDatabaseFailsAsAWholeAndLaterChunksStillRun() {
+        ReflectionTestUtils.setField(bulkLinkService, "chunkSize", 2);
+        AtomicInteger saves = new AtomicInteger();
+        AtomicInteger ids = new AtomicInteger(100);
+        when(linkRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            if (saves.incrementAndGet() == 1) {
+                throw new DataIntegrityViolationException("duplicate key", new IllegalStateException("links_active_lower_reference_code_uidx"));
+            }
+            List<Link> links = invocation.getArgument(0);
+            links.forEach(link -> link.setId((long) ids.incrementAndGet()));
+            return links;
+        });
+        BulkLinkRequest request = new BulkLinkRequest();
+        request.setCreate(List.of(create("PI_1001"), create("PI_1002"), create("PI_1003")));
+
+        List<BulkLinkResult> results = bulkLinkService.apply(request, "admin");
+
+        assertThat(results).extracting(BulkLinkResult::isSuccess).containsExactly(false, false, true);
+        assertThat(results.get(0).getError()).isEqualTo("Chunk rolled back: links_active_lower_reference_code_uidx");
+        assertThat(results.get(2).getId()).isEqualTo(101L);
+        assertThat(results.get(2).getIndex()).isEqualTo(2);
+    }
+
+    @Test
+    void rejectsRequestsOverTheItemLimit() {
+        ReflectionTestUtils.setField(bulkLinkService, "maxItems", 2);
+        BulkLinkRequest request = new BulkLinkRequest();
+        request.setDelete(List.of(1L, 2L, 3L));
+
+        assertThatThrownBy(() -> bulkLinkService.apply(request, "admin"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Bulk request exceeds the limit of 2 items");
+    }
+
+    private void put(Long id, String referenceCode) {
+        Link link = new Link(referenceCode, "https://docs.example.com/" + referenceCode + ".pdf", "leaflet", "Singrix",
+            Link.STATUS_ACTIVE);
+        link.setId(id);
+        table.put(id, link);
+    }
+
+    private static BulkLinkRequest.Update update(Long id, String referenceCode) {
+        BulkLinkRequest.Update update = new BulkLinkRequest.Update();
+        update.setId(id);
+        update.setReferenceCode(referenceCode);
+        update.setFullUrl("https://docs.example.com/" + referenceCode + "-v2.pdf");
+        return update;
+    }
+
+    private static LinkRequest create(String referenceCode) {
+        LinkRequest create = new LinkRequest();
+        create.setReferenceCode(referenceCode);
+        create.setFullUrl("https://docs.example.com/" + referenceCode + ".pdf");
+        return create;
+    }
+}
@@ -0,0 +1,76 @@
+package com.smartlinkfinder.service;
+
+import com.smartlinkfinder.PostgresTestDatabase;
+import com.smartlinkfinder.entity.Link;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * The set-based Excel upsert against the migrated schema.
+ */
+class ExcelUploadServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private ExcelUploadService uploadService;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = PostgresTestDatabase.jdbcTemplate();
+        jdbcTemplate.execute("TRUNCATE links, links_archive, link_versions_archive, link_changes, users CASCADE");
+
+        uploadService = new ExcelUploadService();
+        ReflectionTestUtils.setField(uploadService, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(uploadService, "eventPublisher", mock(ApplicationEventPublisher.class));
+    }
+
+    @Test
+    void insertsNewCodesAndSkipsUnchangedRows() {
+        ExcelUploadService.UpsertResult first = uploadService.upsertLinks(List.of(row("PI_1001", "https://docs.example.com/a.pdf")));
+        ExcelUploadService.UpsertResult second = uploadService.upsertLinks(List.of(
+            row("pi_1001", "https://docs.example.com/a.pdf"), row("PI_1002", "https://docs.example.com/b.pdf")));
+
+        assertThat(first.getInserted()).isEqualTo(1);
+        assertThat(second.getInserted()).isEqualTo(1);
+        assertThat(second.getUnchanged()).isEqualTo(1);
+        assertThat(second.getUpdated()).isZero();
+    }
+
+    @Test
+    void keepsTheStatusOfAScheduledLinkAndHashesWhatItKeeps() {
+        String url = "https://docs.example.com/scheduled.pdf";
+        long id = jdbcTemplate.queryForObject(
+            "INSERT INTO links (reference_code, full_url, status, market, content_hash, valid_from, created_at, updated_at) " +
+            "VALUES ('PI_2001', ?, 'SCHEDULED', 'GLOBAL', ?, now() + interval '7 days', now(), now()) RETURNING id",
+            Long.class, url, Link.contentHash(url, Link.STATUS_SCHEDULED));
+
+        // Same URL: nothing to write although the file says ACTIVE
+        assertThat(uploadService.upsertLinks(List.of(row("PI_2001", url))).getUnchanged()).isEqualTo(1);
+
+        String moved = "https://docs.example.com/scheduled-v2.pdf";
+        assertThat(uploadService.upsertLinks(List.of(row("PI_2001", moved))).getUpdated()).isEqualTo(1);
+        Map<String, Object> stored = jdbcTemplate.queryForMap("SELECT full_url, status, content_hash FROM links WHERE id = ?", id);
+        assertThat(stored.get("full_url")).isEqualTo(moved);
+        assertThat(stored.get("status")).isEqualTo(Link.STATUS_SCHEDULED);
+        assertThat(stored.get("content_hash")).isEqualTo(Link.contentHash(moved, Link.STATUS_SCHEDULED));
+
+        // And the re-import of the new URL is a no-op again
+        ExcelUploadService.UpsertResult again = uploadService.upsertLinks(List.of(row("PI_2001", moved)));
+        assertThat(again.getUnchanged()).isEqualTo(1);
+        assertThat(again.getUpdated()).isZero();
+    }
+
+    private static Link row(String referenceCode, String fullUrl) {
+        Link link = new Link(referenceCode, fullUrl, null, null, Link.STATUS_ACTIVE);
+        link.setMarket(Link.DEFAULT_MARKET);
+        return link;
+    }
+}
@@ -0,0 +1,83 @@
+package com.smartlinkfinder.service;
+
+import com.smartlinkfinder.PostgresTestDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The cold-storage move against the migrated schema.
+ */
+class LinkArchiveServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private LinkArchiveService archiveService;
+    private long adminId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = PostgresTestDatabase.jdbcTemplate();
+        jdbcTemplate.execute("TRUNCATE links, links_archive, link_versions_archive, link_changes, users CASCADE");
+        adminId = jdbcTemplate.queryForObject(
+            "INSERT INTO users (username, email, password, role) VALUES ('admin', 'admin@example.com', 'x', 'ADMIN') RETURNING id",
+            Long.class);
+
+        archiveService = new LinkArchiveService();
+        ReflectionTestUtils.setField(archiveService, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(archiveService, "coldAfterDays", 30);
+        ReflectionTestUtils.setField(archiveService, "batchSize", 1000);
+    }
+
+    @Test
+    void movesLinksWithUrlsLongerThanTheOriginalColumn() {
+        String longUrl = "https://docs.example.com/de/singrix/" + "a".repeat(1900) + ".pdf";
+        long id = insertLink("PI_1001", "https://docs.example.com/de/singrix/pi_1001.pdf");
+        jdbcTemplate.update("UPDATE links SET full_url = ? WHERE id = ?", longUrl, id);
+        archive(id, 40);
+
+        archiveService.moveToColdStorage();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM links WHERE id = ?", Long.class, id)).isZero();
+        Map<String, Object> archived = jdbcTemplate.queryForMap(
+            "SELECT reference_code, full_url, current_version FROM links_archive WHERE id = ?", id);
+        assertThat(archived.get("reference_code")).isEqualTo("PI_1001");
+        assertThat(archived.get("full_url")).isEqualTo(longUrl);
+        assertThat(archived.get("current_version")).isEqualTo(2);
+        List<String> history = jdbcTemplate.queryForList(
+            "SELECT full_url FROM link_versions_archive WHERE link_id = ? ORDER BY version", String.class, id);
+        assertThat(history).containsExactly("https://docs.example.com/de/singrix/pi_1001.pdf", longUrl);
+    }
+
+    @Test
+    void movesOnlyLinksArchivedLongEnoughAgo() {
+        long old = insertLink("PI_1001", "https://docs.example.com/pi_1001.pdf");
+        long recent = insertLink("PI_1002", "https://docs.example.com/pi_1002.pdf");
+        long live = insertLink("PI_1003", "https://docs.example.com/pi_1003.pdf");
+        archive(old, 31);
+        archive(recent, 5);
+
+        archiveService.moveToColdStorage();
+
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM links_archive", Long.class)).containsExactly(old);
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM links ORDER BY id", Long.class)).containsExactly(recent, live);
+        assertThat(archiveService.getStatistics()).containsEntry("archived", 1L).containsEntry("coldStorage", 1L);
+    }
+
+    private long insertLink(String referenceCode, String fullUrl) {
+        return jdbcTemplate.queryForObject(
+            "INSERT INTO links (reference_code, full_url, description, brand_name, status, added_by_id, created_at, updated_at) " +
+            "VALUES (?, ?, 'leaflet', 'Singrix', 'ACTIVE', ?, now(), now()) RETURNING id",
+            Long.class, referenceCode, fullUrl, adminId);
+    }
+
+    private void archive(long id, int daysAgo) {
+        jdbcTemplate.update("UPDATE links SET status = 'ARCHIVED', archived_at = now() - make_interval(days => ?) WHERE id = ?",
+            daysAgo, id);
+    }
+}
@@ -0,0 +1,148 @@
+package com.smartlinkfinder.validity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+    // 4 slots per level and 3 levels: level 0 covers 4 ticks, level 1 16, level 2 64 (640 ms)
+    private static final long TICK = 10;
+
+    private final List<Long> fired = new ArrayList<>();
+    private final TimingWheel.Expiry record = (key, deadline) -> fired.add(key);
+
+    @Test
+    void deadlineOnATickBoundaryFiresOnThatTick() {
+        TimingWheel wheel = new TimingWheel(TICK, 4, 3, 0);
+        assertThat(wheel.schedule(1, 50)).isTrue();
+
+        wheel.advanceTo(49, record);
+        assertThat(fired).isEmpty();
+        wheel.advanceTo(50, record);
+        assertThat(fired).containsExactly(1L);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void deadlineBetweenTicksIsRoundedUp() {
+        TimingWheel wheel = new TimingWheel(TICK, 4, 3, 0);
+        wheel.schedule(1, 51);
+
+        wheel.advanceTo(59, record);
+        assertThat(fired).isEmpty();
+        wheel.advanceTo(60, record);
+        assertThat(fired).containsExactly(1L);
+    }
+
+    @Test
+    void dueDeadlinesAreNotScheduled() {
+        TimingWheel wheel = new TimingWheel(TICK, 4, 3, 100);
+
+        assertThat(wheel.schedule(1, 100)).isFalse();
+        assertThat(wheel.schedule(2, 95)).isFalse();
+        assertThat(wheel.schedule(3, 101)).isTrue();
+        assertThat(wheel.size()).isEqualTo(1);
+    }
+
+    @Test
+    void cascadesThroughLevelRollovers() {
+        TimingWheel wheel = new TimingWheel(TICK, 4, 3, 0);
+        // Level 1 (tick 5), level 2 cascading straight to due (tick 16), level 2 into level 1 on the
+        // same tick that level 1 wraps (tick 20), and level 2 into level 0 (tick 17)
+        wheel.schedule(5, 50);
+        wheel.schedule(16, 160);
+        wheel.schedule(20, 200);
+        wheel.schedule(17, 170);
+
+        for (long tick = 1; tick <= 20; tick++) {
+            wheel.advanceTo(tick * TICK, record);
+            long now = tick;
+            assertThat(fired).as("tick %d", tick).allMatch(key -> key <= now);
+        }
+        assertThat(fired).containsExactly(5L, 16L, 17L, 20L);
+    }
+
+    @Test
+    void bothHigherLevelsCascadeOnTheSameTick() {
+        // Start at tick 13, so level 1 and level 2 both wrap at tick 16
+        TimingWheel wheel = new TimingWheel(TICK, 4, 3, 130);
+        wheel.schedule(16, 160);
+        wheel.schedule(18, 180);
+        wheel.schedule(31, 310);
+        wheel.schedule(47, 470);
+
+        Map<Long, Long> firedAt = new HashMap<>();
+        for (long tick = 14; tick <= 48; tick++) {
+            long now = tick * TICK;
+            wheel.advanceTo(now, (key, deadline) -> firedAt.put(key, now));
+        }
+        assertThat(firedAt).containsEntry(16L, 160L).containsEntry(18L, 180L)
+            .containsEntry(31L, 310L).containsEntry(47L, 470L);
+    }
+
+    @Test
+    void parksDeadlinesBeyondTheSpan() {
+        TimingWheel wheel = new TimingWheel(TICK, 4, 3, 0);
+        assertThat(wheel.spanMillis()).isEqualTo(640);
+        long far = 10 * wheel.spanMillis() + 3;
+        wheel.schedule(1, far);
+
+        wheel.advanceTo(far - 1, record);
+        assertThat(fired).isEmpty();
+        assertThat(wheel.size()).isEqualTo(1);
+        // Rounded up to the next tick boundary
+        wheel.advanceTo(far + 6, record);
+        assertThat(fired).isEmpty();
+        wheel.advanceTo(far + 7, record);
+        assertThat(fired).containsExactly(1L);
+    }
+
+    @Test
+    void neverFiresEarlyAndNeverLate() {
+        Random random = new Random(11);
+        for (int round = 0; round < 50; round++) {
+            long start = random.nextInt(100_000) - 50_000;
+            TimingWheel wheel = new TimingWheel(TICK, 4, 3, start);
+            Map<Long, Long> deadlines = new HashMap<>();
+            long now = start;
+            long key = 0;
+            while (now < start + 20 * wheel.spanMillis()) {
+                // Schedule relative to the current time, some of them beyond the span
+                int scheduled = random.nextInt(5);
+                for (int i = 0; i < scheduled; i++) {
+                    long deadline = now + 1 + (random.nextBoolean()
+                        ? random.nextInt((int) wheel.spanMillis())
+                        : random.nextInt((int) (4 * wheel.spanMillis())));
+                    if (wheel.schedule(++key, deadline)) {
+                        deadlines.put(key, deadline);
+                    }
+                }
+                long previous = now;
+                long advanced = now + random.nextInt(3 * (int) TICK);
+                wheel.advanceTo(advanced, (firedKey, deadline) -> {
+                    assertThat(deadline).isEqualTo(deadlines.get(firedKey));
+                    assertThat(deadline).as("key %d fired early", firedKey).isLessThanOrEqualTo(advanced);
+                    // Due by the end of the previous advance means it should have fired then
+                    assertThat(roundUp(deadline)).as("key %d fired late", firedKey).isGreaterThan(previous);
+                    deadlines.remove(firedKey);
+                });
+                now = advanced;
+                for (long deadline : deadlines.values()) {
+                    assertThat(roundUp(deadline)).isGreaterThan(now);
+                }
+                assertThat(wheel.size()).isEqualTo(deadlines.size());
+            }
+        }
+    }
+
+    private static long roundUp(long deadline) {
+        return Math.floorDiv(deadline + TICK - 1, TICK) * TICK;
+    }
+}